@@ -0,0 +1,77 @@
+package org.example.bench;
+
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.PostSummaryDTO;
+import org.example.dto.TagDTO;
+import org.example.entity.Author;
+import org.example.entity.Post;
+import org.example.entity.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds deterministic entity and DTO graphs for the benchmarks, sized like real rows.
+ */
+final class BenchmarkData {
+
+    private static final String CONTENT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud "
+            + "exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    private BenchmarkData() {
+    }
+
+    static List<Tag> tags(int count) {
+        List<Tag> tags = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tag tag = new Tag("tag-" + i);
+            tag.setId((long) i + 1);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    static Author author(long id, int posts, int tagsPerPost) {
+        Author author = new Author("Author " + id, "author" + id + "@example.org");
+        author.setId(id);
+        List<Tag> tags = tags(tagsPerPost);
+        List<Post> authorPosts = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            Post post = new Post(id * 1_000 + i, "Post " + i + " by author " + id, CONTENT, author);
+            post.setTags(tags);
+            authorPosts.add(post);
+        }
+        author.setPosts(authorPosts);
+        return author;
+    }
+
+    static AuthorDTO authorDTO(long id, int posts) {
+        AuthorDTO dto = new AuthorDTO(id, "Author " + id, "author" + id + "@example.org");
+        List<PostSummaryDTO> summaries = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            summaries.add(new PostSummaryDTO(id * 1_000 + i, "Post " + i + " by author " + id));
+        }
+        dto.setPosts(summaries);
+        return dto;
+    }
+
+    static PostDTO postDTO(long id, int tagsPerPost) {
+        PostDTO dto = new PostDTO(id, "Post " + id, CONTENT, id % 100 + 1);
+        List<TagDTO> tags = new ArrayList<>(tagsPerPost);
+        for (int i = 0; i < tagsPerPost; i++) {
+            tags.add(new TagDTO((long) i + 1, "tag-" + i));
+        }
+        dto.setTags(tags);
+        return dto;
+    }
+
+    static List<PostDTO> postDTOs(int count, int tagsPerPost) {
+        List<PostDTO> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(postDTO(i + 1, tagsPerPost));
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.bench;
+
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.entity.Author;
+import org.example.entity.Post;
+import org.example.mapper.AuthorMapper;
+import org.example.mapper.PostMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Measures the MapStruct mappers on an author with {@code postsPerAuthor} posts,
+ * each linked to {@code tagsPerPost} tags.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int postsPerAuthor;
+
+    @Param({"3", "20"})
+    private int tagsPerPost;
+
+    private PostMapper postMapper;
+    private AuthorMapper authorMapper;
+
+    private Author author;
+    private Post post;
+    private AuthorDTO authorDTO;
+    private PostDTO postDTO;
+
+    @Setup
+    public void setUp() {
+        postMapper = Mappers.getMapper(PostMapper.class);
+        authorMapper = Mappers.getMapper(AuthorMapper.class);
+        author = BenchmarkData.author(1L, postsPerAuthor, tagsPerPost);
+        post = author.getPosts().get(0);
+        authorDTO = BenchmarkData.authorDTO(1L, postsPerAuthor);
+        postDTO = BenchmarkData.postDTO(1L, tagsPerPost);
+    }
+
+    @Benchmark
+    public PostDTO postToDTO() {
+        return postMapper.toDTO(post);
+    }
+
+    @Benchmark
+    public Post postToEntity() {
+        return postMapper.toEntity(postDTO);
+    }
+
+    @Benchmark
+    public AuthorDTO authorToDTO() {
+        return authorMapper.toDTO(author);
+    }
+
+    @Benchmark
+    public Author authorToEntity() {
+        return authorMapper.toEntity(authorDTO);
+    }
+}
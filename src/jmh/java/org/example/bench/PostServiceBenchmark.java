@@ -0,0 +1,119 @@
+package org.example.bench;
+
+import org.example.cache.CacheRegistry;
+import org.example.dto.PostDTO;
+import org.example.entity.Author;
+import org.example.entity.Post;
+import org.example.entity.Tag;
+import org.example.repository.AuthorRepository;
+import org.example.repository.PostRepository;
+import org.example.repository.TagRepository;
+import org.example.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures {@link PostService} reads against an embedded H2 database seeded with {@code posts} posts,
+ * spread over {@code posts / 10} authors and linked to three of {@value #TAGS} tags each.
+ * <p>
+ * {@code getPostById} is measured both as a DTO cache hit and with the entry evicted before every call,
+ * which goes through the repository and the second-level cache.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostServiceBenchmark {
+
+    private static final int TAGS = 50;
+    private static final int TAGS_PER_POST = 3;
+
+    @Param({"100", "1000", "10000"})
+    private int posts;
+
+    private AnnotationConfigApplicationContext context;
+    private PostService postService;
+    private CacheRegistry cacheRegistry;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        postService = context.getBean(PostService.class);
+        cacheRegistry = context.getBean(CacheRegistry.class);
+        firstId = seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long seed() {
+        AuthorRepository authorRepository = context.getBean(AuthorRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        TagRepository tagRepository = context.getBean(TagRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        return tx.execute(status -> {
+            List<Tag> tags = new ArrayList<>(TAGS);
+            for (int i = 0; i < TAGS; i++) {
+                tags.add(new Tag("tag-" + i));
+            }
+            tagRepository.saveAll(tags);
+            List<Author> authors = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, posts / 10); i++) {
+                authors.add(new Author("Author " + i, "author" + i + "@example.org"));
+            }
+            authorRepository.saveAll(authors);
+            List<Post> seeded = new ArrayList<>(posts);
+            for (int i = 0; i < posts; i++) {
+                Post post = new Post(null, "Post " + i, "Content of post " + i, authors.get(i % authors.size()));
+                List<Tag> postTags = new ArrayList<>(TAGS_PER_POST);
+                for (int t = 0; t < TAGS_PER_POST; t++) {
+                    postTags.add(tags.get((i + t) % TAGS));
+                }
+                post.setTags(postTags);
+                seeded.add(post);
+            }
+            postRepository.saveAll(seeded);
+            return seeded.get(0).getId();
+        });
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(posts);
+    }
+
+    @Benchmark
+    public List<PostDTO> getAllPosts() {
+        return postService.getAllPosts();
+    }
+
+    @Benchmark
+    public PostDTO getPostByIdCached() {
+        return postService.getPostById(randomId());
+    }
+
+    @Benchmark
+    public PostDTO getPostByIdUncached() {
+        long id = randomId();
+        cacheRegistry.posts().evictAfterCommit(id);
+        return postService.getPostById(id);
+    }
+}
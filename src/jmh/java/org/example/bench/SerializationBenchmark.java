@@ -0,0 +1,59 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.configuration.JacksonConfig;
+import org.example.dto.PostDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Measures Jackson serialisation of a {@code List<PostDTO>} response body of {@code size} posts,
+ * each with three tags, written to a discarding stream as the message converter would stream it.
+ * {@code mapper} compares a plain ObjectMapper, which serialises through bean introspection, with the
+ * application's mapper from {@link JacksonConfig}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"default", "tuned"})
+    private String mapper;
+
+    private ObjectWriter writer;
+    private List<PostDTO> posts;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = "tuned".equals(mapper) ? JacksonConfig.objectMapper(16) : new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<PostDTO>>() {
+        });
+        posts = BenchmarkData.postDTOs(size, 3);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), posts);
+    }
+
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return writer.writeValueAsBytes(posts);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.cache;
+
+import org.example.dto.AuthorDTO;
+import org.example.dto.CacheStatsDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.TagDTO;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Holds the DTO caches of the application.
+ * <p>
+ * Each cache is configured by {@code cache.<name>.max-size} (default {@value #DEFAULT_MAX_SIZE})
+ * and {@code cache.<name>.ttl-seconds} (default {@value #DEFAULT_TTL_SECONDS}).
+ * </p>
+ */
+@Component
+public class CacheRegistry {
+
+    static final long DEFAULT_MAX_SIZE = 10_000;
+    static final long DEFAULT_TTL_SECONDS = 300;
+
+    private final DtoCache<AuthorDTO> users;
+    private final DtoCache<PostDTO> posts;
+    private final DtoCache<TagDTO> tags;
+
+    /**
+     * Constructor for CacheRegistry.
+     *
+     * @param env Environment providing the cache sizes and TTLs.
+     */
+    public CacheRegistry(Environment env) {
+        this.users = create("users", env);
+        this.posts = create("posts", env);
+        this.tags = create("tags", env);
+    }
+
+    private static <V> DtoCache<V> create(String name, Environment env) {
+        long maxSize = env.getProperty("cache." + name + ".max-size", Long.class, DEFAULT_MAX_SIZE);
+        long ttlSeconds = env.getProperty("cache." + name + ".ttl-seconds", Long.class, DEFAULT_TTL_SECONDS);
+        return new DtoCache<>(name, maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public DtoCache<AuthorDTO> users() {
+        return users;
+    }
+
+    public DtoCache<PostDTO> posts() {
+        return posts;
+    }
+
+    public DtoCache<TagDTO> tags() {
+        return tags;
+    }
+
+    /**
+     * Returns the statistics of all caches.
+     *
+     * @return one entry per cache.
+     */
+    public List<CacheStatsDTO> stats() {
+        return List.of(users.stats(), posts.stats(), tags.stats());
+    }
+}
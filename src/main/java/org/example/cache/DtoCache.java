@@ -0,0 +1,127 @@
+package org.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.dto.CacheStatsDTO;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, time-limited read-through cache of DTOs keyed by entity ID.
+ * <p>
+ * Entries are loaded atomically per key, and an invalidation of a key that is being loaded waits
+ * for the load to finish before removing it. Invalidations requested inside a transaction are
+ * deferred until it commits, so a reader can never re-cache the row as it was before the write.
+ * </p>
+ *
+ * @param <V> the type of the cached DTOs.
+ */
+public class DtoCache<V> {
+
+    private final String name;
+    private final Cache<Long, V> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructor for DtoCache.
+     *
+     * @param name    Name of the cache, as reported in its statistics.
+     * @param maxSize Maximum number of entries; least valuable entries are evicted beyond it.
+     * @param ttl     Time after which an entry expires, counted from when it was loaded.
+     */
+    public DtoCache(String name, long maxSize, Duration ttl) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached DTO for the given ID, loading and caching it on a miss.
+     *
+     * @param id     ID of the entity.
+     * @param loader Loads the DTO from the database; exceptions propagate and nothing is cached.
+     * @return The cached or freshly loaded DTO.
+     */
+    public V get(Long id, Function<Long, V> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Returns the cached DTO for the given ID without loading it.
+     *
+     * @param id ID of the entity.
+     * @return The cached DTO, or null on a miss.
+     */
+    public V getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Removes the entry for the given ID once the current transaction commits,
+     * or immediately if no transaction is active.
+     *
+     * @param id ID of the modified entity.
+     */
+    public void evictAfterCommit(Long id) {
+        if (id != null) {
+            afterCommit(() -> invalidate(id));
+        }
+    }
+
+    /**
+     * Removes all entries once the current transaction commits, or immediately if no transaction is active.
+     * Used when a write may affect DTOs whose IDs are not known.
+     */
+    public void clearAfterCommit() {
+        afterCommit(this::clear);
+    }
+
+    void invalidate(Long id) {
+        cache.invalidate(id);
+        invalidations.increment();
+    }
+
+    void clear() {
+        invalidations.add(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of this cache.
+     *
+     * @return a point-in-time view of the cache statistics.
+     */
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setName(name);
+        dto.setSize(cache.estimatedSize());
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setInvalidationCount(invalidations.sum());
+        return dto;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
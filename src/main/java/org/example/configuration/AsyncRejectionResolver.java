@@ -0,0 +1,30 @@
+package org.example.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.logging.RequestLog;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Answers 503 Service Unavailable when the async request executor rejects a handler, because all
+ * its threads are busy and its queue is full. Spring MVC dispatches the rejection like an exception
+ * thrown by the handler, which would otherwise end as a 500.
+ */
+public class AsyncRejectionResolver implements HandlerExceptionResolver {
+
+    private static final RequestLog requestLog = RequestLog.getLog(AsyncRejectionResolver.class);
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Exception ex) {
+        if (!(ex instanceof TaskRejectedException)) {
+            return null;
+        }
+        requestLog.warn("ASYNC rejected", "uri", request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        return new ModelAndView();
+    }
+}
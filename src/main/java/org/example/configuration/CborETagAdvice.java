@@ -0,0 +1,47 @@
+package org.example.configuration;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Gives CBOR bodies their own strong entity tags.
+ * <p>
+ * A CBOR body holds the same DTO as the JSON one but not the same bytes, so its tag gets a {@code -cbor}
+ * suffix, as in {@code "3.1-cbor"}, the way the compression filter appends the content coding. Once
+ * Spring's conditional request check has moved the tag onto the servlet response, it is replaced there.
+ * </p>
+ */
+@ControllerAdvice
+public class CborETagAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String ETAG_SUFFIX = "-cbor";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return CborHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String etag = response.getHeaders().getETag();
+        if (etag != null && !etag.startsWith("W/") && etag.endsWith("\"") && !etag.contains("-")) {
+            String cborETag = etag.substring(0, etag.length() - 1) + ETAG_SUFFIX + "\"";
+            if (response instanceof ServletServerHttpResponse
+                    && ((ServletServerHttpResponse) response).getServletResponse().containsHeader(HttpHeaders.ETAG)) {
+                ((ServletServerHttpResponse) response).getServletResponse().setHeader(HttpHeaders.ETAG, cborETag);
+            } else {
+                response.getHeaders().set(HttpHeaders.ETAG, cborETag);
+            }
+        }
+        return body;
+    }
+}
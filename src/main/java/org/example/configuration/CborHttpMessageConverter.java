@@ -0,0 +1,130 @@
+package org.example.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes {@code application/cbor} bodies with Jackson's CBOR format, configured like the JSON mapper.
+ * <p>
+ * Request bodies larger than the configured maximum are rejected with {@code 413 Payload Too Large}, from the
+ * declared {@code Content-Length} or as soon as the stream passes the limit.
+ * </p>
+ * <p>
+ * The entity tags of the bodies it writes get a suffix from {@link CborETagAdvice}.
+ * </p>
+ */
+public class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    /**
+     * Maximum body size used when none is configured.
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = 16 * 1024 * 1024;
+
+    private final long maxBodySize;
+
+    /**
+     * Constructor for CborHttpMessageConverter, reading bodies of up to {@link #DEFAULT_MAX_BODY_SIZE} bytes.
+     *
+     * @param cborMapper Mapper built by {@link JacksonConfig#cborMapper(int)}.
+     */
+    public CborHttpMessageConverter(ObjectMapper cborMapper) {
+        this(cborMapper, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Constructor for CborHttpMessageConverter.
+     *
+     * @param cborMapper  Mapper built by {@link JacksonConfig#cborMapper(int)}.
+     * @param maxBodySize Largest request body read, in bytes.
+     * @throws IllegalArgumentException if the maximum is not positive.
+     */
+    public CborHttpMessageConverter(ObjectMapper cborMapper, int maxBodySize) {
+        super(cborMapper);
+        if (maxBodySize <= 0) {
+            throw new IllegalArgumentException("Maximum CBOR body size must be positive: " + maxBodySize);
+        }
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return super.read(type, contextClass, limit(inputMessage));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return super.readInternal(clazz, limit(inputMessage));
+    }
+
+    private HttpInputMessage limit(HttpInputMessage inputMessage) {
+        if (inputMessage.getHeaders().getContentLength() > maxBodySize) {
+            throw tooLarge();
+        }
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() throws IOException {
+                return new LimitedInputStream(inputMessage.getBody());
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+
+    private ResponseStatusException tooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "CBOR body larger than " + maxBodySize + " bytes");
+    }
+
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining = maxBodySize;
+
+        private LimitedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) {
+            remaining -= n;
+            if (remaining < 0) {
+                throw tooLarge();
+            }
+        }
+    }
+}
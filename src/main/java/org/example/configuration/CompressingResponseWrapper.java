@@ -0,0 +1,407 @@
+package org.example.configuration;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.Deflater;
+
+/**
+ * Response whose body is held back until {@link CompressionFilter} can tell whether it is worth
+ * compressing, then either compressed or passed through.
+ * <p>
+ * The decision is made on the first write if the response cannot be compressed at all, once the
+ * body reaches the threshold, or when the response completes. Until then {@code Content-Length}
+ * is held back too, since it no longer applies to a compressed body, and flushes are deferred.
+ * </p>
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final String encoding;
+    private final CompressionFilter filter;
+    private final CompressingOutputStream outputStream = new CompressingOutputStream();
+
+    private CompressionFilter.Workspace workspace;
+    private int pendingLength;
+    private long contentLength = -1;
+    private boolean decided;
+    private Encoder encoder;
+    private PrintWriter writer;
+    private boolean finished;
+
+    CompressingResponseWrapper(HttpServletResponse response, String encoding, CompressionFilter filter) {
+        super(response);
+        this.encoding = encoding;
+        this.filter = filter;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!decided) {
+            contentLength = len;
+        } else if (encoder == null) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (!decided) {
+            pendingLength = 0;
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (!decided) {
+            pendingLength = 0;
+            contentLength = -1;
+        }
+    }
+
+    /**
+     * Sends what is still held back and ends the compressed stream, then returns the buffers to
+     * the pool. Called once the response is complete.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (!decided) {
+                decide(false);
+            }
+            if (encoder != null) {
+                encoder.finish();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the buffers to the pool without sending anything more.
+     */
+    void release() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (encoder != null) {
+            encoder.close();
+        }
+        if (workspace != null) {
+            filter.release(workspace);
+            workspace = null;
+        }
+    }
+
+    boolean isCompressing() {
+        return encoder != null;
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        return status != SC_NO_CONTENT && status != SC_PARTIAL_CONTENT && status != SC_NOT_MODIFIED
+                && !containsHeader(HttpHeaders.CONTENT_ENCODING)
+                && (contentLength < 0 || contentLength >= filter.getMinResponseSize())
+                && filter.isCompressible(getContentType());
+    }
+
+    private void decide(boolean compress) throws IOException {
+        decided = true;
+        OutputStream target = super.getOutputStream();
+        if (compress) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            String etag = getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/") && etag.endsWith("\"")) {
+                super.setHeader(HttpHeaders.ETAG, etag.substring(0, etag.length() - 1) + "-" + encoding + "\"");
+            }
+            encoder = CompressionFilter.ZSTD.equals(encoding)
+                    ? new ZstdEncoder(target, filter.getZstdLevel())
+                    : new GzipEncoder(target, workspace != null ? workspace : (workspace = filter.acquire()));
+            if (pendingLength > 0) {
+                encoder.write(workspace.pending, 0, pendingLength);
+            }
+        } else {
+            if (contentLength < 0 && workspace != null) {
+                contentLength = pendingLength;
+            }
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            if (pendingLength > 0) {
+                target.write(workspace.pending, 0, pendingLength);
+            }
+        }
+        pendingLength = 0;
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Response has already been completed");
+        }
+        if (!decided) {
+            if (!isCompressible()) {
+                decide(false);
+            } else if (pendingLength + len < filter.getMinResponseSize()) {
+                if (workspace == null) {
+                    workspace = filter.acquire();
+                }
+                System.arraycopy(b, off, workspace.pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            } else {
+                decide(true);
+            }
+        }
+        if (encoder != null) {
+            encoder.write(b, off, len);
+        } else {
+            super.getOutputStream().write(b, off, len);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (!decided || finished) {
+            return;
+        }
+        if (encoder != null) {
+            encoder.flush();
+        }
+        super.getOutputStream().flush();
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            CompressingResponseWrapper.this.write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                CompressingResponseWrapper.this.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            CompressingResponseWrapper.this.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return CompressingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                CompressingResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private interface Encoder {
+
+        void write(byte[] b, int off, int len) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+
+        void close();
+    }
+
+    /**
+     * gzip (RFC 1952) written with a pooled raw {@link Deflater}, which, unlike
+     * {@link java.util.zip.GZIPOutputStream}, can be reset and reused for the next response.
+     */
+    private static final class GzipEncoder implements Encoder {
+
+        private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final OutputStream target;
+        private final CompressionFilter.Workspace workspace;
+
+        GzipEncoder(OutputStream target, CompressionFilter.Workspace workspace) throws IOException {
+            this.target = target;
+            this.workspace = workspace;
+            target.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            workspace.crc.update(b, off, len);
+            workspace.deflater.setInput(b, off, len);
+            while (!workspace.deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while (deflate(Deflater.SYNC_FLUSH) == workspace.output.length) {
+                // The output buffer was filled; more compressed data may be pending.
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            Deflater deflater = workspace.deflater;
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            byte[] trailer = workspace.output;
+            writeIntLe(trailer, 0, (int) workspace.crc.getValue());
+            writeIntLe(trailer, 4, (int) deflater.getBytesRead());
+            target.write(trailer, 0, 8);
+        }
+
+        @Override
+        public void close() {
+            // The deflater belongs to the pooled workspace.
+        }
+
+        private int deflate(int flush) throws IOException {
+            int length = workspace.deflater.deflate(workspace.output, 0, workspace.output.length, flush);
+            if (length > 0) {
+                target.write(workspace.output, 0, length);
+            }
+            return length;
+        }
+
+        private static void writeIntLe(byte[] b, int off, int value) {
+            b[off] = (byte) value;
+            b[off + 1] = (byte) (value >>> 8);
+            b[off + 2] = (byte) (value >>> 16);
+            b[off + 3] = (byte) (value >>> 24);
+        }
+    }
+
+    /**
+     * zstd (RFC 8878), whose native buffers are recycled by zstd-jni's buffer pool.
+     */
+    private static final class ZstdEncoder implements Encoder {
+
+        private final ZstdOutputStreamNoFinalizer zstd;
+
+        ZstdEncoder(OutputStream target, int level) throws IOException {
+            this.zstd = new ZstdOutputStreamNoFinalizer(target, RecyclingBufferPool.INSTANCE).setLevel(level);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            zstd.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            zstd.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            zstd.closeWithoutClosingParentStream();
+        }
+
+        @Override
+        public void close() {
+            try {
+                zstd.closeWithoutClosingParentStream();
+            } catch (IOException e) {
+                // The response is being abandoned; only the native context needs to be freed.
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses responses with the best encoding the client accepts in {@code Accept-Encoding}.
+ * <p>
+ * Only responses with a compressible content type are compressed, and only once their body
+ * reaches {@code minResponseSize} bytes: smaller bodies are buffered and sent as they are, with a
+ * {@code Content-Length}, because compressing them saves less than it costs. Larger and streamed
+ * bodies are compressed as they are written, and a flush by the application is passed on to the
+ * client, so streaming and asynchronous responses keep working. Strong entity tags of compressed
+ * responses get the encoding as a suffix, as in {@code "3.1-gzip"}: the bytes no longer match the
+ * uncompressed representation, but the tag stays strong so that it can be sent back in {@code If-Match}.
+ * </p>
+ * <p>
+ * The threshold buffer, the output buffer and the {@link Deflater} of a response come from a
+ * bounded pool and go back to it when the response completes, so busy endpoints do not allocate
+ * and free native zlib state on every request.
+ * </p>
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String GZIP = "gzip";
+    static final String ZSTD = "zstd";
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    private final List<String> encodings;
+    private final int minResponseSize;
+    private final List<MediaType> compressibleTypes;
+    private final int gzipLevel;
+    private final int zstdLevel;
+    private final BlockingQueue<Workspace> pool;
+
+    /**
+     * Constructor for CompressionFilter.
+     *
+     * @param encodings         Encodings to offer, {@code gzip} and {@code zstd}, in order of preference;
+     *                          {@code zstd} is left out if its native library cannot be loaded.
+     * @param minResponseSize   Smallest body, in bytes, that is compressed.
+     * @param compressibleTypes Content types that are compressed; wildcards are allowed.
+     * @param gzipLevel         Deflate level for {@code gzip}, from 1 to 9.
+     * @param zstdLevel         Compression level for {@code zstd}.
+     * @param poolSize          Maximum number of idle buffers and deflaters kept for reuse.
+     */
+    public CompressionFilter(List<String> encodings, int minResponseSize, List<MediaType> compressibleTypes,
+                             int gzipLevel, int zstdLevel, int poolSize) {
+        if (minResponseSize < 0) {
+            throw new IllegalArgumentException("Minimum response size must not be negative: " + minResponseSize);
+        }
+        if (gzipLevel < Deflater.BEST_SPEED || gzipLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("gzip level must be between 1 and 9: " + gzipLevel);
+        }
+        List<String> supported = new ArrayList<>();
+        for (String encoding : encodings) {
+            String name = encoding.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!GZIP.equals(name) && !ZSTD.equals(name)) {
+                throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+            }
+            if (ZSTD.equals(name) && !ZstdUtils.isZstdCompressionAvailable()) {
+                logger.warn("zstd native library is not available, responses will not be compressed with zstd");
+                continue;
+            }
+            supported.add(name);
+        }
+        this.encodings = List.copyOf(supported);
+        this.minResponseSize = minResponseSize;
+        this.compressibleTypes = List.copyOf(compressibleTypes);
+        this.gzipLevel = gzipLevel;
+        this.zstdLevel = zstdLevel;
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    /**
+     * Picks the encoding for a response: the highest {@code q} value in the client's
+     * {@code Accept-Encoding} wins, and ties go to the earlier of the configured encodings.
+     *
+     * @param acceptEncoding Value of the {@code Accept-Encoding} request header, may be null.
+     * @return the chosen encoding, or null if the response is to be sent as it is.
+     */
+    String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || encodings.isEmpty()) {
+            return null;
+        }
+        String best = null;
+        double bestQuality = 0;
+        for (String encoding : encodings) {
+            double quality = quality(acceptEncoding, encoding);
+            if (quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String acceptEncoding, String encoding) {
+        double wildcard = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase(encoding)) {
+                return quality;
+            }
+            if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        HttpServletResponse filtered = response;
+        if (wrapper == null) {
+            if (isAsyncDispatch(request)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String encoding = "HEAD".equals(request.getMethod()) ? null
+                    : negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(response, encoding, this);
+            filtered = wrapper;
+        }
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, filtered);
+            completed = true;
+        } finally {
+            if (!isAsyncStarted(request)) {
+                if (completed) {
+                    wrapper.finish();
+                } else {
+                    wrapper.release();
+                }
+            }
+        }
+    }
+
+    int getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    int getZstdLevel() {
+        return zstdLevel;
+    }
+
+    /**
+     * Tells whether a response with the given content type may be compressed.
+     */
+    boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        for (MediaType compressible : compressibleTypes) {
+            if (compressible.includes(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Workspace acquire() {
+        Workspace workspace = pool.poll();
+        return workspace != null ? workspace : new Workspace(minResponseSize, gzipLevel);
+    }
+
+    void release(Workspace workspace) {
+        workspace.deflater.reset();
+        workspace.crc.reset();
+        if (!pool.offer(workspace)) {
+            workspace.deflater.end();
+        }
+    }
+
+    int idleWorkspaces() {
+        return pool.size();
+    }
+
+    /**
+     * Buffers and deflater used by one response at a time.
+     */
+    static final class Workspace {
+
+        final byte[] pending;
+        final byte[] output = new byte[OUTPUT_BUFFER_SIZE];
+        final Deflater deflater;
+        final CRC32 crc = new CRC32();
+
+        private Workspace(int pendingSize, int gzipLevel) {
+            this.pending = new byte[pendingSize];
+            this.deflater = new Deflater(gzipLevel, true);
+        }
+    }
+}
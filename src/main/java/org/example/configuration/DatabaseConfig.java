@@ -1,47 +1,200 @@
 package org.example.configuration;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.metrics.PoolMetrics;
+import org.example.metrics.RoutingMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 @Configuration
 @PropertySource("classpath:application.properties")
 @EnableTransactionManagement
 public class DatabaseConfig {
 
+    // The lowest connection timeout HikariCP accepts.
+    private static final long MIN_POOL_TIMEOUT_MS = 250L;
+
     private final Environment env;
 
     public DatabaseConfig(Environment env) {
         this.env = env;
     }
 
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
+    @Bean
+    public RoutingMetrics routingMetrics() {
+        return new RoutingMetrics();
+    }
+
+    /**
+     * The DataSource of the application: the primary pool, or, when {@code jdbc.replica.urls} lists
+     * replicas, a {@link ReplicaRoutingDataSource} sending read-only transactions to them.
+     *
+     * @return the DataSource used by JPA.
+     */
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl(env.getProperty("jdbc.url"));
-        dataSource.setUsername(env.getProperty("jdbc.username"));
-        dataSource.setPassword(env.getProperty("jdbc.password"));
-        return dataSource;
+        DataSource primary = primaryDataSource();
+        List<String> replicaUrls = Arrays.stream(env.getProperty("jdbc.replica.urls", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+        if (replicaUrls.isEmpty()) {
+            return primary;
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, replicaDataSource(name, replicaUrls.get(i)));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas,
+                ReplicaRoutingDataSource.Strategy.of(env.getProperty("jdbc.replica.strategy", "round-robin")),
+                routingMetrics());
+    }
+
+    private DataSource primaryDataSource() {
+        HikariConfig config = poolConfig("primary", env.getProperty("jdbc.url"),
+                env.getProperty("jdbc.username"), env.getProperty("jdbc.password"),
+                env.getProperty("jdbc.pool.max-size", Integer.class, 20));
+        if (config.getDriverClassName().contains("postgresql")) {
+            config.addDataSourceProperty("reWriteBatchedInserts",
+                    env.getProperty("jdbc.rewrite-batched-inserts", "true"));
+        }
+        config.setMetricsTrackerFactory(poolMetrics());
+        return new ConnectionLimitingDataSource(new HikariDataSource(config),
+                env.getProperty("jdbc.pool.max-concurrency", Integer.class, config.getMaximumPoolSize()),
+                permitTimeout());
+    }
+
+    private DataSource replicaDataSource(String name, String url) {
+        HikariConfig config = poolConfig(name, url,
+                env.getProperty("jdbc.replica.username", env.getProperty("jdbc.username")),
+                env.getProperty("jdbc.replica.password", env.getProperty("jdbc.password")),
+                env.getProperty("jdbc.replica.pool.max-size", Integer.class,
+                        env.getProperty("jdbc.pool.max-size", Integer.class, 20)));
+        config.setReadOnly(true);
+        return new ConnectionLimitingDataSource(new HikariDataSource(config),
+                config.getMaximumPoolSize(), permitTimeout());
+    }
+
+    private HikariConfig poolConfig(String poolName, String url, String username, String password, int maxSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getProperty("jdbc.driver", "org.postgresql.Driver"));
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(env.getProperty("jdbc.pool.min-idle", Integer.class, 5));
+        config.setMaximumPoolSize(maxSize);
+        config.setConnectionTimeout(poolTimeout());
+        config.setIdleTimeout(env.getProperty("jdbc.pool.idle-timeout", Long.class, 600_000L));
+        config.setMaxLifetime(env.getProperty("jdbc.pool.max-lifetime", Long.class, 1_800_000L));
+        config.setLeakDetectionThreshold(env.getProperty("jdbc.pool.leak-detection-threshold", Long.class, 0L));
+        String validationQuery = env.getProperty("jdbc.pool.validation-query");
+        if (validationQuery != null && !validationQuery.isBlank()) {
+            config.setConnectionTestQuery(validationQuery);
+        }
+        return config;
+    }
+
+    /**
+     * How long a thread holding a permit of the {@link ConnectionLimitingDataSource} waits for the pool:
+     * {@code jdbc.pool.borrow-timeout}, by default a sixth of {@code jdbc.pool.connection-timeout}. With a
+     * permit in hand a connection is usually idle in the pool, so this only covers opening a new one.
+     */
+    private long poolTimeout() {
+        long total = connectionTimeout();
+        long borrow = env.getProperty("jdbc.pool.borrow-timeout", Long.class, total / 6);
+        return Math.max(MIN_POOL_TIMEOUT_MS, Math.min(total, borrow));
+    }
+
+    /**
+     * How long a thread waits for a permit: what {@link #poolTimeout()} leaves of
+     * {@code jdbc.pool.connection-timeout}, so that getting a connection never takes longer than that.
+     */
+    private long permitTimeout() {
+        return Math.max(0L, connectionTimeout() - poolTimeout());
+    }
+
+    private long connectionTimeout() {
+        return env.getProperty("jdbc.pool.connection-timeout", Long.class, 30_000L);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return SecondLevelCache.createCacheManager(env);
+    }
+
+    /**
+     * Migrator running the Liquibase changelog, which it does right away unless
+     * {@code migration.on-startup} is false, for example when migrations run as a separate step of
+     * the rollout through {@link SchemaMigrator#main(String[])}.
+     *
+     * @return the schema migrator.
+     */
+    @Bean
+    public SchemaMigrator schemaMigrator() {
+        SchemaMigrator migrator = SchemaMigrator.create(dataSource(), env);
+        if (env.getProperty("migration.on-startup", Boolean.class, true)) {
+            migrator.update();
+        }
+        return migrator;
     }
 
+    /**
+     * The EntityManagerFactory, built once the schema is migrated.
+     * <p>
+     * With {@code jpa.background-bootstrap}, on by default when there is more than one CPU, Hibernate
+     * is bootstrapped on a separate thread while the rest of the context starts, and only the first
+     * use of the factory waits for it. The repositories are bootstrapped deferred for the same
+     * reason, see {@link WebMvcConfig}.
+     * </p>
+     * <p>
+     * When reads are routed to replicas, the {@link ReplicaAwareJpaDialect} keeps what they return
+     * out of the second-level and query caches.
+     * </p>
+     *
+     * @return the factory bean of the EntityManagerFactory.
+     */
     @Bean
+    @DependsOn("schemaMigrator")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource());
+        em.setPackagesToScan("org.example.entity");
+        if (env.getProperty("jpa.background-bootstrap", Boolean.class,
+                Runtime.getRuntime().availableProcessors() > 1)) {
+            em.setBootstrapExecutor(new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+        }
 
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         em.setJpaVendorAdapter(vendorAdapter);
+        if (dataSource() instanceof ReplicaRoutingDataSource) {
+            em.setJpaDialect(new ReplicaAwareJpaDialect());
+        }
         em.setJpaProperties(hibernateProperties());
         return em;
     }
@@ -56,9 +209,18 @@ public class DatabaseConfig {
     private Properties hibernateProperties() {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", env.getProperty("hibernate.dialect"));
-        properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto"));
+        properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto", "none"));
         properties.put("hibernate.show_sql", env.getProperty("hibernate.show_sql"));
         properties.put("hibernate.format_sql", env.getProperty("hibernate.format_sql"));
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.jdbc.batch_versioned_data",
+                env.getProperty("hibernate.jdbc.batch_versioned_data", "true"));
+        properties.put("hibernate.order_inserts", env.getProperty("hibernate.order_inserts", "true"));
+        properties.put("hibernate.order_updates", env.getProperty("hibernate.order_updates", "true"));
+        properties.put("hibernate.id.sequence.increment_size_mismatch_strategy",
+                env.getProperty("hibernate.id.sequence.increment_size_mismatch_strategy", "fix"));
+        properties.put("hibernate.generate_statistics", env.getProperty("hibernate.generate_statistics", "false"));
+        properties.putAll(SecondLevelCache.hibernateProperties(secondLevelCacheManager(), env));
         return properties;
     }
 }
@@ -0,0 +1,80 @@
+package org.example.configuration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.example.json.DtoModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class JacksonConfig {
+
+    private final Environment env;
+
+    public JacksonConfig(Environment env) {
+        this.env = env;
+    }
+
+    /**
+     * ObjectMapper shared by the JSON message converter and the NDJSON export.
+     * <p>
+     * It is configured like the one Spring MVC would create, plus the hand-written DTO serializers
+     * of {@link DtoModule}. Generator buffers come from a shared pool of at most
+     * {@code json.recycler-pool-size} entries instead of one per thread, so asynchronous handlers,
+     * which run on a new thread for every request, reuse them too.
+     * </p>
+     *
+     * @return the shared ObjectMapper.
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        return objectMapper(recyclerPoolSize(env));
+    }
+
+    /**
+     * Builds the application's ObjectMapper.
+     *
+     * @param recyclerPoolSize Maximum number of idle buffer sets kept for reuse.
+     * @return a new ObjectMapper.
+     */
+    public static ObjectMapper objectMapper(int recyclerPoolSize) {
+        JsonFactory jsonFactory = JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(recyclerPoolSize))
+                .build();
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(jsonFactory)
+                .modulesToInstall(new DtoModule())
+                .build();
+    }
+
+    /**
+     * Builds the ObjectMapper of the CBOR message converter, configured like
+     * {@link #objectMapper(int)} but writing and reading CBOR.
+     *
+     * @param recyclerPoolSize Maximum number of idle buffer sets kept for reuse.
+     * @return a new CBOR ObjectMapper.
+     */
+    public static ObjectMapper cborMapper(int recyclerPoolSize) {
+        CBORFactory cborFactory = CBORFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(recyclerPoolSize))
+                .build();
+        return Jackson2ObjectMapperBuilder.cbor()
+                .factory(cborFactory)
+                .modulesToInstall(new DtoModule())
+                .build();
+    }
+
+    /**
+     * Reads the size of the buffer pools from {@code json.recycler-pool-size}, so that all mappers match.
+     *
+     * @param env Environment holding the property.
+     * @return the configured pool size.
+     */
+    static int recyclerPoolSize(Environment env) {
+        return env.getProperty("json.recycler-pool-size", Integer.class, 200);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.configuration;
+
+import org.example.logging.AsyncLogDispatcher;
+import org.example.logging.RequestLog;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class LoggingConfig {
+
+    private final Environment env;
+
+    public LoggingConfig(Environment env) {
+        this.env = env;
+    }
+
+    /**
+     * Dispatcher writing the request logs, installed for every {@link RequestLog}.
+     * <p>
+     * At most {@code logging.async.queue-size} messages wait to be written; more are dropped.
+     * {@code logging.sample-rates} lists the fraction of messages kept per logger or package, such as
+     * {@code org.example.controller=0.1}; loggers not listed keep every message.
+     * </p>
+     *
+     * @return the installed dispatcher.
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncLogDispatcher asyncLogDispatcher() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(
+                env.getProperty("logging.async.queue-size", Integer.class, AsyncLogDispatcher.DEFAULT_CAPACITY),
+                AsyncLogDispatcher.parseSampleRates(env.getProperty("logging.sample-rates", "")));
+        RequestLog.install(dispatcher);
+        return dispatcher;
+    }
+}
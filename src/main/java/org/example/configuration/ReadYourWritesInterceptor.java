@@ -0,0 +1,107 @@
+package org.example.configuration;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps a client's reads on the primary for a short window after it writes, so it never reads a
+ * replica that has not caught up with its own changes.
+ * <p>
+ * A request with any method but GET, HEAD or OPTIONS is treated as a write: its own read-only
+ * transactions are sent to the primary, and it sets the {@value #COOKIE} cookie to the time the
+ * window ends. Later requests carrying the cookie are pinned to the primary until then. Clients
+ * that drop cookies still read their writes within one request.
+ * <p>
+ * The pin is held by the thread, so it is also registered as a {@link CallableProcessingInterceptor}:
+ * a {@code Callable} or {@code StreamingResponseBody} handler of a pinned request is pinned on the
+ * async executor thread while it runs.
+ * </p>
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    static final String COOKIE = "primary-until";
+
+    private static final String PINNED_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".pinned";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowMillis;
+
+    /**
+     * Constructor for ReadYourWritesInterceptor.
+     *
+     * @param windowMillis Time after a write during which the client's reads go to the primary.
+     */
+    public ReadYourWritesInterceptor(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+            pin(request);
+        } else if (pinnedUntil(request) > now) {
+            pin(request);
+        }
+        return true;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (Boolean.TRUE.equals(request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    private static void pin(HttpServletRequest request) {
+        request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE);
+        ReplicaRoutingDataSource.pinToPrimary();
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
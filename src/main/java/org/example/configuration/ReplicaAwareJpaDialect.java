@@ -0,0 +1,72 @@
+package org.example.configuration;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Hibernate dialect that keeps the rows read from replicas out of the second-level and query caches.
+ * <p>
+ * A transaction sent to a replica by {@link ReplicaRoutingDataSource}, that is a read-only one on a
+ * thread not pinned to the primary, may see rows the replica has not caught up on, which must not be
+ * served to the rest of the application from the shared caches. Its entity manager is switched to
+ * {@link CacheStoreMode#BYPASS}, so lookups by id still read the entities cached by earlier
+ * transactions but store nothing. Queries and collection loads run with {@link CacheMode#IGNORE}:
+ * Hibernate stores the result of a cacheable query that misses the query cache even when the cache
+ * mode only allows reads, so these neither read nor write the caches. Only the transactions on the
+ * primary fill the caches. The previous modes are restored when the transaction ends.
+ * </p>
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            return transactionData;
+        }
+        Session session = getSession(entityManager);
+        CacheMode previousCacheMode = session.getCacheMode();
+        Object previousStoreMode = entityManager.getProperties().getOrDefault(STORE_MODE, CacheStoreMode.USE);
+        entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        session.setCacheMode(CacheMode.IGNORE);
+        return new ReplicaTransactionData(transactionData, entityManager, previousStoreMode, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData) {
+            ReplicaTransactionData replicaData = (ReplicaTransactionData) transactionData;
+            if (replicaData.entityManager.isOpen()) {
+                replicaData.entityManager.setProperty(STORE_MODE, replicaData.previousStoreMode);
+                getSession(replicaData.entityManager).setCacheMode(replicaData.previousCacheMode);
+            }
+            super.cleanupTransaction(replicaData.delegate);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private static final class ReplicaTransactionData {
+        private final Object delegate;
+        private final EntityManager entityManager;
+        private final Object previousStoreMode;
+        private final CacheMode previousCacheMode;
+
+        private ReplicaTransactionData(Object delegate, EntityManager entityManager, Object previousStoreMode,
+                                       CacheMode previousCacheMode) {
+            this.delegate = delegate;
+            this.entityManager = entityManager;
+            this.previousStoreMode = previousStoreMode;
+            this.previousCacheMode = previousCacheMode;
+        }
+    }
+}
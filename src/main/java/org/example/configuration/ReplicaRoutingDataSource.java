@@ -0,0 +1,229 @@
+package org.example.configuration;
+
+import org.example.metrics.RoutingMetrics;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends the work of read-only transactions to replicas and everything else to the primary.
+ * <p>
+ * Connections are handed out lazily: the physical connection is only fetched on the first statement,
+ * once the transaction has been marked read-only, so {@code @Transactional(readOnly = true)} is enough to
+ * route a unit of work. Work outside a transaction always goes to the primary, as does read-only work
+ * on a thread pinned by {@link #pinToPrimary()}, which gives a client read-your-writes consistency while
+ * the replicas catch up. The default auto-commit and isolation of lazy connections are read from the
+ * primary on construction.
+ * </p>
+ * <p>
+ * Replicas lag behind the primary, so what is read from them must not reach the shared second-level
+ * and query caches, where it would be served to every later transaction; {@link ReplicaAwareJpaDialect}
+ * makes the sessions of replica-bound transactions read those caches without writing them.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    /**
+     * How a replica is chosen for a read-only transaction.
+     */
+    public enum Strategy {
+        /**
+         * Replicas take turns.
+         */
+        ROUND_ROBIN,
+        /**
+         * The replica holding the fewest connections of this DataSource is chosen.
+         */
+        LEAST_CONNECTIONS;
+
+        /**
+         * Parses a strategy from its property value, such as {@code round-robin}.
+         *
+         * @param value the property value.
+         * @return the strategy.
+         * @throws IllegalArgumentException if the value names no strategy.
+         */
+        public static Strategy of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final RoutingMetrics metrics;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Constructor for ReplicaRoutingDataSource.
+     *
+     * @param primary  DataSource of the primary, used for all writes.
+     * @param replicas DataSources of the replicas by name, used for read-only transactions.
+     * @param strategy How a replica is chosen.
+     * @param metrics  Counters of the routing decisions.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Strategy strategy, RoutingMetrics metrics) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.strategy = strategy;
+        this.metrics = metrics;
+        setTargetDataSource(new Router());
+        afterPropertiesSet();
+        checkDefaultConnectionProperties();
+    }
+
+    /**
+     * Sends the read-only transactions of the current thread to the primary until {@link #unpin()} is called.
+     */
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Lets the read-only transactions of the current thread go to the replicas again.
+     */
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    /**
+     * Tells whether the read-only transactions of the current thread are pinned to the primary.
+     *
+     * @return true if {@link #pinToPrimary()} was called and {@link #unpin()} not yet.
+     */
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    /**
+     * Returns the number of connections currently held on a replica through this DataSource.
+     *
+     * @param name the name of the replica.
+     * @return the number of open connections, or 0 for an unknown replica.
+     */
+    public int getActiveConnections(String name) {
+        return replicas.stream()
+                .filter(replica -> replica.name.equals(name))
+                .mapToInt(replica -> replica.active.get())
+                .sum();
+    }
+
+    /**
+     * Closes the primary and the replicas, if they can be closed.
+     */
+    @Override
+    public void close() throws Exception {
+        closeIfPossible(primary);
+        for (Replica replica : replicas) {
+            closeIfPossible(replica.dataSource);
+        }
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private Replica select() {
+        if (strategy == Strategy.LEAST_CONNECTIONS) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            Replica least = replicas.get(start);
+            for (int i = 1; i < replicas.size(); i++) {
+                Replica candidate = replicas.get((start + i) % replicas.size());
+                if (candidate.active.get() < least.active.get()) {
+                    least = candidate;
+                }
+            }
+            return least;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            metrics.recordPrimary();
+            return source.get(primary);
+        }
+        if (isPinnedToPrimary()) {
+            metrics.recordPinnedRead();
+            return source.get(primary);
+        }
+        Replica replica = select();
+        metrics.recordReplicaRead(replica.name);
+        replica.active.incrementAndGet();
+        try {
+            return replica.releasingOnClose(source.get(replica.dataSource));
+        } catch (SQLException | RuntimeException e) {
+            replica.active.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private Connection releasingOnClose(Connection target) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        boolean releases = isClose(method) && released.compareAndSet(false, true);
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if (releases) {
+                                active.decrementAndGet();
+                            }
+                        }
+                    });
+        }
+
+        private static boolean isClose(Method method) {
+            return "close".equals(method.getName()) && method.getParameterCount() == 0;
+        }
+    }
+
+    private final class Router extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route(dataSource -> dataSource.getConnection(username, password));
+        }
+    }
+}
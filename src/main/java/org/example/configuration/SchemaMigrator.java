@@ -0,0 +1,170 @@
+package org.example.configuration;
+
+import liquibase.Contexts;
+import liquibase.GlobalConfiguration;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Runs the Liquibase changelog of the application, so that Hibernate no longer has to create or
+ * update the schema on every start.
+ * <p>
+ * The changelog runs on startup unless {@code migration.on-startup} is false, or as a one-shot step
+ * of the rollout through {@link #main(String[])}. Liquibase's {@code DATABASECHANGELOGLOCK} keeps
+ * instances starting together from applying the same changesets twice: the others wait up to
+ * {@code migration.lock-wait-minutes} for it. An instance that dies while migrating leaves the lock
+ * held; once it is certain that no migration is running, the {@code release-locks} command frees it.
+ * </p>
+ * <p>
+ * A database whose schema was created by {@code hbm2ddl} has the tables of changeset 1, with
+ * identity ids, but none of the later changesets. It is handed over with
+ * {@code mark-next-changeset-ran}, which records changeset 1 without running it, followed by
+ * {@code update}, which runs the others. {@code changelog-sync} would record them all and leave the
+ * schema without them.
+ * </p>
+ */
+public class SchemaMigrator {
+
+    private static final String DEFAULT_CHANGELOG = "liquibase/changelog-master.yml";
+    private static final long DEFAULT_LOCK_WAIT_MINUTES = 5;
+    private static final long LOCK_POLL_SECONDS = 1;
+
+    private final DataSource dataSource;
+    private final String changelog;
+    private final long lockWaitMinutes;
+
+    /**
+     * Constructor for SchemaMigrator.
+     *
+     * @param dataSource      DataSource of the database to migrate.
+     * @param changelog       Classpath location of the changelog master.
+     * @param lockWaitMinutes How long to wait for another instance to finish its migration.
+     */
+    public SchemaMigrator(DataSource dataSource, String changelog, long lockWaitMinutes) {
+        this.dataSource = dataSource;
+        this.changelog = changelog;
+        this.lockWaitMinutes = lockWaitMinutes;
+    }
+
+    /**
+     * Creates a migrator configured by {@code migration.changelog} and {@code migration.lock-wait-minutes}.
+     *
+     * @param dataSource DataSource of the database to migrate.
+     * @param props      Properties providing the configuration.
+     * @return the migrator.
+     */
+    public static SchemaMigrator create(DataSource dataSource, PropertyResolver props) {
+        return new SchemaMigrator(dataSource, props.getProperty("migration.changelog", DEFAULT_CHANGELOG),
+                props.getProperty("migration.lock-wait-minutes", Long.class, DEFAULT_LOCK_WAIT_MINUTES));
+    }
+
+    /**
+     * Runs the migration as a one-shot step, before the application is rolled out.
+     * <p>
+     * The command is {@code update}, the default, {@code changelog-sync}, {@code mark-next-changeset-ran}
+     * or {@code release-locks}. The connection is configured like the application's, from
+     * {@code application.properties} on the classpath, and system properties and environment variables
+     * take precedence.
+     * </p>
+     *
+     * @param args The command.
+     * @throws IOException if the properties cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "update";
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(env.getRequiredProperty("jdbc.url"),
+                env.getProperty("jdbc.username"), env.getProperty("jdbc.password"));
+        dataSource.setDriverClassName(env.getProperty("jdbc.driver", "org.postgresql.Driver"));
+        SchemaMigrator migrator = create(dataSource, env);
+        switch (command) {
+            case "update":
+                migrator.update();
+                break;
+            case "changelog-sync":
+                migrator.changelogSync();
+                break;
+            case "mark-next-changeset-ran":
+                migrator.markNextChangeSetRan();
+                break;
+            case "release-locks":
+                migrator.releaseLocks();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " + command
+                        + ", expected update, changelog-sync, mark-next-changeset-ran or release-locks");
+        }
+    }
+
+    /**
+     * Applies every changeset that has not been applied yet.
+     *
+     * @throws IllegalStateException if a changeset fails or was modified after it was applied, or the lock
+     *                               cannot be acquired in time.
+     */
+    public void update() {
+        run(liquibase -> liquibase.update(new Contexts(), new LabelExpression()));
+    }
+
+    /**
+     * Records every changeset that has not been applied yet as applied, without running it.
+     *
+     * @throws IllegalStateException if the lock cannot be acquired in time.
+     */
+    public void changelogSync() {
+        run(liquibase -> liquibase.changeLogSync(new Contexts(), new LabelExpression()));
+    }
+
+    /**
+     * Records the first changeset that has not been applied yet as applied, without running it.
+     *
+     * @throws IllegalStateException if the lock cannot be acquired in time.
+     */
+    public void markNextChangeSetRan() {
+        run(liquibase -> liquibase.markNextChangeSetRan(new Contexts(), new LabelExpression()));
+    }
+
+    /**
+     * Releases the schema change lock, whoever holds it. It is meant for a lock left behind by an
+     * instance that died while migrating, and must not be used while a migration is running.
+     *
+     * @throws IllegalStateException if the lock cannot be released.
+     */
+    public void releaseLocks() {
+        run(Liquibase::forceReleaseLocks);
+    }
+
+    private void run(LiquibaseCommand command) {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase(changelog,
+                    new ClassLoaderResourceAccessor(SchemaMigrator.class.getClassLoader()), database);
+            Scope.child(Map.of(GlobalConfiguration.CHANGELOGLOCK_WAIT_TIME.getKey(), lockWaitMinutes,
+                    GlobalConfiguration.CHANGELOGLOCK_POLL_RATE.getKey(), LOCK_POLL_SECONDS), () -> command.run(liquibase));
+        } catch (Exception e) {
+            throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LiquibaseCommand {
+        void run(Liquibase liquibase) throws LiquibaseException;
+    }
+}
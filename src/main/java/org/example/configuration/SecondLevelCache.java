@@ -0,0 +1,88 @@
+package org.example.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.core.env.PropertyResolver;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Caffeine-backed JCache regions of the Hibernate second-level cache.
+ * <p>
+ * Every region is created up front, bounded by {@code cache.l2.<region>.max-size} and expiring
+ * entries after {@code cache.l2.<region>.ttl-seconds}. Hibernate is told to fail on any region
+ * that is not listed here, so an unbounded cache can never be created by accident. The update
+ * timestamps region is never bounded, as Hibernate requires it to outlive every cached query.
+ * </p>
+ */
+public final class SecondLevelCache {
+
+    public static final String TAG_REGION = "tag";
+    public static final String AUTHOR_REGION = "author";
+    public static final String POST_TAGS_REGION = "post.tags";
+
+    private static final long DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_SECONDS = 3_600;
+
+    private static final List<String> BOUNDED_REGIONS = List.of(
+            TAG_REGION, AUTHOR_REGION, POST_TAGS_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private SecondLevelCache() {
+    }
+
+    /**
+     * Creates a cache manager holding all second-level cache regions.
+     * <p>
+     * Each call returns a new manager, so several persistence units in one JVM never share regions.
+     * </p>
+     *
+     * @param props Properties providing the region sizes and TTLs.
+     * @return a cache manager to be closed together with the EntityManagerFactory.
+     */
+    public static CacheManager createCacheManager(PropertyResolver props) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-l2-" + UUID.randomUUID()), SecondLevelCache.class.getClassLoader(), new Properties());
+        for (String region : BOUNDED_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(
+                    props.getProperty("cache.l2." + region + ".max-size", Long.class, DEFAULT_MAX_SIZE)));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(
+                    props.getProperty("cache.l2." + region + ".ttl-seconds", Long.class, DEFAULT_TTL_SECONDS))));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    /**
+     * Returns the Hibernate properties that enable the second-level and query caches on the given manager.
+     *
+     * @param cacheManager Cache manager created by {@link #createCacheManager(PropertyResolver)}.
+     * @param props        Properties that may disable either cache.
+     * @return properties to be added to the JPA properties.
+     */
+    public static Properties hibernateProperties(CacheManager cacheManager, PropertyResolver props) {
+        Properties properties = new Properties();
+        properties.put("hibernate.cache.use_second_level_cache",
+                props.getProperty("hibernate.cache.use_second_level_cache", "true"));
+        properties.put("hibernate.cache.use_query_cache",
+                props.getProperty("hibernate.cache.use_query_cache", "true"));
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        return properties;
+    }
+}
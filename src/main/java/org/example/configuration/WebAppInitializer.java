@@ -1,23 +1,39 @@
 package org.example.configuration;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterRegistration;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletRegistration;
+import org.example.metrics.StartupReport;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
 
+import java.util.EnumSet;
+
 @Configuration
 public class WebAppInitializer implements WebApplicationInitializer {
 
+    private static final int STARTUP_REPORT_BEANS = 10;
+
     @Override
     public void onStartup(ServletContext servletContext) {
         AnnotationConfigWebApplicationContext ctx = new AnnotationConfigWebApplicationContext();
         ctx.register(WebMvcConfig.class);
         ctx.setServletContext(servletContext);
+        ctx.setApplicationStartup(new StartupReport(STARTUP_REPORT_BEANS));
 
         ServletRegistration.Dynamic servlet = servletContext.addServlet("dispatcher", new DispatcherServlet(ctx));
         servlet.setLoadOnStartup(1);
+        servlet.setAsyncSupported(true);
         servlet.addMapping("/");
+
+        FilterRegistration.Dynamic compression = servletContext.addFilter("compressionFilter",
+                new DelegatingFilterProxy("compressionFilter", ctx));
+        compression.setAsyncSupported(true);
+        compression.addMappingForServletNames(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), false,
+                "dispatcher");
     }
 }
\ No newline at end of file
@@ -1,21 +1,55 @@
 package org.example.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.metrics.RequestMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 @EnableWebMvc
-@EnableJpaRepositories(basePackages = "org.example.repository")
-@ComponentScan(basePackages = "org.example")
+@EnableJpaRepositories(basePackages = "org.example.repository", bootstrapMode = BootstrapMode.DEFERRED)
+@ComponentScan(basePackages = {"org.example.cache", "org.example.configuration", "org.example.controller",
+        "org.example.mapper", "org.example.metrics", "org.example.service"})
 @EnableTransactionManagement
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private static final String DEFAULT_COMPRESSIBLE_TYPES = "text/*,application/json,application/*+json,"
+            + "application/x-ndjson,application/xml,application/*+xml,application/javascript,application/cbor";
+
+    private final Environment env;
+    private final RequestMetrics requestMetrics;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWritesInterceptor readYourWrites;
+
+    public WebMvcConfig(Environment env, RequestMetrics requestMetrics, ObjectMapper objectMapper) {
+        this.env = env;
+        this.requestMetrics = requestMetrics;
+        this.objectMapper = objectMapper;
+        this.readYourWrites = env.getProperty("jdbc.replica.urls", "").isBlank() ? null
+                : new ReadYourWritesInterceptor(env.getProperty("jdbc.replica.sticky-window-ms", Long.class, 5_000L));
+    }
+
     @Bean
     public InternalResourceViewResolver viewResolver() {
         InternalResourceViewResolver viewResolver = new InternalResourceViewResolver();
@@ -23,4 +57,86 @@ public class WebMvcConfig implements WebMvcConfigurer {
         viewResolver.setSuffix(".jsp");
         return viewResolver;
     }
-}
\ No newline at end of file
+
+    /**
+     * Executor running the {@code Callable}, {@code StreamingResponseBody} and similar async handlers.
+     * <p>
+     * At most {@code async.pool-size} tasks run at once and {@code async.queue-capacity} more wait.
+     * Beyond that a task is rejected right away, and {@link AsyncRejectionResolver} answers 503, so the
+     * container thread handing the task over is never held up.
+     * </p>
+     *
+     * @return the executor for asynchronous request processing.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor asyncRequestExecutor() {
+        int poolSize = env.getProperty("async.pool-size", Integer.class, 200);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(env.getProperty("async.queue-capacity", Integer.class, 100));
+        return executor;
+    }
+
+    /**
+     * Filter compressing responses, registered by {@link WebAppInitializer} under this bean's name.
+     * <p>
+     * Encodings are offered in the order of {@code compression.encodings}; an empty list turns
+     * compression off. Bodies shorter than {@code compression.min-response-size} bytes, or with a
+     * content type outside {@code compression.mime-types}, are sent uncompressed.
+     * </p>
+     *
+     * @return the response compression filter.
+     */
+    @Bean
+    public CompressionFilter compressionFilter() {
+        return new CompressionFilter(
+                Arrays.asList(env.getProperty("compression.encodings", "zstd,gzip").split(",")),
+                env.getProperty("compression.min-response-size", Integer.class, 2048),
+                MediaType.parseMediaTypes(env.getProperty("compression.mime-types", DEFAULT_COMPRESSIBLE_TYPES)),
+                env.getProperty("compression.gzip.level", Integer.class, 6),
+                env.getProperty("compression.zstd.level", Integer.class, 3),
+                env.getProperty("compression.pool-size", Integer.class, 64));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetrics);
+        if (readYourWrites != null) {
+            registry.addInterceptor(readYourWrites);
+        }
+    }
+
+    /**
+     * Replaces the default converters with the ones the endpoints use: JSON with the tuned
+     * {@link JacksonConfig#objectMapper() ObjectMapper}, and CBOR with a {@link JacksonConfig#cborMapper(int)
+     * mapper configured the same way}. {@code application/cbor} comes after JSON, so clients asking for CBOR
+     * in {@code Accept} get the same DTOs in binary form, under their own entity tag, while JSON stays the
+     * default. CBOR request bodies larger than {@code cbor.max-body-size} bytes are rejected with 413.
+     */
+    @Override
+    public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new StringHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        converters.add(new CborHttpMessageConverter(JacksonConfig.cborMapper(JacksonConfig.recyclerPoolSize(env)),
+                env.getProperty("cbor.max-body-size", Integer.class, CborHttpMessageConverter.DEFAULT_MAX_BODY_SIZE)));
+    }
+
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        resolvers.add(0, new AsyncRejectionResolver());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        AsyncTaskExecutor executor = asyncRequestExecutor();
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(env.getProperty("async.timeout-ms", Long.class, 30_000L));
+        if (readYourWrites != null) {
+            configurer.registerCallableInterceptors(readYourWrites);
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package org.example.controller;
 
 import org.example.dto.AuthorDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.UserNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.logging.RequestLog;
 import org.example.service.AuthorService;
+import org.example.service.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -25,6 +36,7 @@ public class AuthorController {
     private final AuthorService authorService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorController.class);
+    private static final RequestLog requestLog = RequestLog.getLog(AuthorController.class);
 
     /**
      * Constructor for AuthorController.
@@ -38,16 +50,28 @@ public class AuthorController {
 
     /**
      * Retrieves an Author by its ID.
+     * <p>
+     * The response carries a strong ETag. If {@code If-None-Match} holds the current one, a 304 Not Modified
+     * is returned without loading or serialising the Author.
+     * </p>
      *
-     * @param id ID of the Author to be retrieved.
-     * @return ResponseEntity containing the AuthorDTO if found, or a 404 Not Found status if not.
+     * @param id          ID of the Author to be retrieved.
+     * @param ifNoneMatch Entity tags of the representations the client already has, if any.
+     * @return ResponseEntity containing the AuthorDTO if found, a 304 Not Modified status if unchanged, or a 404 Not Found status if not.
      */
-    @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<?> getUserById(@PathVariable("id") long id) {
+    @GetMapping(value = "/{id}", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getUserById(@PathVariable("id") long id,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            if (ifNoneMatch != null) {
+                Optional<String> etag = authorService.getUserETag(id);
+                if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+                }
+            }
             AuthorDTO authorDTO = authorService.getUserById(id);
-            logger.info("USER_CONTROLLER getUserById {}", authorDTO);
-            return ResponseEntity.ok(authorDTO);
+            requestLog.info("USER_CONTROLLER getUserById", "user", authorDTO);
+            return ResponseEntity.ok().eTag(ETags.of(authorDTO)).body(authorDTO);
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -58,69 +82,151 @@ public class AuthorController {
      *
      * @return ResponseEntity containing a list of AuthorDTOs if found, or a 404 Not Found status if the list is empty.
      */
-    @GetMapping(value = "/all", produces = "application/json")
+    @GetMapping(value = "/all", produces = {"application/json", "application/cbor"})
     public ResponseEntity<?> getAllUsers() {
         try {
             List<AuthorDTO> authorDTOList = authorService.getAllUsers();
-            logger.info("USER_CONTROLLER getAllUsers");
+            requestLog.info("USER_CONTROLLER getAllUsers");
             return ResponseEntity.ok(authorDTOList);
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    /**
+     * Retrieves a keyset page of Authors ordered by ID.
+     *
+     * @param after ID of the last Author of the previous page; omit it to read the first page.
+     * @param limit Maximum number of Authors to return.
+     * @return ResponseEntity containing the page of AuthorDTOs and the cursor of the next page.
+     */
+    @GetMapping(value = "/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getUsersPage(@RequestParam(value = "after", required = false) Long after,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        requestLog.info("USER_CONTROLLER getUsersPage", "after", after, "limit", limit);
+        CursorPageDTO<AuthorDTO> page = authorService.getUsersPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves an offset page of Authors ordered by ID, for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size; larger values are capped.
+     * @return ResponseEntity containing the page of AuthorDTOs and the total number of Authors.
+     */
+    @GetMapping(value = "/admin/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getUsersOffsetPage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        requestLog.info("USER_CONTROLLER getUsersOffsetPage", "page", page, "size", size);
+        PageDTO<AuthorDTO> result = authorService.getUsersOffsetPage(page, size);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Creates a new Author.
      *
      * @param authorDTO Data Transfer Object representing the Author to be created.
      * @return ResponseEntity with a 201 Created status if the Author is successfully created, or a 400 Bad Request status if there are validation issues.
      */
-    @PostMapping(consumes = "application/json")
+    @PostMapping(consumes = {"application/json", "application/cbor"})
     public ResponseEntity<?> createUser(@RequestBody AuthorDTO authorDTO) {
         try {
             authorService.createUser(authorDTO);
-            logger.info("USER_CONTROLLER createUser {}", authorDTO);
+            requestLog.info("USER_CONTROLLER createUser", "user", authorDTO);
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (IllegalArgumentException e) {
-            logger.error("USER_CONTROLLER createUser failed for {}", authorDTO, e);
+            requestLog.error("USER_CONTROLLER createUser failed", "user", authorDTO, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    /**
+     * Creates many Authors at once.
+     *
+     * @param authorDTOs Data Transfer Objects representing the Authors to be created.
+     * @return ResponseEntity with a 201 Created status and the result of every Author if all of them were created,
+     * a 207 Multi-Status if some of them were rejected, or a 413 Payload Too Large status if the batch exceeds the limit.
+     */
+    @PostMapping(value = "/batch", consumes = {"application/json", "application/cbor"}, produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> createUsers(@RequestBody List<AuthorDTO> authorDTOs) {
+        try {
+            BatchResultDTO result = authorService.createUsers(authorDTOs);
+            requestLog.info("USER_CONTROLLER createUsers", "created", result.getCreated(), "failed", result.getFailed());
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        } catch (BatchTooLargeException e) {
+            requestLog.error("USER_CONTROLLER createUsers rejected", "reason", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        }
+    }
+
     /**
      * Updates an existing Author.
+     * <p>
+     * With an {@code If-Match} header the update applies only if the Author is still in the version of one of
+     * the given entity tags; otherwise it applies only if the Author is still in the version given in the body, if any.
+     * </p>
      *
      * @param id        ID of the Author to be updated.
+     * @param ifMatch   Entity tags of the representations the client has modified, if any.
      * @param authorDTO Data Transfer Object containing updated Author data.
-     * @return ResponseEntity with a 200 Ok status if the Author is successfully updated, or a 404 Not Found status if the Author with the specified ID is not found.
+     * @return ResponseEntity with a 200 Ok status if the Author is successfully updated, a 404 Not Found status if the Author with the specified ID is not found,
+     * a 412 Precondition Failed status if {@code If-Match} does not match, or a 409 Conflict status if the Author was modified concurrently.
      */
-    @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<?> updateUser(@PathVariable("id") long id, @RequestBody AuthorDTO authorDTO) {
+    @PutMapping(value = "/update/{id}", consumes = {"application/json", "application/cbor"})
+    public ResponseEntity<?> updateUser(@PathVariable("id") long id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @RequestBody AuthorDTO authorDTO) {
         try {
-            logger.info("USER_CONTROLLER updateUser {}", authorDTO);
-            authorService.updateUser(id, authorDTO);
+            requestLog.info("USER_CONTROLLER updateUser", "user", authorDTO);
+            if (ifMatch == null) {
+                authorService.updateUser(id, authorDTO);
+            } else {
+                authorService.updateUser(id, authorDTO, ETags.versions(ifMatch));
+            }
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (UserNotFoundException e) {
-            logger.error("USER_CONTROLLER updateUser failed for {}", authorDTO, e);
+            requestLog.error("USER_CONTROLLER updateUser failed", "user", authorDTO, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (VersionConflictException e) {
+            requestLog.warn("USER_CONTROLLER updateUser rejected", "reason", e.getMessage());
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            requestLog.warn("USER_CONTROLLER updateUser conflict", "id", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     /**
-     * Deletes an Author by its ID.
+     * Deletes an Author by its ID, together with their Posts.
+     * <p>
+     * By default everything is deleted in one transaction. With {@code background=true} the Posts are
+     * deleted in chunked transactions after the response is sent, which suits Authors with very many Posts.
+     * </p>
      *
-     * @param id ID of the Author to be deleted.
-     * @return ResponseEntity with a 204 No Content status if the Author is successfully deleted, or a 404 Not Found status if the Author with the specified ID is not found.
+     * @param id         ID of the Author to be deleted.
+     * @param background Whether to delete the Author in the background.
+     * @return ResponseEntity with a 200 OK status and the number of deleted rows if the Author is successfully deleted,
+     * a 202 Accepted status if the deletion was scheduled, a 404 Not Found status if the Author with the specified ID is not found,
+     * or a 503 Service Unavailable status if too many deletions are waiting.
      */
     @DeleteMapping(value = "/delete/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable("id") long id) {
+    public ResponseEntity<?> deleteUser(@PathVariable("id") long id,
+                                        @RequestParam(value = "background", defaultValue = "false") boolean background) {
         try {
-            logger.info("USER_CONTROLLER deleteUser {}", id);
-            authorService.deleteUser(id);
-            return ResponseEntity.noContent().build();
+            requestLog.info("USER_CONTROLLER deleteUser", "id", id, "background", background);
+            if (background) {
+                authorService.deleteUserInBackground(id);
+                return ResponseEntity.accepted().build();
+            }
+            return ResponseEntity.ok(authorService.deleteUser(id));
         } catch (UserNotFoundException e) {
-            logger.error("USER_CONTROLLER deleteUser failed for ID {}", id, e);
+            requestLog.error("USER_CONTROLLER deleteUser failed", "id", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (TaskRejectedException e) {
+            requestLog.warn("USER_CONTROLLER deleteUser rejected", "id", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
 }
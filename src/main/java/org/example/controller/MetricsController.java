@@ -0,0 +1,34 @@
+package org.example.controller;
+
+import org.example.metrics.PrometheusExporter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class exposing application metrics to a Prometheus scraper.
+ */
+@RestController
+public class MetricsController {
+
+    private final PrometheusExporter prometheusExporter;
+
+    /**
+     * Constructor for MetricsController.
+     *
+     * @param prometheusExporter Renders the metrics in the Prometheus text format.
+     */
+    public MetricsController(PrometheusExporter prometheusExporter) {
+        this.prometheusExporter = prometheusExporter;
+    }
+
+    /**
+     * Retrieves request, repository, Hibernate, pool, cache and routing metrics.
+     *
+     * @return ResponseEntity containing the metrics in the Prometheus text exposition format.
+     */
+    @GetMapping(value = "/metrics", produces = PrometheusExporter.CONTENT_TYPE)
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok(prometheusExporter.scrape());
+    }
+}
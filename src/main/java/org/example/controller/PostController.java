@@ -1,15 +1,36 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
 import org.example.dto.PostDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.PostNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.logging.RequestLog;
+import org.example.service.ETags;
+import org.example.service.PostSearchService;
 import org.example.service.PostService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 /**
  * Controller class responsible for handling HTTP requests related to {@link PostDTO} objects.
@@ -22,31 +43,56 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final ObjectWriter exportWriter;
 
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
+    private static final RequestLog requestLog = RequestLog.getLog(PostController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
 
     /**
      * Constructor for PostController.
      *
-     * @param postService Service for handling Post entities.
+     * @param postService       Service for handling Post entities.
+     * @param postSearchService Service for searching Post entities.
+     * @param objectMapper      ObjectMapper shared with the message converters, used for the export.
      */
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostSearchService postSearchService, ObjectMapper objectMapper) {
         logger.info("PostController constructor");
         this.postService = postService;
+        this.postSearchService = postSearchService;
+        this.exportWriter = objectMapper
+                .writerFor(PostDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
      * Retrieves a Post by its ID.
+     * <p>
+     * The response carries a strong ETag. If {@code If-None-Match} holds the current one, a 304 Not Modified
+     * is returned without loading or serialising the Post.
+     * </p>
      *
-     * @param id ID of the Post to be retrieved.
-     * @return ResponseEntity containing the PostDTO if found, or a 404 Not Found status if not.
+     * @param id          ID of the Post to be retrieved.
+     * @param ifNoneMatch Entity tags of the representations the client already has, if any.
+     * @return ResponseEntity containing the PostDTO if found, a 304 Not Modified status if unchanged, or a 404 Not Found status if not.
      */
-    @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<?> getPostById(@PathVariable("id") long id) {
+    @GetMapping(value = "/{id}", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getPostById(@PathVariable("id") long id,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            if (ifNoneMatch != null) {
+                Optional<String> etag = postService.getPostETag(id);
+                if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+                }
+            }
             PostDTO postDTO = postService.getPostById(id);
-            logger.info("Post_CONTROLLER getPostById {}", postDTO);
-            return ResponseEntity.ok(postDTO);
+            requestLog.info("Post_CONTROLLER getPostById", "post", postDTO);
+            return ResponseEntity.ok().eTag(ETags.of(postDTO)).body(postDTO);
         } catch (PostNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -54,17 +100,138 @@ public class PostController {
 
     /**
      * Retrieves all Posts.
+     * <p>
+     * The Posts are loaded on the async request executor, so the container thread is released while
+     * the database is queried.
+     * </p>
+     *
+     * @return Callable producing a ResponseEntity containing a list of PostDTOs if found, or a 404 Not Found status if the list is empty.
+     */
+    @GetMapping(value = "/all", produces = {"application/json", "application/cbor"})
+    public Callable<ResponseEntity<?>> getAllPosts() {
+        return () -> {
+            try {
+                List<PostDTO> postDTOList = postService.getAllPosts();
+                requestLog.info("Post_CONTROLLER getAllPosts");
+                return ResponseEntity.ok(postDTOList);
+            } catch (PostNotFoundException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+        };
+    }
+
+    /**
+     * Retrieves a keyset page of Posts ordered by ID.
+     *
+     * @param after ID of the last Post of the previous page; omit it to read the first page.
+     * @param limit Maximum number of Posts to return.
+     * @return ResponseEntity containing the page of PostDTOs and the cursor of the next page.
+     */
+    @GetMapping(value = "/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getPostsPage(@RequestParam(value = "after", required = false) Long after,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        requestLog.info("Post_CONTROLLER getPostsPage", "after", after, "limit", limit);
+        CursorPageDTO<PostDTO> page = postService.getPostsPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves a keyset page of the Posts tagged with any or all of the given Tags, ordered by ID.
      *
-     * @return ResponseEntity containing a list of PostDTOs if found, or a 404 Not Found status if the list is empty.
+     * @param tags  Comma-separated Tag names.
+     * @param match {@code any} for Posts with at least one of the Tags, {@code all} for Posts with every Tag.
+     * @param after ID of the last Post of the previous page; omit it to read the first page.
+     * @param limit Maximum number of Posts to return.
+     * @return ResponseEntity containing the page of PostDTOs and the cursor of the next page,
+     * or a 400 Bad Request status if no Tag is given or the match mode is unknown.
      */
-    @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<?> getAllPosts() {
+    @GetMapping(params = "tags", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getPostsByTags(@RequestParam(value = "tags") List<String> tags,
+                                            @RequestParam(value = "match", defaultValue = "any") String match,
+                                            @RequestParam(value = "after", required = false) Long after,
+                                            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        requestLog.info("Post_CONTROLLER getPostsByTags", "tags", tags, "match", match, "after", after, "limit", limit);
+        if (!"any".equalsIgnoreCase(match) && !"all".equalsIgnoreCase(match)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("match must be 'any' or 'all'");
+        }
         try {
-            List<PostDTO> postDTOList = postService.getAllPosts();
-            logger.info("Post_CONTROLLER getAllPosts");
-            return ResponseEntity.ok(postDTOList);
-        } catch (PostNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            CursorPageDTO<PostDTO> page = postService.getPostsByTags(tags, "all".equalsIgnoreCase(match), after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Searches Posts by title and content, best matches first.
+     *
+     * @param query  Search terms.
+     * @param cursor Cursor of the previous page; omit it to read the first page.
+     * @param limit  Maximum number of Posts to return.
+     * @return Callable producing a ResponseEntity containing the page of matching PostDTOs and the cursor of
+     * the next page, or a 400 Bad Request status if the query is blank or the cursor is malformed.
+     */
+    @GetMapping(value = "/search", produces = {"application/json", "application/cbor"})
+    public Callable<ResponseEntity<?>> searchPosts(@RequestParam(value = "q") String query,
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return () -> {
+            try {
+                requestLog.info("Post_CONTROLLER searchPosts", "q", query, "cursor", cursor, "limit", limit);
+                return ResponseEntity.ok(postSearchService.searchPosts(query, cursor, limit));
+            } catch (IllegalArgumentException e) {
+                requestLog.error("Post_CONTROLLER searchPosts rejected", "reason", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Retrieves an offset page of Posts ordered by ID, for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size; larger values are capped.
+     * @return ResponseEntity containing the page of PostDTOs and the total number of Posts.
+     */
+    @GetMapping(value = "/admin/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getPostsOffsetPage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        requestLog.info("Post_CONTROLLER getPostsOffsetPage", "page", page, "size", size);
+        PageDTO<PostDTO> result = postService.getPostsOffsetPage(page, size);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Exports all Posts as newline-delimited JSON.
+     * <p>
+     * Posts are streamed from the database and written to the response one by one, so the
+     * response starts immediately and memory use does not depend on the number of Posts.
+     * </p>
+     *
+     * @return ResponseEntity with a body that writes one PostDTO per line.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        requestLog.info("Post_CONTROLLER exportPosts");
+        StreamingResponseBody body = outputStream -> {
+            long exported;
+            try (SequenceWriter writer = exportWriter.writeValues(outputStream)) {
+                exported = postService.exportPosts(postDTO -> write(writer, postDTO));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (exported > 0) {
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private static void write(SequenceWriter writer, PostDTO postDTO) {
+        try {
+            writer.write(postDTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -74,34 +241,72 @@ public class PostController {
      * @param postDTO Data Transfer Object representing the Post to be created.
      * @return ResponseEntity with a 201 Created status if the Post is successfully created, or a 400 Bad Request status if there are validation issues.
      */
-    @PostMapping(consumes = "application/json")
+    @PostMapping(consumes = {"application/json", "application/cbor"})
     public ResponseEntity<?> createPost(@RequestBody PostDTO postDTO) {
         try {
-            logger.info("Post_CONTROLLER BEFORE createPost {}", postDTO);
+            requestLog.info("Post_CONTROLLER BEFORE createPost", "post", postDTO);
             postService.createPost(postDTO);
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (IllegalArgumentException e) {
-            logger.error("Post_CONTROLLER createPost failed for {}", postDTO, e);
+            requestLog.error("Post_CONTROLLER createPost failed", "post", postDTO, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    /**
+     * Creates many Posts at once.
+     *
+     * @param postDTOs Data Transfer Objects representing the Posts to be created.
+     * @return ResponseEntity with a 201 Created status and the result of every Post if all of them were created,
+     * a 207 Multi-Status if some of them were rejected, or a 413 Payload Too Large status if the batch exceeds the limit.
+     */
+    @PostMapping(value = "/batch", consumes = {"application/json", "application/cbor"}, produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> createPosts(@RequestBody List<PostDTO> postDTOs) {
+        try {
+            BatchResultDTO result = postService.createPosts(postDTOs);
+            requestLog.info("Post_CONTROLLER createPosts", "created", result.getCreated(), "failed", result.getFailed());
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        } catch (BatchTooLargeException e) {
+            requestLog.error("Post_CONTROLLER createPosts rejected", "reason", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        }
+    }
+
     /**
      * Updates an existing Post.
+     * <p>
+     * With an {@code If-Match} header the update applies only if the Post is still in the version of one of
+     * the given entity tags; otherwise it applies only if the Post is still in the version given in the body, if any.
+     * </p>
      *
      * @param id      ID of the Post to be updated.
+     * @param ifMatch Entity tags of the representations the client has modified, if any.
      * @param postDTO Data Transfer Object containing updated Post data.
-     * @return ResponseEntity with a 200 OK status if the Post is successfully updated, or a 404 Not Found status if the Post with the specified ID is not found.
+     * @return ResponseEntity with a 200 OK status if the Post is successfully updated, a 404 Not Found status if the Post with the specified ID is not found,
+     * a 412 Precondition Failed status if {@code If-Match} does not match, or a 409 Conflict status if the Post was modified concurrently.
      */
-    @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<?> updatePost(@PathVariable("id") long id, @RequestBody PostDTO postDTO) {
+    @PutMapping(value = "/update/{id}", consumes = {"application/json", "application/cbor"})
+    public ResponseEntity<?> updatePost(@PathVariable("id") long id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @RequestBody PostDTO postDTO) {
         try {
-            logger.info("Post_CONTROLLER updatePost {}", postDTO);
-            postService.updatePost(id, postDTO);
+            requestLog.info("Post_CONTROLLER updatePost", "post", postDTO);
+            if (ifMatch == null) {
+                postService.updatePost(id, postDTO);
+            } else {
+                postService.updatePost(id, postDTO, ETags.versions(ifMatch));
+            }
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (PostNotFoundException e) {
-            logger.error("Post_CONTROLLER updatePost failed for {}", postDTO, e);
+            requestLog.error("Post_CONTROLLER updatePost failed", "post", postDTO, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (VersionConflictException e) {
+            requestLog.warn("Post_CONTROLLER updatePost rejected", "reason", e.getMessage());
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            requestLog.warn("Post_CONTROLLER updatePost conflict", "id", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -114,11 +319,11 @@ public class PostController {
     @DeleteMapping(value = "/delete/{id}")
     public ResponseEntity<?> deletePost(@PathVariable("id") long id) {
         try {
-            logger.info("Post_CONTROLLER deletePost {}", id);
+            requestLog.info("Post_CONTROLLER deletePost", "id", id);
             postService.deletePost(id);
             return ResponseEntity.noContent().build();
         } catch (PostNotFoundException e) {
-            logger.error("Post_CONTROLLER deletePost failed for ID {}", id, e);
+            requestLog.error("Post_CONTROLLER deletePost failed", "id", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
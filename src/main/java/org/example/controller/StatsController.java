@@ -0,0 +1,85 @@
+package org.example.controller;
+
+import org.example.cache.CacheRegistry;
+import org.example.dto.CacheStatsDTO;
+import org.example.dto.PoolStatsDTO;
+import org.example.dto.RegionStatsDTO;
+import org.example.dto.RoutingStatsDTO;
+import org.example.metrics.PoolMetrics;
+import org.example.metrics.RoutingMetrics;
+import org.example.metrics.SecondLevelCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class exposing runtime statistics used for capacity planning.
+ */
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final PoolMetrics poolMetrics;
+    private final CacheRegistry cacheRegistry;
+    private final SecondLevelCacheMetrics secondLevelCacheMetrics;
+    private final RoutingMetrics routingMetrics;
+
+    /**
+     * Constructor for StatsController.
+     *
+     * @param poolMetrics             Statistics collected from the JDBC connection pool.
+     * @param cacheRegistry           DTO caches whose statistics are exposed.
+     * @param secondLevelCacheMetrics Statistics of the Hibernate second-level cache regions.
+     * @param routingMetrics          Routing decisions between the primary and the read replicas.
+     */
+    public StatsController(PoolMetrics poolMetrics, CacheRegistry cacheRegistry,
+                           SecondLevelCacheMetrics secondLevelCacheMetrics, RoutingMetrics routingMetrics) {
+        this.poolMetrics = poolMetrics;
+        this.cacheRegistry = cacheRegistry;
+        this.secondLevelCacheMetrics = secondLevelCacheMetrics;
+        this.routingMetrics = routingMetrics;
+    }
+
+    /**
+     * Retrieves JDBC connection pool statistics.
+     *
+     * @return ResponseEntity containing the current PoolStatsDTO.
+     */
+    @GetMapping(value = "/pool", produces = "application/json")
+    public ResponseEntity<PoolStatsDTO> getPoolStats() {
+        return ResponseEntity.ok(poolMetrics.snapshot());
+    }
+
+    /**
+     * Retrieves hit, miss and eviction counters of the DTO caches.
+     *
+     * @return ResponseEntity containing one CacheStatsDTO per cache.
+     */
+    @GetMapping(value = "/cache", produces = "application/json")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheRegistry.stats());
+    }
+
+    /**
+     * Retrieves hit, miss and put counters of the Hibernate second-level cache regions.
+     *
+     * @return ResponseEntity containing one RegionStatsDTO per region.
+     */
+    @GetMapping(value = "/l2", produces = "application/json")
+    public ResponseEntity<List<RegionStatsDTO>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheMetrics.snapshot());
+    }
+
+    /**
+     * Retrieves the number of connections routed to the primary and to each read replica.
+     *
+     * @return ResponseEntity containing the current RoutingStatsDTO.
+     */
+    @GetMapping(value = "/routing", produces = "application/json")
+    public ResponseEntity<RoutingStatsDTO> getRoutingStats() {
+        return ResponseEntity.ok(routingMetrics.snapshot());
+    }
+}
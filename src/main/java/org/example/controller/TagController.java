@@ -1,8 +1,18 @@
 package org.example.controller;
 
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.example.dto.PostDTO;
 import org.example.dto.TagDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.TagNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.service.ETags;
+import org.example.service.PostService;
 import org.example.service.TagService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,41 +30,105 @@ import java.util.List;
 public class TagController {
 
     private final TagService tagService;
+    private final PostService postService;
 
     /**
      * Constructor for TagController.
      *
-     * @param tagService Service for handling Tag entities.
+     * @param tagService  Service for handling Tag entities.
+     * @param postService Service for handling the Posts of a Tag.
      */
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, PostService postService) {
         this.tagService = tagService;
+        this.postService = postService;
     }
 
     /**
      * Retrieves all Tags.
+     * <p>
+     * The response carries a strong ETag. If {@code If-None-Match} holds the current one, a 304 Not Modified
+     * is returned without loading or serialising the Tags.
+     * </p>
      *
-     * @return ResponseEntity containing a list of TagDTOs and a 200 OK status.
+     * @param ifNoneMatch Entity tags of the representations the client already has, if any.
+     * @return ResponseEntity containing a list of TagDTOs and a 200 OK status, or a 304 Not Modified status if unchanged.
      */
-    @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<?> getAllTags() {
+    @GetMapping(value = "/all", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getAllTags(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = tagService.getAllTagsETag();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         List<TagDTO> tags = tagService.getAllTags();
-        return ResponseEntity.status(HttpStatus.OK).body(tags);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.ofTags(tags)).body(tags);
+    }
+
+    /**
+     * Retrieves a keyset page of Tags ordered by ID.
+     *
+     * @param after ID of the last Tag of the previous page; omit it to read the first page.
+     * @param limit Maximum number of Tags to return.
+     * @return ResponseEntity containing the page of TagDTOs and the cursor of the next page.
+     */
+    @GetMapping(value = "/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getTagsPage(@RequestParam(value = "after", required = false) Long after,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPageDTO<TagDTO> page = tagService.getTagsPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves a keyset page of the Posts of a Tag, ordered by ID.
+     *
+     * @param id    ID of the Tag.
+     * @param after ID of the last Post of the previous page; omit it to read the first page.
+     * @param limit Maximum number of Posts to return.
+     * @return ResponseEntity containing the page of PostDTOs and the cursor of the next page,
+     * or a 404 Not Found status if the Tag does not exist.
+     */
+    @GetMapping(value = "/{id}/posts", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getTagPosts(@PathVariable("id") long id,
+                                         @RequestParam(value = "after", required = false) Long after,
+                                         @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            tagService.getTag(id);
+        } catch (TagNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        CursorPageDTO<PostDTO> page = postService.getPostsByTag(id, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves an offset page of Tags ordered by ID, for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size; larger values are capped.
+     * @return ResponseEntity containing the page of TagDTOs and the total number of Tags.
+     */
+    @GetMapping(value = "/admin/page", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getTagsOffsetPage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        PageDTO<TagDTO> result = tagService.getTagsOffsetPage(page, size);
+        return ResponseEntity.ok(result);
     }
 
     /**
      * Retrieves a Tag by its ID.
      *
      * @param id ID of the Tag to be retrieved.
-     * @return ResponseEntity containing the TagDTO if found, or a 404 Not Found status if not.
+     * @return ResponseEntity containing the TagDTO and its ETag if found, or a 404 Not Found status if not.
      */
-    @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<?> getTagById(@PathVariable long id) {
+    @GetMapping(value = "/{id}", produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> getTagById(@PathVariable("id") long id) {
         try {
-            tagService.getTag(id);
+            TagDTO tag = tagService.getTag(id);
+            return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(tag)).body(tag);
         } catch (TagNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.status(HttpStatus.OK).body(tagService.getTag(id));
     }
 
     /**
@@ -73,19 +147,53 @@ public class TagController {
         return ResponseEntity.status(HttpStatus.CREATED).body(tagDTO);
     }
 
+    /**
+     * Adds many Tags at once.
+     *
+     * @param tagDTOs Data Transfer Objects representing the Tags to be added.
+     * @return ResponseEntity with a 201 Created status and the result of every Tag if all of them were added,
+     * a 207 Multi-Status if some of them were rejected, or a 413 Payload Too Large status if the batch exceeds the limit.
+     */
+    @PostMapping(value = "/batch", consumes = {"application/json", "application/cbor"}, produces = {"application/json", "application/cbor"})
+    public ResponseEntity<?> addTags(@RequestBody List<TagDTO> tagDTOs) {
+        try {
+            BatchResultDTO result = tagService.addTags(tagDTOs);
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        } catch (BatchTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        }
+    }
+
     /**
      * Updates an existing Tag.
+     * <p>
+     * With an {@code If-Match} header the update applies only if the Tag is still in the version of one of
+     * the given entity tags; otherwise it applies only if the Tag is still in the version given in the body, if any.
+     * </p>
      *
-     * @param id     ID of the Tag to be updated.
-     * @param tagDTO Data Transfer Object containing updated Tag data.
-     * @return ResponseEntity with a 201 Created status if the Tag is successfully updated, or a 404 Not Found status if the Tag with the specified ID is not found.
+     * @param id      ID of the Tag to be updated.
+     * @param ifMatch Entity tags of the representations the client has modified, if any.
+     * @param tagDTO  Data Transfer Object containing updated Tag data.
+     * @return ResponseEntity with a 201 Created status if the Tag is successfully updated, a 404 Not Found status if the Tag with the specified ID is not found,
+     * a 412 Precondition Failed status if {@code If-Match} does not match, or a 409 Conflict status if the Tag was modified concurrently.
      */
-    @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<?> updateTag(@PathVariable long id, @RequestBody TagDTO tagDTO) {
+    @PutMapping(value = "/update/{id}", consumes = {"application/json", "application/cbor"})
+    public ResponseEntity<?> updateTag(@PathVariable("id") long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @RequestBody TagDTO tagDTO) {
         try {
-            tagService.updateTag(id, tagDTO);
+            if (ifMatch == null) {
+                tagService.updateTag(id, tagDTO);
+            } else {
+                tagService.updateTag(id, tagDTO, ETags.versions(ifMatch));
+            }
         } catch (TagNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
@@ -97,7 +205,7 @@ public class TagController {
      * @return ResponseEntity with a 204 No Content status if the Tag is successfully deleted, or a 404 Not Found status if the Tag with the specified ID is not found.
      */
     @DeleteMapping(value = "/delete/{id}")
-    public ResponseEntity<?> deleteTag(@PathVariable long id) {
+    public ResponseEntity<?> deleteTag(@PathVariable("id") long id) {
         try {
             tagService.deleteTag(id);
         } catch (TagNotFoundException e) {
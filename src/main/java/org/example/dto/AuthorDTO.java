@@ -1,14 +1,13 @@
 package org.example.dto;
 
-import org.example.entity.Post;
-
 import java.util.List;
 
 public class AuthorDTO {
     private Long id;
+    private Long version;
     private String name;
     private String email;
-    private List<Post> posts;
+    private List<PostSummaryDTO> posts;
 
     public AuthorDTO() {
     }
@@ -19,6 +18,13 @@ public class AuthorDTO {
         this.email = email;
     }
 
+    public AuthorDTO(Long id, Long version, String name, String email) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+        this.email = email;
+    }
+
     public Long getId() {
         return id;
     }
@@ -27,6 +33,14 @@ public class AuthorDTO {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -43,11 +57,11 @@ public class AuthorDTO {
         this.email = email;
     }
 
-    public List<Post> getPosts() {
+    public List<PostSummaryDTO> getPosts() {
         return posts;
     }
 
-    public void setPosts(List<Post> posts) {
+    public void setPosts(List<PostSummaryDTO> posts) {
         this.posts = posts;
     }
 
@@ -0,0 +1,68 @@
+package org.example.dto;
+
+public class BatchItemResultDTO {
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    public BatchItemResultDTO() {
+    }
+
+    public BatchItemResultDTO(int index, Status status, Long id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, Status.CREATED, id, null);
+    }
+
+    public static BatchItemResultDTO invalid(int index, String error) {
+        return new BatchItemResultDTO(index, Status.INVALID, null, error);
+    }
+
+    public static BatchItemResultDTO failed(int index, String error) {
+        return new BatchItemResultDTO(index, Status.FAILED, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
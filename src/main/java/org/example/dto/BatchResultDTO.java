@@ -0,0 +1,47 @@
+package org.example.dto;
+
+import java.util.List;
+
+public class BatchResultDTO {
+    private int created;
+    private int failed;
+    private List<BatchItemResultDTO> items;
+
+    public BatchResultDTO() {
+    }
+
+    public BatchResultDTO(List<BatchItemResultDTO> items) {
+        this.items = items;
+        for (BatchItemResultDTO item : items) {
+            if (item.getStatus() == BatchItemResultDTO.Status.CREATED) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchItemResultDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BatchItemResultDTO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.dto;
+
+public class DeletionReportDTO {
+    private Long authorId;
+    private long tagLinks;
+    private long posts;
+    private long authors;
+    private int chunks;
+    private long durationMillis;
+
+    public DeletionReportDTO() {
+    }
+
+    public DeletionReportDTO(Long authorId, long tagLinks, long posts, long authors, int chunks, long durationMillis) {
+        this.authorId = authorId;
+        this.tagLinks = tagLinks;
+        this.posts = posts;
+        this.authors = authors;
+        this.chunks = chunks;
+        this.durationMillis = durationMillis;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public long getTagLinks() {
+        return tagLinks;
+    }
+
+    public void setTagLinks(long tagLinks) {
+        this.tagLinks = tagLinks;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public void setPosts(long posts) {
+        this.posts = posts;
+    }
+
+    public long getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(long authors) {
+        this.authors = authors;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DeletionReportDTO{" +
+                "authorId=" + authorId +
+                ", tagLinks=" + tagLinks +
+                ", posts=" + posts +
+                ", authors=" + authors +
+                ", chunks=" + chunks +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
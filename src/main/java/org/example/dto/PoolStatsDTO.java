@@ -0,0 +1,133 @@
+package org.example.dto;
+
+public class PoolStatsDTO {
+    private int totalConnections;
+    private int activeConnections;
+    private int idleConnections;
+    private int pendingThreads;
+    private int minConnections;
+    private int maxConnections;
+    private long acquireCount;
+    private long acquireP50Micros;
+    private long acquireP95Micros;
+    private long acquireP99Micros;
+    private long acquireMaxMicros;
+    private long usageP50Millis;
+    private long usageP99Millis;
+    private long timeouts;
+
+    public PoolStatsDTO() {
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public void setTotalConnections(int totalConnections) {
+        this.totalConnections = totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public void setActiveConnections(int activeConnections) {
+        this.activeConnections = activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public void setIdleConnections(int idleConnections) {
+        this.idleConnections = idleConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public void setPendingThreads(int pendingThreads) {
+        this.pendingThreads = pendingThreads;
+    }
+
+    public int getMinConnections() {
+        return minConnections;
+    }
+
+    public void setMinConnections(int minConnections) {
+        this.minConnections = minConnections;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public void setAcquireCount(long acquireCount) {
+        this.acquireCount = acquireCount;
+    }
+
+    public long getAcquireP50Micros() {
+        return acquireP50Micros;
+    }
+
+    public void setAcquireP50Micros(long acquireP50Micros) {
+        this.acquireP50Micros = acquireP50Micros;
+    }
+
+    public long getAcquireP95Micros() {
+        return acquireP95Micros;
+    }
+
+    public void setAcquireP95Micros(long acquireP95Micros) {
+        this.acquireP95Micros = acquireP95Micros;
+    }
+
+    public long getAcquireP99Micros() {
+        return acquireP99Micros;
+    }
+
+    public void setAcquireP99Micros(long acquireP99Micros) {
+        this.acquireP99Micros = acquireP99Micros;
+    }
+
+    public long getAcquireMaxMicros() {
+        return acquireMaxMicros;
+    }
+
+    public void setAcquireMaxMicros(long acquireMaxMicros) {
+        this.acquireMaxMicros = acquireMaxMicros;
+    }
+
+    public long getUsageP50Millis() {
+        return usageP50Millis;
+    }
+
+    public void setUsageP50Millis(long usageP50Millis) {
+        this.usageP50Millis = usageP50Millis;
+    }
+
+    public long getUsageP99Millis() {
+        return usageP99Millis;
+    }
+
+    public void setUsageP99Millis(long usageP99Millis) {
+        this.usageP99Millis = usageP99Millis;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public void setTimeouts(long timeouts) {
+        this.timeouts = timeouts;
+    }
+}
@@ -1,15 +1,14 @@
 package org.example.dto;
 
-import org.example.entity.Tag;
-
 import java.util.List;
 
 public class PostDTO {
     private Long id;
+    private Long version;
     private String title;
     private String content;
     private Long authorId;
-    private List<Tag> tags;
+    private List<TagDTO> tags;
 
 
     public PostDTO() {
@@ -22,6 +21,14 @@ public class PostDTO {
         this.authorId = authorId;
     }
 
+    public PostDTO(Long id, Long version, String title, String content, Long authorId) {
+        this.id = id;
+        this.version = version;
+        this.title = title;
+        this.content = content;
+        this.authorId = authorId;
+    }
+
 
     public Long getId() {
         return id;
@@ -31,6 +38,14 @@ public class PostDTO {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -56,11 +71,11 @@ public class PostDTO {
     }
 
 
-    public List<Tag> getTags() {
+    public List<TagDTO> getTags() {
         return tags;
     }
 
-    public void setTags(List<Tag> tags) {
+    public void setTags(List<TagDTO> tags) {
         this.tags = tags;
     }
 
@@ -0,0 +1,53 @@
+package org.example.dto;
+
+public class PostSummaryDTO {
+    private Long id;
+    private Long version;
+    private String title;
+
+    public PostSummaryDTO() {
+    }
+
+    public PostSummaryDTO(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public PostSummaryDTO(Long id, Long version, String title) {
+        this.id = id;
+        this.version = version;
+        this.title = title;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return "PostSummaryDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.dto;
+
+import java.util.Map;
+
+public class RoutingStatsDTO {
+    private long primaryConnections;
+    private long pinnedReads;
+    private Map<String, Long> replicaReads;
+
+    public RoutingStatsDTO() {
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections;
+    }
+
+    public void setPrimaryConnections(long primaryConnections) {
+        this.primaryConnections = primaryConnections;
+    }
+
+    public long getPinnedReads() {
+        return pinnedReads;
+    }
+
+    public void setPinnedReads(long pinnedReads) {
+        this.pinnedReads = pinnedReads;
+    }
+
+    public Map<String, Long> getReplicaReads() {
+        return replicaReads;
+    }
+
+    public void setReplicaReads(Map<String, Long> replicaReads) {
+        this.replicaReads = replicaReads;
+    }
+}
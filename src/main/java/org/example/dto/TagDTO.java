@@ -2,6 +2,7 @@ package org.example.dto;
 
 public class TagDTO {
     private Long id;
+    private Long version;
     private String name;
 
     public TagDTO() {
@@ -12,6 +13,12 @@ public class TagDTO {
         this.name = name;
     }
 
+    public TagDTO(Long id, Long version, String name) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+    }
+
     public Long getId() {
         return id;
     }
@@ -20,6 +27,14 @@ public class TagDTO {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,22 +1,36 @@
 package org.example.entity;
 
 import jakarta.persistence.*;
+import org.example.configuration.SecondLevelCache;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
 @Table(name = "author")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.AUTHOR_REGION)
+@DynamicUpdate
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    // Fixed, as it must equal INCREMENT BY of author_seq in the Liquibase changelog.
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
+    @Version
+    @Column(name = "version")
+    private Long version;
     @Column(name = "name")
     private String name;
     @Column(name = "email")
     private String email;
 
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<Post> posts; // OneToMany relationship
 
     public Author() {
@@ -59,13 +73,20 @@ public class Author {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Author{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
-                ", posts=" + posts +
                 '}';
     }
 
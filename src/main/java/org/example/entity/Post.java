@@ -1,15 +1,25 @@
 package org.example.entity;
 
 import jakarta.persistence.*;
+import org.example.configuration.SecondLevelCache;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    // Fixed, as it must equal INCREMENT BY of post_seq in the Liquibase changelog.
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private Long version;
     private String title;
     private String content;
 
@@ -17,6 +27,12 @@ public class Post {
     private Author author; // ManyToOne relationship
 
     @ManyToMany
+    @JoinTable(name = "post_tag",
+            joinColumns = @JoinColumn(name = "post_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_post_tag_tag_post", columnList = "tag_id, post_id"))
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.POST_TAGS_REGION)
     private List<Tag> tags; // Many2Many relationship
 
     public Post() {
@@ -88,14 +104,21 @@ public class Post {
         return Objects.hash(id, title, content);
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Post{" +
                 "id=" + id +
                 ", title='" + title + '\'' +
                 ", content='" + content + '\'' +
-                ", author=" + author +
-                ", tags=" + tags +
+                ", authorId=" + (author == null ? null : author.getId()) +
                 '}';
     }
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package org.example.entity;
 
 import jakarta.persistence.*;
+import org.example.configuration.SecondLevelCache;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.TAG_REGION)
+@DynamicUpdate
 public class Tag {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    // Fixed, as it must equal INCREMENT BY of tag_seq in the Liquibase changelog.
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private Long version;
     @Column
     private String name;
     @ManyToMany(mappedBy = "tags")
@@ -33,6 +44,10 @@ public class Tag {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public List<Post> getPosts() {
         return posts;
     }
@@ -40,4 +55,12 @@ public class Tag {
     public void setPosts(List<Post> posts) {
         this.posts = posts;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,9 @@
+package org.example.exceptions;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+public class VersionConflictException extends OptimisticLockingFailureException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.dto.AuthorDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link AuthorDTO} as {@code {"id":..,"version":..,"name":..,"email":..,"posts":[..]}},
+ * with the posts written by {@link PostSummaryDTOSerializer}.
+ */
+final class AuthorDTOSerializer extends StdSerializer<AuthorDTO> {
+
+    static final AuthorDTOSerializer INSTANCE = new AuthorDTOSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString POSTS = new SerializedString("posts");
+
+    private AuthorDTOSerializer() {
+        super(AuthorDTO.class);
+    }
+
+    @Override
+    public void serialize(AuthorDTO author, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(author);
+        DtoFields.writeLong(gen, ID, author.getId());
+        DtoFields.writeLong(gen, VERSION, author.getVersion());
+        DtoFields.writeString(gen, NAME, author.getName());
+        DtoFields.writeString(gen, EMAIL, author.getEmail());
+        DtoFields.writeList(gen, POSTS, author.getPosts(), PostSummaryDTOSerializer.INSTANCE, provider);
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the nullable fields of the DTOs the way bean serialization does: a null value is
+ * written as {@code null}, not left out.
+ */
+final class DtoFields {
+
+    private DtoFields() {
+    }
+
+    static void writeLong(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    static <T> void writeList(JsonGenerator gen, SerializableString name, List<T> values,
+                              JsonSerializer<T> serializer, SerializerProvider provider) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        int size = values.size();
+        gen.writeStartArray(values, size);
+        for (int i = 0; i < size; i++) {
+            T value = values.get(i);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                serializer.serialize(value, gen, provider);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.PostSummaryDTO;
+import org.example.dto.TagDTO;
+
+/**
+ * Jackson module with hand-written serializers for the DTOs of the list endpoints.
+ * <p>
+ * Bean serialization reads every property through reflection and looks up the serializer of each
+ * nested value. These serializers call the getters directly, write field names from pre-encoded
+ * constants and call each other for nested DTOs, producing the same JSON with less work per
+ * element. Deserialization is left to Jackson.
+ * </p>
+ */
+public class DtoModule extends SimpleModule {
+
+    /**
+     * Constructor for DtoModule.
+     */
+    public DtoModule() {
+        super(DtoModule.class.getSimpleName());
+        addSerializer(PostDTO.class, PostDTOSerializer.INSTANCE);
+        addSerializer(AuthorDTO.class, AuthorDTOSerializer.INSTANCE);
+        addSerializer(TagDTO.class, TagDTOSerializer.INSTANCE);
+        addSerializer(PostSummaryDTO.class, PostSummaryDTOSerializer.INSTANCE);
+    }
+}
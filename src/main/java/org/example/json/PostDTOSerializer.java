@@ -0,0 +1,42 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.dto.PostDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PostDTO} as {@code {"id":..,"version":..,"title":..,"content":..,"authorId":..,"tags":[..]}},
+ * with the tags written by {@link TagDTOSerializer}.
+ */
+final class PostDTOSerializer extends StdSerializer<PostDTO> {
+
+    static final PostDTOSerializer INSTANCE = new PostDTOSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString AUTHOR_ID = new SerializedString("authorId");
+    private static final SerializableString TAGS = new SerializedString("tags");
+
+    private PostDTOSerializer() {
+        super(PostDTO.class);
+    }
+
+    @Override
+    public void serialize(PostDTO post, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(post);
+        DtoFields.writeLong(gen, ID, post.getId());
+        DtoFields.writeLong(gen, VERSION, post.getVersion());
+        DtoFields.writeString(gen, TITLE, post.getTitle());
+        DtoFields.writeString(gen, CONTENT, post.getContent());
+        DtoFields.writeLong(gen, AUTHOR_ID, post.getAuthorId());
+        DtoFields.writeList(gen, TAGS, post.getTags(), TagDTOSerializer.INSTANCE, provider);
+        gen.writeEndObject();
+    }
+}
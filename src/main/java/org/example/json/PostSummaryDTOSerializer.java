@@ -0,0 +1,35 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.dto.PostSummaryDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PostSummaryDTO} as {@code {"id":..,"version":..,"title":..}}.
+ */
+final class PostSummaryDTOSerializer extends StdSerializer<PostSummaryDTO> {
+
+    static final PostSummaryDTOSerializer INSTANCE = new PostSummaryDTOSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString TITLE = new SerializedString("title");
+
+    private PostSummaryDTOSerializer() {
+        super(PostSummaryDTO.class);
+    }
+
+    @Override
+    public void serialize(PostSummaryDTO post, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(post);
+        DtoFields.writeLong(gen, ID, post.getId());
+        DtoFields.writeLong(gen, VERSION, post.getVersion());
+        DtoFields.writeString(gen, TITLE, post.getTitle());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.dto.TagDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link TagDTO} as {@code {"id":..,"version":..,"name":..}}.
+ */
+final class TagDTOSerializer extends StdSerializer<TagDTO> {
+
+    static final TagDTOSerializer INSTANCE = new TagDTOSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString NAME = new SerializedString("name");
+
+    private TagDTOSerializer() {
+        super(TagDTO.class);
+    }
+
+    @Override
+    public void serialize(TagDTO tag, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(tag);
+        DtoFields.writeLong(gen, ID, tag.getId());
+        DtoFields.writeLong(gen, VERSION, tag.getVersion());
+        DtoFields.writeString(gen, NAME, tag.getName());
+        gen.writeEndObject();
+    }
+}
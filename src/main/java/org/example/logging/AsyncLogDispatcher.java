@@ -0,0 +1,182 @@
+package org.example.logging;
+
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders and writes the messages of {@link RequestLog} on a background thread.
+ * <p>
+ * Messages wait in a bounded queue with the raw values of their fields, which are only rendered
+ * when the message is written. When the queue is full, new messages are dropped and counted instead
+ * of blocking the request thread. Closing the dispatcher uninstalls it from {@link RequestLog}. The dispatcher also holds the sampling rates of the request logs,
+ * keyed by logger name or package prefix; the longest matching prefix wins and loggers without a
+ * match keep every message.
+ * </p>
+ */
+public class AsyncLogDispatcher implements AutoCloseable {
+
+    /**
+     * Queue capacity used when none is configured.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final BlockingQueue<Entry> queue;
+    private final Map<String, Double> sampleRates;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor for AsyncLogDispatcher. Starts the writer thread.
+     *
+     * @param capacity    Maximum number of messages waiting to be written.
+     * @param sampleRates Fraction of messages kept, between 0 and 1, by logger name or package prefix.
+     * @throws IllegalArgumentException if the capacity is not positive or a rate is out of range.
+     */
+    public AsyncLogDispatcher(int capacity, Map<String, Double> sampleRates) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+        }
+        sampleRates.forEach((prefix, rate) -> {
+            if (!(rate >= 0 && rate <= 1)) {
+                throw new IllegalArgumentException("Sample rate of " + prefix + " must be between 0 and 1: " + rate);
+            }
+        });
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sampleRates = Collections.unmodifiableMap(new LinkedHashMap<>(sampleRates));
+        this.writer = new Thread(this::drain, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Parses sampling rates from their property value, such as
+     * {@code org.example.controller=0.1, org.example.service.PostService=0.01}.
+     *
+     * @param value the property value; blank for none.
+     * @return the rates by logger name or package prefix.
+     * @throws IllegalArgumentException if an entry is not a {@code name=rate} pair.
+     */
+    public static Map<String, Double> parseSampleRates(String value) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Sample rate must be given as name=rate: " + entry.trim());
+            }
+            rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+        }
+        return rates;
+    }
+
+    double sampleRate(String loggerName) {
+        String best = null;
+        for (String prefix : sampleRates.keySet()) {
+            boolean matches = loggerName.equals(prefix) || loggerName.startsWith(prefix + ".");
+            if (matches && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        return best == null ? 1.0 : sampleRates.get(best);
+    }
+
+    void offer(Logger target, String threadName, String event, Object[] namesAndValues) {
+        if (closed || !queue.offer(new Entry(target, threadName, event, namesAndValues))) {
+            dropped.increment();
+        }
+    }
+
+    void recordSampledOut() {
+        sampledOut.increment();
+    }
+
+    private void drain() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            StringBuilder message = new StringBuilder(128).append('[').append(entry.threadName).append("] ");
+            entry.target.info(LogFields.append(message, entry.event, entry.namesAndValues).toString());
+            written.increment();
+        } catch (RuntimeException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the number of messages written so far.
+     *
+     * @return the written message count.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of messages dropped because the queue was full or the dispatcher closed.
+     *
+     * @return the dropped message count.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of messages skipped by sampling.
+     *
+     * @return the sampled-out message count.
+     */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Uninstalls the dispatcher, stops accepting messages and waits a few seconds for the queued ones
+     * to be written.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        RequestLog.uninstall(this);
+        closed = true;
+        writer.join(CLOSE_TIMEOUT_MILLIS);
+    }
+
+    private static final class Entry {
+        private final Logger target;
+        private final String threadName;
+        private final String event;
+        private final Object[] namesAndValues;
+
+        private Entry(Logger target, String threadName, String event, Object[] namesAndValues) {
+            this.target = target;
+            this.threadName = threadName;
+            this.event = event;
+            this.namesAndValues = namesAndValues;
+        }
+    }
+}
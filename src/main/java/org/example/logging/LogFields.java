@@ -0,0 +1,97 @@
+package org.example.logging;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Renders structured log fields as {@code name=value} pairs with bounded size.
+ * <p>
+ * Collections, maps and arrays are expanded to a depth of {@value #MAX_DEPTH} and at most
+ * {@value #MAX_ELEMENTS} elements each; deeper levels are replaced by their size. Every rendered
+ * scalar, including the {@code toString()} of any other object, is cut to
+ * {@value #MAX_VALUE_LENGTH} characters. Rendering never fails: an exception thrown by a
+ * {@code toString()} is rendered in place of the value.
+ * </p>
+ */
+final class LogFields {
+
+    static final int MAX_DEPTH = 2;
+    static final int MAX_ELEMENTS = 10;
+    static final int MAX_VALUE_LENGTH = 200;
+
+    private LogFields() {
+    }
+
+    static String message(String event, Object[] namesAndValues) {
+        return append(new StringBuilder(128), event, namesAndValues).toString();
+    }
+
+    static StringBuilder append(StringBuilder out, String event, Object[] namesAndValues) {
+        out.append(event);
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            append(out, String.valueOf(namesAndValues[i]), namesAndValues[i + 1]);
+        }
+        return out;
+    }
+
+    static void append(StringBuilder out, String name, Object value) {
+        out.append(' ').append(name).append('=');
+        appendValue(out, value, 0);
+    }
+
+    private static void appendValue(StringBuilder out, Object value, int depth) {
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            appendElements(out, collection.iterator(), collection.size(), depth);
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            appendElements(out, Arrays.asList(array).iterator(), array.length, depth);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            appendElements(out, map.entrySet().iterator(), map.size(), depth);
+        } else if (value instanceof Map.Entry) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) value;
+            appendValue(out, entry.getKey(), depth);
+            out.append('=');
+            appendValue(out, entry.getValue(), depth);
+        } else {
+            appendScalar(out, value);
+        }
+    }
+
+    private static void appendElements(StringBuilder out, Iterator<?> elements, int size, int depth) {
+        if (depth >= MAX_DEPTH) {
+            out.append('[').append(size).append(" elements]");
+            return;
+        }
+        out.append('[');
+        int rendered = 0;
+        while (elements.hasNext() && rendered < MAX_ELEMENTS) {
+            if (rendered > 0) {
+                out.append(", ");
+            }
+            appendValue(out, elements.next(), depth + 1);
+            rendered++;
+        }
+        if (size > rendered) {
+            out.append(", ... ").append(size - rendered).append(" more");
+        }
+        out.append(']');
+    }
+
+    private static void appendScalar(StringBuilder out, Object value) {
+        String text;
+        try {
+            text = String.valueOf(value);
+        } catch (RuntimeException e) {
+            text = "<" + e.getClass().getSimpleName() + " in toString>";
+        }
+        if (text.length() > MAX_VALUE_LENGTH) {
+            out.append(text, 0, MAX_VALUE_LENGTH).append("...(").append(text.length()).append(" chars)");
+        } else {
+            out.append(text);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sampled, asynchronous INFO logging for the request path.
+ * <p>
+ * A message is first sampled at the rate configured for its logger; only a kept message is handed,
+ * with the raw values of its fields, to the installed {@link AsyncLogDispatcher}. The dispatcher
+ * thread renders the fields, with the bounds of {@link LogFields}, and writes the message through
+ * the slf4j logger of the same name, so the message starts with the name of the request thread.
+ * As the values are rendered later, they must not be changed once logged. Calls that are sampled
+ * out, or whose logger has INFO disabled, allocate nothing once the rate of the logger has been
+ * looked up.
+ * </p>
+ * <p>
+ * Warnings and errors are never sampled or dropped: they are rendered with the same bounds and
+ * written at once, on the calling thread.
+ * </p>
+ */
+public final class RequestLog {
+
+    private static final AtomicReference<AsyncLogDispatcher> INSTALLED = new AtomicReference<>();
+    private static final Object[] NO_FIELDS = {};
+
+    private final Logger target;
+
+    private volatile Sampling sampling;
+
+    RequestLog(Logger target) {
+        this.target = target;
+    }
+
+    /**
+     * Returns the request log writing through the slf4j logger of the given class.
+     *
+     * @param type the class whose name is the logger name.
+     * @return a new request log.
+     */
+    public static RequestLog getLog(Class<?> type) {
+        return new RequestLog(LoggerFactory.getLogger(type));
+    }
+
+    /**
+     * Sends all request logs to the given dispatcher and uses its sampling rates.
+     *
+     * @param dispatcher the dispatcher, or null to go back to the default one.
+     */
+    public static void install(AsyncLogDispatcher dispatcher) {
+        INSTALLED.set(dispatcher);
+    }
+
+    static void uninstall(AsyncLogDispatcher dispatcher) {
+        INSTALLED.compareAndSet(dispatcher, null);
+    }
+
+    private static AsyncLogDispatcher dispatcher() {
+        AsyncLogDispatcher dispatcher = INSTALLED.get();
+        return dispatcher != null ? dispatcher : DefaultDispatcher.INSTANCE;
+    }
+
+    /**
+     * Logs an event without fields.
+     *
+     * @param event the event, such as {@code USER_CONTROLLER getAllUsers}.
+     */
+    public void info(String event) {
+        AsyncLogDispatcher dispatcher = dispatcher();
+        if (keep(dispatcher)) {
+            dispatcher.offer(target, Thread.currentThread().getName(), event, NO_FIELDS);
+        }
+    }
+
+    /**
+     * Logs an event with one field.
+     *
+     * @param event the event.
+     * @param name  the name of the field.
+     * @param value the value of the field.
+     */
+    public void info(String event, String name, Object value) {
+        AsyncLogDispatcher dispatcher = dispatcher();
+        if (keep(dispatcher)) {
+            dispatcher.offer(target, Thread.currentThread().getName(), event, new Object[]{name, value});
+        }
+    }
+
+    /**
+     * Logs an event with two fields.
+     *
+     * @param event  the event.
+     * @param name1  the name of the first field.
+     * @param value1 the value of the first field.
+     * @param name2  the name of the second field.
+     * @param value2 the value of the second field.
+     */
+    public void info(String event, String name1, Object value1, String name2, Object value2) {
+        AsyncLogDispatcher dispatcher = dispatcher();
+        if (keep(dispatcher)) {
+            dispatcher.offer(target, Thread.currentThread().getName(), event,
+                    new Object[]{name1, value1, name2, value2});
+        }
+    }
+
+    /**
+     * Logs an event with any number of fields. Unlike the fixed-arity variants, the call allocates
+     * its argument array even when the message is sampled out.
+     *
+     * @param event          the event.
+     * @param namesAndValues alternating field names and values.
+     */
+    public void info(String event, Object... namesAndValues) {
+        AsyncLogDispatcher dispatcher = dispatcher();
+        if (keep(dispatcher)) {
+            dispatcher.offer(target, Thread.currentThread().getName(), event, namesAndValues);
+        }
+    }
+
+    /**
+     * Logs a warning with one field.
+     *
+     * @param event the event, such as {@code USER_CONTROLLER updateUser conflict}.
+     * @param name  the name of the field.
+     * @param value the value of the field.
+     */
+    public void warn(String event, String name, Object value) {
+        if (target.isWarnEnabled()) {
+            target.warn(LogFields.message(event, new Object[]{name, value}));
+        }
+    }
+
+    /**
+     * Logs an error with one field.
+     *
+     * @param event the event.
+     * @param name  the name of the field.
+     * @param value the value of the field.
+     */
+    public void error(String event, String name, Object value) {
+        if (target.isErrorEnabled()) {
+            target.error(LogFields.message(event, new Object[]{name, value}));
+        }
+    }
+
+    /**
+     * Logs an error with one field and the exception that caused it.
+     *
+     * @param event the event.
+     * @param name  the name of the field.
+     * @param value the value of the field.
+     * @param cause the exception, written with its stack trace.
+     */
+    public void error(String event, String name, Object value, Throwable cause) {
+        if (target.isErrorEnabled()) {
+            target.error(LogFields.message(event, new Object[]{name, value}), cause);
+        }
+    }
+
+    private boolean keep(AsyncLogDispatcher dispatcher) {
+        if (!target.isInfoEnabled()) {
+            return false;
+        }
+        Sampling current = sampling;
+        if (current == null || current.dispatcher != dispatcher) {
+            current = new Sampling(dispatcher, dispatcher.sampleRate(target.getName()));
+            sampling = current;
+        }
+        if (current.rate >= 1 || current.rate > 0 && ThreadLocalRandom.current().nextDouble() < current.rate) {
+            return true;
+        }
+        dispatcher.recordSampledOut();
+        return false;
+    }
+
+    private static final class Sampling {
+        private final AsyncLogDispatcher dispatcher;
+        private final double rate;
+
+        private Sampling(AsyncLogDispatcher dispatcher, double rate) {
+            this.dispatcher = dispatcher;
+            this.rate = rate;
+        }
+    }
+
+    private static final class DefaultDispatcher {
+        private static final AsyncLogDispatcher INSTANCE =
+                new AsyncLogDispatcher(AsyncLogDispatcher.DEFAULT_CAPACITY, Map.of());
+    }
+}
@@ -1,8 +1,11 @@
 package org.example.mapper;
 
 import org.example.dto.AuthorDTO;
+import org.example.dto.PostSummaryDTO;
 import org.example.entity.Author;
+import org.example.entity.Post;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * Mapper interface for converting between {@link Author} entities and {@link AuthorDTO} objects.
@@ -11,6 +14,10 @@ import org.mapstruct.Mapper;
  * between the entity and DTO. The {@code componentModel = "spring"} annotation allows
  * this mapper to be injected as a Spring bean.
  * </p>
+ * <p>
+ * Posts are mapped to {@link PostSummaryDTO}s, so the resulting DTO holds no entities and
+ * serialising it never touches the persistence context.
+ * </p>
  */
 @Mapper(componentModel = "spring")
 public interface AuthorMapper {
@@ -22,11 +29,25 @@ public interface AuthorMapper {
      */
     AuthorDTO toDTO(Author author);
 
+    /**
+     * Converts a {@link Post} entity to a {@link PostSummaryDTO} holding only its id and title.
+     *
+     * @param post the Post entity to convert.
+     * @return the corresponding PostSummaryDTO.
+     */
+    PostSummaryDTO toSummary(Post post);
+
     /**
      * Converts an {@link AuthorDTO} to an {@link Author} entity.
+     * <p>
+     * Post summaries are not mapped back; posts are created through their own endpoints.
+     * The version is managed by Hibernate and never taken from a request.
+     * </p>
      *
      * @param authorDTO the AuthorDTO to convert.
      * @return the corresponding Author entity.
      */
+    @Mapping(target = "posts", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Author toEntity(AuthorDTO authorDTO);
 }
\ No newline at end of file
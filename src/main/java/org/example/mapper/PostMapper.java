@@ -1,7 +1,9 @@
 package org.example.mapper;
 
 import org.example.dto.PostDTO;
+import org.example.dto.TagDTO;
 import org.example.entity.Post;
+import org.example.entity.Tag;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -14,6 +16,10 @@ import org.mapstruct.Mapping;
  * this mapper to be injected as a Spring bean. The {@code @Mapping} annotations specify
  * custom mappings between fields of the {@link Post} and {@link PostDTO}.
  * </p>
+ * <p>
+ * Tags are mapped to {@link TagDTO}s, so the resulting DTO holds no entities and serialising it
+ * never touches the persistence context.
+ * </p>
  */
 @Mapper(componentModel = "spring")
 public interface PostMapper {
@@ -30,17 +36,40 @@ public interface PostMapper {
     @Mapping(source = "author.id", target = "authorId")
     PostDTO toDTO(Post post);
 
+    /**
+     * Converts a {@link Tag} entity to a {@link TagDTO} holding its id and name.
+     *
+     * @param tag the Tag entity to convert.
+     * @return the corresponding TagDTO.
+     */
+    TagDTO toTagDTO(Tag tag);
+
+    /**
+     * Converts a {@link TagDTO} to a reference to an existing {@link Tag}.
+     * <p>
+     * Only the id is mapped, so a post can be linked to existing tags by id.
+     * </p>
+     *
+     * @param tagDTO the TagDTO to convert.
+     * @return a Tag holding the id of the referenced tag.
+     */
+    @Mapping(target = "name", ignore = true)
+    @Mapping(target = "posts", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Tag toTagReference(TagDTO tagDTO);
+
     /**
      * Converts a {@link PostDTO} to a {@link Post} entity.
      * <p>
      * The {@code authorId} field in the {@link PostDTO} is mapped to the {@code author.id}
-     * field in the {@link Post} entity.
+     * field in the {@link Post} entity. The version is managed by Hibernate and never taken from a request.
      * </p>
      *
      * @param postDTO the PostDTO to convert.
      * @return the corresponding Post entity.
      */
     @Mapping(source = "authorId", target = "author.id")
+    @Mapping(target = "version", ignore = true)
     Post toEntity(PostDTO postDTO);
 }
 
@@ -3,6 +3,7 @@ package org.example.mapper;
 import org.example.dto.TagDTO;
 import org.example.entity.Tag;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * Mapper interface for converting between {@link Tag} entities and {@link TagDTO} objects.
@@ -24,9 +25,13 @@ public interface TagMapper {
 
     /**
      * Converts a {@link TagDTO} to a {@link Tag} entity.
+     * <p>
+     * The version is managed by Hibernate and never taken from a request.
+     * </p>
      *
      * @param tagDTO the TagDTO to convert.
      * @return the corresponding Tag entity.
      */
+    @Mapping(target = "version", ignore = true)
     Tag toEntity(TagDTO tagDTO);
 }
@@ -0,0 +1,93 @@
+package org.example.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.dto.PoolStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool statistics reported by HikariCP.
+ * <p>
+ * Hikari calls the tracker returned by {@link #create(String, PoolStats)} on every connection
+ * checkout and return, so all recording goes into lock-free histograms and counters.
+ * {@link #snapshot()} combines them with the live pool gauges.
+ * </p>
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private static final long MAX_ACQUIRE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final long MAX_USAGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final Histogram acquireMicros = new ConcurrentHistogram(MAX_ACQUIRE_MICROS, 2);
+    private final Histogram usageMillis = new ConcurrentHistogram(MAX_USAGE_MILLIS, 2);
+    private final LongAdder timeouts = new LongAdder();
+
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordAcquire(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                recordUsage(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    void recordAcquire(long elapsedNanos) {
+        acquireMicros.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_ACQUIRE_MICROS));
+    }
+
+    void recordUsage(long elapsedMillis) {
+        usageMillis.recordValue(clamp(elapsedMillis, MAX_USAGE_MILLIS));
+    }
+
+    /**
+     * Returns the current pool gauges together with acquire and usage time percentiles.
+     *
+     * @return a point-in-time view of the pool.
+     */
+    public PoolStatsDTO snapshot() {
+        PoolStatsDTO stats = new PoolStatsDTO();
+        PoolStats current = poolStats;
+        if (current != null) {
+            stats.setTotalConnections(current.getTotalConnections());
+            stats.setActiveConnections(current.getActiveConnections());
+            stats.setIdleConnections(current.getIdleConnections());
+            stats.setPendingThreads(current.getPendingThreads());
+            stats.setMinConnections(current.getMinConnections());
+            stats.setMaxConnections(current.getMaxConnections());
+        }
+        Histogram acquire = acquireMicros.copy();
+        stats.setAcquireCount(acquire.getTotalCount());
+        stats.setAcquireP50Micros(acquire.getValueAtPercentile(50));
+        stats.setAcquireP95Micros(acquire.getValueAtPercentile(95));
+        stats.setAcquireP99Micros(acquire.getValueAtPercentile(99));
+        stats.setAcquireMaxMicros(acquire.getMaxValue());
+        Histogram usage = usageMillis.copy();
+        stats.setUsageP50Millis(usage.getValueAtPercentile(50));
+        stats.setUsageP99Millis(usage.getValueAtPercentile(99));
+        stats.setTimeouts(timeouts.sum());
+        return stats;
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
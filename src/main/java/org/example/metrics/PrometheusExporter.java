@@ -0,0 +1,164 @@
+package org.example.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.cache.CacheRegistry;
+import org.example.dto.CacheStatsDTO;
+import org.example.dto.PoolStatsDTO;
+import org.example.dto.RegionStatsDTO;
+import org.example.dto.RoutingStatsDTO;
+import org.example.logging.AsyncLogDispatcher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Renders all application metrics in the Prometheus text exposition format.
+ * <p>
+ * A scrape contains the request and repository latencies, the Hibernate session factory
+ * statistics, the connection pool gauges, the DTO cache counters, the replica routing counters and
+ * the request log counters.
+ * Hibernate counters stay at zero unless {@code hibernate.generate_statistics} is enabled.
+ * </p>
+ */
+@Component
+public class PrometheusExporter {
+
+    /**
+     * Content type of a scrape.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RequestMetrics requestMetrics;
+    private final RepositoryMetrics repositoryMetrics;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SecondLevelCacheMetrics secondLevelCacheMetrics;
+    private final PoolMetrics poolMetrics;
+    private final CacheRegistry cacheRegistry;
+    private final RoutingMetrics routingMetrics;
+    private final AsyncLogDispatcher asyncLogDispatcher;
+
+    /**
+     * Constructor for PrometheusExporter.
+     *
+     * @param requestMetrics          Request counts and latencies per endpoint.
+     * @param repositoryMetrics       Latencies per repository method.
+     * @param entityManagerFactory    EntityManagerFactory whose Hibernate statistics are read.
+     * @param secondLevelCacheMetrics Statistics of the Hibernate second-level cache regions.
+     * @param poolMetrics             Statistics collected from the JDBC connection pool.
+     * @param cacheRegistry           DTO caches whose statistics are exported.
+     * @param routingMetrics          Routing decisions between the primary and the read replicas.
+     * @param asyncLogDispatcher      Writer of the request logs.
+     */
+    public PrometheusExporter(RequestMetrics requestMetrics, RepositoryMetrics repositoryMetrics,
+                              EntityManagerFactory entityManagerFactory,
+                              SecondLevelCacheMetrics secondLevelCacheMetrics, PoolMetrics poolMetrics,
+                              CacheRegistry cacheRegistry, RoutingMetrics routingMetrics,
+                              AsyncLogDispatcher asyncLogDispatcher) {
+        this.requestMetrics = requestMetrics;
+        this.repositoryMetrics = repositoryMetrics;
+        this.entityManagerFactory = entityManagerFactory;
+        this.secondLevelCacheMetrics = secondLevelCacheMetrics;
+        this.poolMetrics = poolMetrics;
+        this.cacheRegistry = cacheRegistry;
+        this.routingMetrics = routingMetrics;
+        this.asyncLogDispatcher = asyncLogDispatcher;
+    }
+
+    /**
+     * Collects the current value of every metric.
+     *
+     * @return the scrape, in the format named by {@link #CONTENT_TYPE}.
+     */
+    public String scrape() {
+        PrometheusWriter out = new PrometheusWriter();
+        requestMetrics.writeTo(out);
+        repositoryMetrics.writeTo(out);
+        writeHibernate(out);
+        writePool(out);
+        writeCaches(out);
+        writeRouting(out);
+        writeRequestLog(out);
+        return out.toString();
+    }
+
+    private void writeHibernate(PrometheusWriter out) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        counter(out, "hibernate_entity_loads_total", "Entities loaded from the database.",
+                statistics.getEntityLoadCount());
+        counter(out, "hibernate_entity_fetches_total", "Lazy associations and proxies fetched.",
+                statistics.getEntityFetchCount());
+        counter(out, "hibernate_entity_inserts_total", "Entities inserted.", statistics.getEntityInsertCount());
+        counter(out, "hibernate_entity_updates_total", "Entities updated.", statistics.getEntityUpdateCount());
+        counter(out, "hibernate_entity_deletes_total", "Entities deleted.", statistics.getEntityDeleteCount());
+        counter(out, "hibernate_query_executions_total", "HQL and native queries executed.",
+                statistics.getQueryExecutionCount());
+        out.family("hibernate_query_execution_max_seconds", "gauge", "Time of the slowest query executed.")
+                .sample("hibernate_query_execution_max_seconds", statistics.getQueryExecutionMaxTime() / 1e3);
+        counter(out, "hibernate_statements_prepared_total", "JDBC statements prepared.",
+                statistics.getPrepareStatementCount());
+        counter(out, "hibernate_sessions_opened_total", "Sessions opened.", statistics.getSessionOpenCount());
+        counter(out, "hibernate_query_cache_hits_total", "Query cache hits.", statistics.getQueryCacheHitCount());
+        counter(out, "hibernate_query_cache_misses_total", "Query cache misses.",
+                statistics.getQueryCacheMissCount());
+
+        List<RegionStatsDTO> regions = secondLevelCacheMetrics.snapshot();
+        out.family("hibernate_second_level_cache_hits_total", "counter", "Second-level cache hits by region.");
+        regions.forEach(region -> out.sample("hibernate_second_level_cache_hits_total",
+                region.getHitCount(), "region", region.getRegion()));
+        out.family("hibernate_second_level_cache_misses_total", "counter", "Second-level cache misses by region.");
+        regions.forEach(region -> out.sample("hibernate_second_level_cache_misses_total",
+                region.getMissCount(), "region", region.getRegion()));
+        out.family("hibernate_second_level_cache_puts_total", "counter", "Second-level cache puts by region.");
+        regions.forEach(region -> out.sample("hibernate_second_level_cache_puts_total",
+                region.getPutCount(), "region", region.getRegion()));
+    }
+
+    private void writePool(PrometheusWriter out) {
+        PoolStatsDTO pool = poolMetrics.snapshot();
+        gauge(out, "jdbc_pool_connections_active", "Connections in use.", pool.getActiveConnections());
+        gauge(out, "jdbc_pool_connections_idle", "Idle connections.", pool.getIdleConnections());
+        gauge(out, "jdbc_pool_connections_max", "Maximum size of the pool.", pool.getMaxConnections());
+        gauge(out, "jdbc_pool_pending_threads", "Threads waiting for a connection.", pool.getPendingThreads());
+        counter(out, "jdbc_pool_acquires_total", "Connections handed out by the pool.", pool.getAcquireCount());
+        counter(out, "jdbc_pool_timeouts_total", "Connection requests that timed out.", pool.getTimeouts());
+    }
+
+    private void writeCaches(PrometheusWriter out) {
+        List<CacheStatsDTO> caches = cacheRegistry.stats();
+        out.family("dto_cache_size", "gauge", "Approximate number of entries by cache.");
+        caches.forEach(cache -> out.sample("dto_cache_size", cache.getSize(), "cache", cache.getName()));
+        out.family("dto_cache_hits_total", "counter", "DTO cache hits by cache.");
+        caches.forEach(cache -> out.sample("dto_cache_hits_total", cache.getHitCount(), "cache", cache.getName()));
+        out.family("dto_cache_misses_total", "counter", "DTO cache misses by cache.");
+        caches.forEach(cache -> out.sample("dto_cache_misses_total", cache.getMissCount(), "cache", cache.getName()));
+    }
+
+    private void writeRouting(PrometheusWriter out) {
+        RoutingStatsDTO routing = routingMetrics.snapshot();
+        counter(out, "datasource_primary_connections_total", "Connections routed to the primary.",
+                routing.getPrimaryConnections());
+        counter(out, "datasource_pinned_reads_total", "Read-only connections pinned to the primary.",
+                routing.getPinnedReads());
+        out.family("datasource_replica_reads_total", "counter", "Read-only connections routed to each replica.");
+        routing.getReplicaReads().forEach((replica, count) ->
+                out.sample("datasource_replica_reads_total", count, "replica", replica));
+    }
+
+    private void writeRequestLog(PrometheusWriter out) {
+        counter(out, "request_log_written_total", "Request log messages written.", asyncLogDispatcher.getWritten());
+        counter(out, "request_log_dropped_total", "Request log messages dropped because the queue was full.",
+                asyncLogDispatcher.getDropped());
+        counter(out, "request_log_sampled_out_total", "Request log messages skipped by sampling.",
+                asyncLogDispatcher.getSampledOut());
+    }
+
+    private static void counter(PrometheusWriter out, String name, String help, long value) {
+        out.family(name, "counter", help).sample(name, value);
+    }
+
+    private static void gauge(PrometheusWriter out, String name, String help, long value) {
+        out.family(name, "gauge", help).sample(name, value);
+    }
+}
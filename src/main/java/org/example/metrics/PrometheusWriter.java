@@ -0,0 +1,84 @@
+package org.example.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Builds a scrape in the Prometheus text exposition format, version 0.0.4.
+ * <p>
+ * Labels are given as alternating names and values. Latencies are written as summaries in seconds
+ * with the 0.5, 0.99 and 0.999 quantiles taken from an HDR histogram.
+ * </p>
+ */
+final class PrometheusWriter {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    PrometheusWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    PrometheusWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        appendLabels(labels, null);
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    PrometheusWriter summary(String name, LatencyTimer timer, String... labels) {
+        Histogram histogram = timer.histogram();
+        for (double quantile : QUANTILES) {
+            out.append(name);
+            appendLabels(labels, Double.toString(quantile));
+            double seconds = histogram.getTotalCount() == 0
+                    ? Double.NaN
+                    : histogram.getValueAtPercentile(quantile * 100) / 1e6;
+            out.append(' ').append(format(seconds)).append('\n');
+        }
+        sample(name + "_sum", timer.totalNanos() / 1e9, labels);
+        sample(name + "_count", histogram.getTotalCount(), labels);
+        return this;
+    }
+
+    private void appendLabels(String[] labels, String quantile) {
+        if (labels.length == 0 && quantile == null) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        if (quantile != null) {
+            if (labels.length > 0) {
+                out.append(',');
+            }
+            out.append("quantile=\"").append(quantile).append('"');
+        }
+        out.append('}');
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the time spent in every Spring Data repository method.
+ * <p>
+ * Each repository bean is wrapped in a proxy that times its calls, including the transaction the
+ * repository opens when none is active. Overloads of a method share one timer. Methods returning a
+ * {@code Stream} are timed until the stream is returned, not until it is consumed.
+ * </p>
+ */
+@Component
+public class RepositoryMetrics implements BeanPostProcessor {
+
+    private final Map<String, Method> methods = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository)) {
+            return bean;
+        }
+        String repository = repositoryName(bean, beanName);
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Method method = method(repository, invocation.getMethod().getName());
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                method.errors.increment();
+                throw e;
+            } finally {
+                method.latency.record(System.nanoTime() - start);
+            }
+        });
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private static String repositoryName(Object bean, String beanName) {
+        for (Class<?> type : ClassUtils.getAllInterfacesAsSet(bean)) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return beanName;
+    }
+
+    private Method method(String repository, String name) {
+        return methods.computeIfAbsent(repository + '.' + name, key -> new Method(repository, name));
+    }
+
+    void writeTo(PrometheusWriter out) {
+        out.family("repository_invocation_duration_seconds", "summary", "Time spent in repository methods.");
+        methods.values().forEach(method -> out.summary("repository_invocation_duration_seconds",
+                method.latency, "repository", method.repository, "method", method.name));
+        out.family("repository_invocation_errors_total", "counter", "Repository calls that threw an exception.");
+        methods.values().forEach(method -> out.sample("repository_invocation_errors_total",
+                method.errors.sum(), "repository", method.repository, "method", method.name));
+    }
+
+    private static final class Method {
+        private final String repository;
+        private final String name;
+        private final LatencyTimer latency = new LatencyTimer();
+        private final LongAdder errors = new LongAdder();
+
+        private Method(String repository, String name) {
+            this.repository = repository;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests by status code and records their latency for every controller endpoint.
+ * <p>
+ * Endpoints are keyed by HTTP method and the matched URI pattern, such as {@code /posts/{id}},
+ * so the number of series stays bounded by the number of handler methods. The latency of an
+ * asynchronous request runs from its first dispatch to the completion of the last one.
+ * A request that ends with an unhandled exception is counted as status 500.
+ * </p>
+ */
+@Component
+public class RequestMetrics implements AsyncHandlerInterceptor {
+
+    static final String START_ATTRIBUTE = RequestMetrics.class.getName() + ".START";
+    static final String UNMAPPED = "UNMAPPED";
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        record(request.getMethod(), pattern == null ? UNMAPPED : pattern.toString(), status,
+                System.nanoTime() - (Long) start);
+    }
+
+    void record(String method, String uri, int status, long elapsedNanos) {
+        Endpoint endpoint = endpoints.computeIfAbsent(uri + ' ' + method, key -> new Endpoint(method, uri));
+        endpoint.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        endpoint.latency.record(elapsedNanos);
+    }
+
+    void writeTo(PrometheusWriter out) {
+        out.family("http_server_requests_total", "counter", "Completed requests by endpoint and status code.");
+        endpoints.values().forEach(endpoint -> endpoint.statuses.forEach((status, count) ->
+                out.sample("http_server_requests_total", count.sum(),
+                        "method", endpoint.method, "uri", endpoint.uri, "status", Integer.toString(status))));
+        out.family("http_server_request_duration_seconds", "summary", "Request latency by endpoint.");
+        endpoints.values().forEach(endpoint -> out.summary("http_server_request_duration_seconds",
+                endpoint.latency, "method", endpoint.method, "uri", endpoint.uri));
+    }
+
+    private static final class Endpoint {
+        private final String method;
+        private final String uri;
+        private final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+        private final LatencyTimer latency = new LatencyTimer();
+
+        private Endpoint(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+    }
+}
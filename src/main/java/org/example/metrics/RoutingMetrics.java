@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+import org.example.dto.RoutingStatsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the routing decisions of {@link org.example.configuration.ReplicaRoutingDataSource}.
+ * <p>
+ * Every physical connection fetched through the routing DataSource is counted once: on the primary,
+ * on the primary because the thread was pinned for read-your-writes, or on the named replica.
+ * </p>
+ */
+public class RoutingMetrics {
+
+    private final LongAdder primary = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final Map<String, LongAdder> replicaReads = new ConcurrentSkipListMap<>();
+
+    /**
+     * Records a connection of a read-write transaction, or of work outside a transaction, on the primary.
+     */
+    public void recordPrimary() {
+        primary.increment();
+    }
+
+    /**
+     * Records a connection of a read-only transaction sent to the primary for read-your-writes.
+     */
+    public void recordPinnedRead() {
+        pinnedReads.increment();
+    }
+
+    /**
+     * Records a connection of a read-only transaction sent to a replica.
+     *
+     * @param replica the name of the replica.
+     */
+    public void recordReplicaRead(String replica) {
+        replicaReads.computeIfAbsent(replica, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the number of connections routed to each target so far.
+     *
+     * @return a point-in-time view of the routing counters.
+     */
+    public RoutingStatsDTO snapshot() {
+        RoutingStatsDTO stats = new RoutingStatsDTO();
+        stats.setPrimaryConnections(primary.sum());
+        stats.setPinnedReads(pinnedReads.sum());
+        Map<String, Long> replicas = new LinkedHashMap<>();
+        replicaReads.forEach((name, count) -> replicas.put(name, count.sum()));
+        stats.setReplicaReads(replicas);
+        return stats;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.RegionStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads Hibernate second-level and query cache statistics per region.
+ * <p>
+ * Hibernate only counts hits and misses while {@code hibernate.generate_statistics} is enabled;
+ * otherwise all counters stay at zero.
+ * </p>
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructor for SecondLevelCacheMetrics.
+     *
+     * @param entityManagerFactory EntityManagerFactory whose statistics are read.
+     */
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Returns the counters of every second-level cache region, sorted by region name.
+     *
+     * @return one entry per region.
+     */
+    public List<RegionStatsDTO> snapshot() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        List<RegionStatsDTO> result = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            RegionStatsDTO dto = new RegionStatsDTO();
+            dto.setRegion(region);
+            dto.setHitCount(regionStatistics.getHitCount());
+            dto.setMissCount(regionStatistics.getMissCount());
+            dto.setPutCount(regionStatistics.getPutCount());
+            result.add(dto);
+        }
+        return result;
+    }
+}
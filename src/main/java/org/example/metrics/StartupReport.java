@@ -0,0 +1,201 @@
+package org.example.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long the application context takes to start and logs it once, with the beans that
+ * took longest to create.
+ * <p>
+ * Installed as the {@link ApplicationStartup} of the context, it is told by Spring when each startup
+ * step begins and ends. A bean is charged for the work done while it was being created, such as the
+ * query parsing of a repository, but not for the other beans created meanwhile, so the expensive
+ * beans stand out. The phases of the refresh that create no beans, like bean factory
+ * post-processing, are reported on their own. Once the context is refreshed, recording stops and
+ * later steps cost nothing.
+ * </p>
+ */
+public class StartupReport implements ApplicationStartup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final String REFRESH_STEP = "spring.context.refresh";
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    private final int slowestBeans;
+    private final LongSupplier nanoClock;
+    private final LongSupplier jvmUptimeMillis;
+    private final AtomicLong ids = new AtomicLong();
+    private final ThreadLocal<Step> current = new ThreadLocal<>();
+    private final Map<String, Long> beanNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> phaseNanos = new ConcurrentHashMap<>();
+
+    private volatile String summary;
+
+    /**
+     * Constructor for StartupReport.
+     *
+     * @param slowestBeans Number of beans listed in the report.
+     */
+    public StartupReport(int slowestBeans) {
+        this(slowestBeans, System::nanoTime, () -> ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L));
+    }
+
+    StartupReport(int slowestBeans, LongSupplier nanoClock, LongSupplier jvmUptimeMillis) {
+        this.slowestBeans = slowestBeans;
+        this.nanoClock = nanoClock;
+        this.jvmUptimeMillis = jvmUptimeMillis;
+    }
+
+    @Override
+    public StartupStep start(String name) {
+        if (summary != null) {
+            return DEFAULT.start(name);
+        }
+        Step step = new Step(name, current.get());
+        current.set(step);
+        return step;
+    }
+
+    /**
+     * Returns the report, once the context has been refreshed.
+     *
+     * @return the report, or null while the context is still starting.
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    private void ended(Step step, long elapsedNanos) {
+        if (current.get() == step) {
+            current.set(step.parent);
+        }
+        if (step.isBean()) {
+            beanNanos.merge(step.beanName, elapsedNanos - step.beanChildNanos, Long::sum);
+            for (Step ancestor = step.parent; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor.isBean()) {
+                    ancestor.beanChildNanos += elapsedNanos;
+                    break;
+                }
+            }
+        } else if (step.parent != null && step.parent.parent == null && REFRESH_STEP.equals(step.parent.name)) {
+            phaseNanos.merge(step.name, elapsedNanos, Long::sum);
+        }
+        if (REFRESH_STEP.equals(step.name) && step.parent == null && summary == null) {
+            summary = summarize(elapsedNanos);
+            beanNanos.clear();
+            phaseNanos.clear();
+            current.remove();
+            logger.info(summary);
+        }
+    }
+
+    private String summarize(long refreshNanos) {
+        StringBuilder summary = new StringBuilder("Application context started in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(refreshNanos)).append(" ms, ")
+                .append(jvmUptimeMillis.getAsLong()).append(" ms after JVM start");
+        phaseNanos.forEach((phase, nanos) -> summary.append("; ").append(phase).append(' ')
+                .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms"));
+        return summary.append("; slowest beans: ").append(beanNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(slowestBeans)
+                .map(entry -> entry.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + " ms")
+                .collect(Collectors.joining(", "))).toString();
+    }
+
+    private final class Step implements StartupStep {
+
+        private final long id = ids.incrementAndGet();
+        private final String name;
+        private final Step parent;
+        private final long startNanos = nanoClock.getAsLong();
+        private final List<Tag> tags = new ArrayList<>(1);
+        private String beanName;
+        private long beanChildNanos;
+        private boolean ended;
+
+        Step(String name, Step parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        boolean isBean() {
+            return BEAN_STEP.equals(name) && beanName != null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parent != null ? parent.id : null;
+        }
+
+        @Override
+        public StartupStep tag(String key, String value) {
+            if (BEAN_NAME_TAG.equals(key)) {
+                beanName = value;
+            }
+            tags.add(new Tag() {
+                @Override
+                public String getKey() {
+                    return key;
+                }
+
+                @Override
+                public String getValue() {
+                    return value;
+                }
+            });
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value) {
+            return tag(key, value.get());
+        }
+
+        @Override
+        public Tags getTags() {
+            return new Tags() {
+                @Override
+                public Iterator<Tag> iterator() {
+                    return tags.iterator();
+                }
+            };
+        }
+
+        @Override
+        public void end() {
+            if (!ended) {
+                ended = true;
+                ended(this, nanoClock.getAsLong() - startNanos);
+            }
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package org.example.repository;
 
+import org.example.dto.AuthorDTO;
 import org.example.entity.Author;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing {@link Author} entities.
  * <p>
@@ -13,5 +24,113 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
-}
 
+    /**
+     * Returns the version stamp of an {@link Author}: its version, the number of its posts, the sum of
+     * their versions, the sum of their ids and the highest id, separated by dots. The stamp changes
+     * whenever the author or one of its posts does, and when a post is deleted and another created,
+     * through the id sum, since a new id is unique but not always higher: each node draws ids from its
+     * own block of the pooled sequence. It is read without loading the author.
+     *
+     * @param id the id of the author.
+     * @return the stamp, if the author exists.
+     */
+    @Query("select concat(cast(a.version as String), '.', cast(count(p) as String), '.',"
+            + " cast(coalesce(sum(p.version), 0) as String), '.', cast(coalesce(sum(p.id), 0) as String), '.',"
+            + " cast(coalesce(max(p.id), 0) as String))"
+            + " from Author a left join a.posts p where a.id = :id group by a.id, a.version")
+    Optional<String> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Updates the name and email of an {@link Author} and raises its version in a single statement, provided
+     * its current version is one of the given ones. Null values leave the respective column unchanged.
+     *
+     * @param id       the id of the author.
+     * @param name     the new name, or null.
+     * @param email    the new email, or null.
+     * @param versions the versions the caller expects; must not be empty.
+     * @return 1 if the author was updated, 0 if it does not exist or is in another version.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Author a set a.name = coalesce(:name, a.name), a.email = coalesce(:email, a.email),"
+            + " a.version = a.version + 1 where a.id = :id and a.version in :versions")
+    int updateIfVersionIn(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                          @Param("versions") Collection<Long> versions);
+
+    /**
+     * Deletes an {@link Author} by a single statement, without loading it. Its posts must be deleted first.
+     *
+     * @param id the id of the author.
+     * @return the number of deleted authors, 0 if it does not exist.
+     */
+    @Modifying
+    @Query("delete from Author a where a.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    /**
+     * Reads all authors as {@link AuthorDTO}s, selecting only their columns. Their posts are read
+     * separately by {@link #findAllPostSummaries()}.
+     * <p>
+     * No entity is instantiated, so the rows are neither registered in the persistence context nor
+     * dirty-checked on flush.
+     * </p>
+     *
+     * @return all authors, ordered by id, without posts.
+     */
+    @Query("select new org.example.dto.AuthorDTO(a.id, a.version, a.name, a.email) from Author a order by a.id")
+    List<AuthorDTO> findAllDtos();
+
+    /**
+     * Reads the keyset page of authors that follows the given id as {@link AuthorDTO}s, ordered by id,
+     * without posts.
+     *
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the authors with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.AuthorDTO(a.id, a.version, a.name, a.email) from Author a"
+            + " where a.id > :id order by a.id")
+    List<AuthorDTO> findDtosAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Reads a page of authors as {@link AuthorDTO}s, without posts.
+     *
+     * @param pageable the page to retrieve.
+     * @return the requested page of authors.
+     */
+    @Query(value = "select new org.example.dto.AuthorDTO(a.id, a.version, a.name, a.email) from Author a",
+            countQuery = "select count(a) from Author a")
+    Page<AuthorDTO> findDtos(Pageable pageable);
+
+    /**
+     * Reads the id, version and title of the posts of the given authors, ordered by post id.
+     *
+     * @param authorIds the ids of the authors.
+     * @return one row per post.
+     */
+    @Query("select p.author.id as authorId, p.id as id, p.version as version, p.title as title"
+            + " from Post p where p.author.id in :authorIds order by p.id")
+    List<AuthorPost> findPostSummariesByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds);
+
+    /**
+     * Reads the id, version and title of all posts that have an author, ordered by post id.
+     *
+     * @return one row per post.
+     */
+    @Query("select p.author.id as authorId, p.id as id, p.version as version, p.title as title"
+            + " from Post p where p.author is not null order by p.id")
+    List<AuthorPost> findAllPostSummaries();
+
+    /**
+     * A post of an author, as read for the author's list of post summaries.
+     */
+    interface AuthorPost {
+        Long getAuthorId();
+
+        Long getId();
+
+        Long getVersion();
+
+        String getTitle();
+    }
+}
@@ -1,9 +1,25 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.PostDTO;
 import org.example.entity.Post;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for managing {@link Post} entities.
  * <p>
@@ -13,4 +29,344 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+
+    /**
+     * Retrieves all {@link Post} entities together with their authors in a single query.
+     * <p>
+     * Tags are not fetch-joined: their ids come from the {@code post.tags} collection region and the
+     * tags themselves from the tag region of the second-level cache, so a warm read never touches
+     * the tag tables. On a cold cache they are batch-fetched, see {@link Post#getTags()}.
+     * </p>
+     *
+     * @return all posts.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Post> findAll();
+
+    /**
+     * Retrieves a {@link Post} by id together with its author in a single query; tags are resolved
+     * as in {@link #findAll()}.
+     *
+     * @param id the id of the post.
+     * @return the post, if found.
+     */
+    @EntityGraph(attributePaths = "author")
+    Optional<Post> findWithAuthorById(Long id);
+
+    /**
+     * Retrieves a page of {@link Post} entities together with their authors.
+     * <p>
+     * Tags are not fetch-joined, since that would make Hibernate paginate in memory; they come from
+     * the second-level cache or, on a miss, are loaded for the whole page by the batch fetch on
+     * {@link Post#getTags()}.
+     * </p>
+     *
+     * @param pageable the page to retrieve.
+     * @return the requested page of posts.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Post> findAll(Pageable pageable);
+
+    /**
+     * Streams all posts as {@link PostDTO}s, ordered by id, through a JDBC cursor, without tags.
+     * <p>
+     * Rows are fetched from the database in chunks of the configured fetch size. No entity is
+     * instantiated, so the persistence context stays empty however many posts are read; the caller
+     * must consume and close the stream inside a transaction, and reads the tags of the posts by
+     * {@link #findTagLinksByPostIdIn(Collection)}.
+     * </p>
+     *
+     * @return a lazily populated stream of posts.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<PostDTO> streamAllDtos();
+
+    /**
+     * Retrieves the {@link Post} entities with the given ids together with their authors, in no particular order.
+     *
+     * @param ids the ids of the posts.
+     * @return the posts that exist.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Post> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Ranks posts matching a web-search style query against the generated {@code post.search_vector}
+     * column (PostgreSQL only), returning the hits that follow the keyset {@code (rank, id)}.
+     * <p>
+     * Matches are found through the GIN index on the column; hits are ordered by rank descending,
+     * then by id, so a page is resumed from the rank and id of the last hit of the previous page.
+     * </p>
+     *
+     * @param query the search terms, parsed by {@code websearch_to_tsquery}.
+     * @param rank  the rank of the last hit of the previous page.
+     * @param id    the id of the last hit of the previous page.
+     * @param limit the maximum number of hits to return.
+     * @return the ids and ranks of the matching posts.
+     */
+    @Query(value = "SELECT r.id AS id, r.rank AS rank FROM ("
+            + " SELECT p.id AS id, CAST(ts_rank(p.search_vector, q) AS double precision) AS rank"
+            + " FROM post p, websearch_to_tsquery('english', :query) q"
+            + " WHERE p.search_vector @@ q) r"
+            + " WHERE r.rank < :rank OR (r.rank = :rank AND r.id > :id)"
+            + " ORDER BY r.rank DESC, r.id"
+            + " LIMIT :limit", nativeQuery = true)
+    List<SearchHit> searchFullText(@Param("query") String query, @Param("rank") double rank,
+                                   @Param("id") long id, @Param("limit") int limit);
+
+    /**
+     * Portable fallback of {@link #searchFullText}: posts whose title or content contains the pattern,
+     * title matches ranking above content matches. It scans the table and is meant for tests and
+     * databases without full-text search.
+     *
+     * @param pattern the lower-case LIKE pattern, with wildcards escaped by a backslash.
+     * @param rank    the rank of the last hit of the previous page.
+     * @param id      the id of the last hit of the previous page.
+     * @param limit   the maximum number of hits to return.
+     * @return the ids and ranks of the matching posts.
+     */
+    @Query("select r.id as id, r.rank as rank from ("
+            + " select p.id as id, case when lower(p.title) like :pattern escape '\\' then 2.0 else 1.0 end as rank"
+            + " from Post p"
+            + " where lower(p.title) like :pattern escape '\\' or lower(p.content) like :pattern escape '\\') r"
+            + " where r.rank < :rank or (r.rank = :rank and r.id > :id)"
+            + " order by r.rank desc, r.id")
+    List<SearchHit> searchByPattern(@Param("pattern") String pattern, @Param("rank") double rank,
+                                    @Param("id") long id, Limit limit);
+
+    /**
+     * A search hit: the id of a matching post and its rank, higher ranking first.
+     */
+    interface SearchHit {
+        Long getId();
+
+        Double getRank();
+    }
+
+    /**
+     * Returns the version stamp of a {@link Post}: its version, the number of its tags, the sum of their
+     * versions, the sum of their ids and the highest id, separated by dots. The stamp changes whenever
+     * the post or one of its tags does, and when one tag is swapped for another. It is read without
+     * loading the post.
+     *
+     * @param id the id of the post.
+     * @return the stamp, if the post exists.
+     */
+    @Query("select concat(cast(p.version as String), '.', cast(count(t) as String), '.',"
+            + " cast(coalesce(sum(t.version), 0) as String), '.', cast(coalesce(sum(t.id), 0) as String), '.',"
+            + " cast(coalesce(max(t.id), 0) as String))"
+            + " from Post p left join p.tags t where p.id = :id group by p.id, p.version")
+    Optional<String> findVersionStampById(@Param("id") Long id);
+
+    /**
+     * Updates the title and content of a {@link Post} and raises its version in a single statement, provided
+     * its current version is one of the given ones. Null values leave the respective column unchanged.
+     *
+     * @param id       the id of the post.
+     * @param title    the new title, or null.
+     * @param content  the new content, or null.
+     * @param versions the versions the caller expects; must not be empty.
+     * @return 1 if the post was updated, 0 if it does not exist or is in another version.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Post p set p.title = coalesce(:title, p.title), p.content = coalesce(:content, p.content),"
+            + " p.version = p.version + 1 where p.id = :id and p.version in :versions")
+    int updateIfVersionIn(@Param("id") Long id, @Param("title") String title, @Param("content") String content,
+                          @Param("versions") Collection<Long> versions);
+
+    /**
+     * Returns the id of the author of a {@link Post} without loading the post.
+     *
+     * @param id the id of the post.
+     * @return the author id, or empty if the post does not exist or has no author.
+     */
+    @Query("select p.author.id from Post p where p.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    /**
+     * Deletes a {@link Post} by a single statement, without loading it. Hibernate deletes its tag links
+     * by one more statement beforehand.
+     *
+     * @param id the id of the post.
+     * @return the number of deleted posts, 0 if it does not exist.
+     */
+    @Modifying
+    @Query("delete from Post p where p.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    /**
+     * Deletes all {@link Post} entities of an author by a single statement, without loading them.
+     * Hibernate deletes their tag links by one more statement beforehand.
+     *
+     * @param authorId the id of the author.
+     * @return the number of deleted posts.
+     */
+    @Modifying
+    @Query("delete from Post p where p.author.id = :authorId")
+    int bulkDeleteByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Deletes the given {@link Post} entities by a single statement, without loading them.
+     * Hibernate deletes their tag links by one more statement beforehand.
+     *
+     * @param ids the ids of the posts.
+     * @return the number of deleted posts.
+     */
+    @Modifying
+    @Query("delete from Post p where p.id in :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the ids of the first posts of an author, ordered by id.
+     *
+     * @param authorId the id of the author.
+     * @param limit    the maximum number of ids to return.
+     * @return the post ids.
+     */
+    @Query("select p.id from Post p where p.author.id = :authorId order by p.id")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Limit limit);
+
+    /**
+     * Deletes the tag links of all {@link Post} entities of an author, so the number of links can be
+     * reported. Only the cached post-tag collections are invalidated.
+     *
+     * @param authorId the id of the author.
+     * @return the number of deleted links.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM post_tag WHERE post_id IN (SELECT id FROM post WHERE author_id = :authorId)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_tag"))
+    int deleteTagLinksByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Deletes the tag links of the given {@link Post} entities, so the number of links can be reported.
+     * Only the cached post-tag collections are invalidated.
+     *
+     * @param postIds the ids of the posts.
+     * @return the number of deleted links.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM post_tag WHERE post_id IN (:postIds)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_tag"))
+    int deleteTagLinksByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Reads all posts as {@link PostDTO}s, selecting only their columns and the id of their author.
+     * Their tags are read separately by {@link #findAllTagLinks()}.
+     * <p>
+     * No entity is instantiated, so the rows are neither registered in the persistence context nor
+     * dirty-checked on flush. The author id is read from the foreign key, without joining the author.
+     * </p>
+     *
+     * @return all posts, ordered by id, without tags.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p order by p.id")
+    List<PostDTO> findAllDtos();
+
+    /**
+     * Reads the keyset page of posts that follows the given id as {@link PostDTO}s, ordered by id, without tags.
+     *
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the posts with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p where p.id > :id order by p.id")
+    List<PostDTO> findDtosAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Reads a page of posts as {@link PostDTO}s, without tags.
+     *
+     * @param pageable the page to retrieve.
+     * @return the requested page of posts.
+     */
+    @Query(value = "select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p",
+            countQuery = "select count(p) from Post p")
+    Page<PostDTO> findDtos(Pageable pageable);
+
+    /**
+     * Reads the keyset page of posts linked to a tag as {@link PostDTO}s, ordered by id, without tags.
+     * <p>
+     * The lookup is served by the {@code (tag_id, post_id)} index of {@code post_tag}, so only the
+     * rows of the page are read, whatever the number of posts of the tag.
+     * </p>
+     *
+     * @param tagId the id of the tag.
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the posts of the tag with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p join p.tags t"
+            + " where t.id = :tagId and p.id > :id order by p.id")
+    List<PostDTO> findDtosByTagIdAfter(@Param("tagId") Long tagId, @Param("id") Long id, Limit limit);
+
+    /**
+     * Reads the keyset page of posts linked to at least one of the named tags as {@link PostDTO}s,
+     * ordered by id, without tags.
+     *
+     * @param names the tag names.
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the matching posts with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p where p.id > :id"
+            + " and exists (select 1 from Post pt join pt.tags t where pt.id = p.id and t.name in :names)"
+            + " order by p.id")
+    List<PostDTO> findDtosByAnyTagNameAfter(@Param("names") Collection<String> names, @Param("id") Long id,
+                                            Limit limit);
+
+    /**
+     * Reads the keyset page of posts linked to every one of the named tags as {@link PostDTO}s,
+     * ordered by id, without tags.
+     *
+     * @param names the distinct tag names.
+     * @param count the number of names, which a post must all match.
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the matching posts with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.PostDTO(p.id, p.version, p.title, p.content, p.author.id) from Post p where p.id > :id and p.id in ("
+            + " select pt.id from Post pt join pt.tags t where t.name in :names and pt.id > :id"
+            + " group by pt.id having count(distinct t.name) = :count)"
+            + " order by p.id")
+    List<PostDTO> findDtosByAllTagNamesAfter(@Param("names") Collection<String> names, @Param("count") long count,
+                                             @Param("id") Long id, Limit limit);
+
+    /**
+     * Reads the tags of the given posts, ordered by tag id.
+     *
+     * @param postIds the ids of the posts.
+     * @return one row per link between a post and a tag.
+     */
+    @Query("select p.id as postId, t.id as id, t.version as version, t.name as name"
+            + " from Post p join p.tags t where p.id in :postIds order by t.id")
+    List<TagLink> findTagLinksByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Reads the tags of all posts, ordered by tag id.
+     *
+     * @return one row per link between a post and a tag.
+     */
+    @Query("select p.id as postId, t.id as id, t.version as version, t.name as name"
+            + " from Post p join p.tags t order by t.id")
+    List<TagLink> findAllTagLinks();
+
+    /**
+     * A tag of a post, as read for the post's list of tags.
+     */
+    interface TagLink {
+        Long getPostId();
+
+        Long getId();
+
+        Long getVersion();
+
+        String getName();
+    }
 }
@@ -1,9 +1,22 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.TagDTO;
 import org.example.entity.Tag;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for managing {@link Tag} entities.
  * <p>
@@ -13,4 +26,100 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Retrieves all {@link Tag} entities through the query cache.
+     * <p>
+     * The cached result holds only ids, which are resolved from the tag region of the
+     * second-level cache; any write to the tag table invalidates it.
+     * </p>
+     *
+     * @return all tags.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Tag> findAll();
+
+    /**
+     * Returns the version stamp of the tag list: the number of tags, the sum of their versions, the sum
+     * of their ids and the highest id, separated by dots. Any update raises the version sum and any
+     * insert or delete changes the count or the id sum, including a delete followed by an insert: new
+     * ids are unique but not always higher, as each node draws them from its own block of the pooled
+     * sequence. The result goes through the query cache like {@link #findAll()}.
+     *
+     * @return the stamp of all tags.
+     */
+    @Query("select concat(cast(count(t) as String), '.', cast(coalesce(sum(t.version), 0) as String), '.',"
+            + " cast(coalesce(sum(t.id), 0) as String), '.', cast(coalesce(max(t.id), 0) as String)) from Tag t")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    String findVersionStamp();
+
+    /**
+     * Renames a {@link Tag} and raises its version in a single statement, provided its current version is one
+     * of the given ones. A null name leaves the name unchanged.
+     *
+     * @param id       the id of the tag.
+     * @param name     the new name, or null.
+     * @param versions the versions the caller expects; must not be empty.
+     * @return 1 if the tag was updated, 0 if it does not exist or is in another version.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Tag t set t.name = coalesce(:name, t.name), t.version = t.version + 1"
+            + " where t.id = :id and t.version in :versions")
+    int updateIfVersionIn(@Param("id") Long id, @Param("name") String name,
+                          @Param("versions") Collection<Long> versions);
+
+    /**
+     * Deletes a {@link Tag} by a single statement, without loading it. Its post links must be deleted first.
+     *
+     * @param id the id of the tag.
+     * @return the number of deleted tags, 0 if it does not exist.
+     */
+    @Modifying
+    @Query("delete from Tag t where t.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    /**
+     * Deletes the links of a {@link Tag} to its posts. Only the cached post-tag collections are invalidated.
+     *
+     * @param tagId the id of the tag.
+     * @return the number of deleted links.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM post_tag WHERE tag_id = :tagId", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_tag"))
+    int deleteTagLinksByTagId(@Param("tagId") Long tagId);
+
+    /**
+     * Reads all tags as {@link TagDTO}s through the query cache, selecting only their columns.
+     * <p>
+     * No entity is instantiated, so the rows are neither registered in the persistence context nor
+     * dirty-checked on flush.
+     * </p>
+     *
+     * @return all tags, ordered by id.
+     */
+    @Query("select new org.example.dto.TagDTO(t.id, t.version, t.name) from Tag t order by t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TagDTO> findAllDtos();
+
+    /**
+     * Reads the keyset page of tags that follows the given id as {@link TagDTO}s, ordered by id.
+     *
+     * @param id    the id of the last row of the previous page.
+     * @param limit the maximum number of rows to return.
+     * @return the tags with an id greater than {@code id}.
+     */
+    @Query("select new org.example.dto.TagDTO(t.id, t.version, t.name) from Tag t where t.id > :id order by t.id")
+    List<TagDTO> findDtosAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Reads a page of tags as {@link TagDTO}s.
+     *
+     * @param pageable the page to retrieve.
+     * @return the requested page of tags.
+     */
+    @Query(value = "select new org.example.dto.TagDTO(t.id, t.version, t.name) from Tag t",
+            countQuery = "select count(t) from Tag t")
+    Page<TagDTO> findDtos(Pageable pageable);
 }
@@ -0,0 +1,136 @@
+package org.example.service;
+
+import org.example.cache.CacheRegistry;
+import org.example.dto.DeletionReportDTO;
+import org.example.repository.AuthorRepository;
+import org.example.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes Authors with many Posts in the background, in chunked transactions.
+ * <p>
+ * Each chunk deletes the tag links and the Posts of up to {@code delete.chunk-size} Post IDs by
+ * set-based statements and commits, so no transaction holds locks on all Posts of the Author and
+ * nothing is loaded into the persistence context. Readers may see the Author with part of the
+ * Posts until the last transaction deletes the Author itself. Deletions run one after another on
+ * {@code delete.background-threads} threads; at most {@code delete.background-queue} more wait.
+ * </p>
+ */
+@Component
+public class AuthorDeleter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorDeleter.class);
+
+    static final int DEFAULT_CHUNK_SIZE = 1_000;
+    static final int DEFAULT_THREADS = 1;
+    static final int DEFAULT_QUEUE = 100;
+
+    private final AuthorRepository authorRepository;
+    private final PostRepository postRepository;
+    private final CacheRegistry cacheRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int chunkSize;
+
+    /**
+     * Constructor for AuthorDeleter.
+     *
+     * @param authorRepository   Repository for Author entities.
+     * @param postRepository     Repository for Post entities.
+     * @param cacheRegistry      Caches of Author, Post and Tag DTOs.
+     * @param transactionManager Transaction manager used to run one transaction per chunk.
+     * @param env                Environment providing the chunk size and the executor bounds.
+     */
+    public AuthorDeleter(AuthorRepository authorRepository, PostRepository postRepository, CacheRegistry cacheRegistry,
+                         PlatformTransactionManager transactionManager, Environment env) {
+        this.authorRepository = authorRepository;
+        this.postRepository = postRepository;
+        this.cacheRegistry = cacheRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = env.getProperty("delete.chunk-size", Integer.class, DEFAULT_CHUNK_SIZE);
+        int threads = env.getProperty("delete.background-threads", Integer.class, DEFAULT_THREADS);
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("author-delete-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(env.getProperty("delete.background-queue", Integer.class, DEFAULT_QUEUE));
+        executor.initialize();
+    }
+
+    /**
+     * Schedules the deletion of an Author with their Posts and the Posts' links to Tags.
+     *
+     * @param authorId ID of the Author to be deleted.
+     * @return the report of the deletion, completed once the Author is gone.
+     * @throws org.springframework.core.task.TaskRejectedException if too many deletions are waiting.
+     */
+    public CompletableFuture<DeletionReportDTO> deleteInBackground(Long authorId) {
+        return CompletableFuture.supplyAsync(() -> deleteInChunks(authorId), executor)
+                .whenComplete((report, e) -> {
+                    if (e != null) {
+                        logger.error("DELETE_USER {} failed in background", authorId, e);
+                    } else {
+                        logger.info("DELETE_USER {} in background {}", authorId, report);
+                    }
+                });
+    }
+
+    DeletionReportDTO deleteInChunks(Long authorId) {
+        long start = System.nanoTime();
+        long tagLinks = 0;
+        long posts = 0;
+        int chunks = 0;
+        while (true) {
+            long[] deleted = transactionTemplate.execute(status -> deleteChunk(authorId));
+            if (deleted == null) {
+                break;
+            }
+            tagLinks += deleted[0];
+            posts += deleted[1];
+            chunks++;
+        }
+        long[] deleted = transactionTemplate.execute(status -> {
+            long links = postRepository.deleteTagLinksByAuthorId(authorId);
+            long late = postRepository.bulkDeleteByAuthorId(authorId);
+            long authors = authorRepository.bulkDeleteById(authorId);
+            cacheRegistry.users().evictAfterCommit(authorId);
+            cacheRegistry.posts().clearAfterCommit();
+            return new long[]{links, late, authors};
+        });
+        return new DeletionReportDTO(authorId, tagLinks + deleted[0], posts + deleted[1], deleted[2], chunks + 1,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private long[] deleteChunk(Long authorId) {
+        List<Long> ids = postRepository.findIdsByAuthorId(authorId, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        long links = postRepository.deleteTagLinksByPostIdIn(ids);
+        long posts = postRepository.bulkDeleteByIdIn(ids);
+        ids.forEach(cacheRegistry.posts()::evictAfterCommit);
+        cacheRegistry.users().evictAfterCommit(authorId);
+        return new long[]{links, posts};
+    }
+
+    /**
+     * Stops accepting deletions and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.shutdown();
+    }
+}
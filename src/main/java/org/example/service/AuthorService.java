@@ -1,16 +1,35 @@
 package org.example.service;
 
+import org.example.cache.CacheRegistry;
 import org.example.dto.AuthorDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.DeletionReportDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.example.dto.PostSummaryDTO;
 import org.example.entity.Author;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.UserNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.logging.RequestLog;
 import org.example.mapper.AuthorMapper;
 import org.example.repository.AuthorRepository;
+import org.example.repository.PostRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -21,97 +40,276 @@ import java.util.stream.Collectors;
 public class AuthorService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
+    private static final RequestLog requestLog = RequestLog.getLog(AuthorService.class);
 
     private final AuthorRepository authorRepository;
+    private final PostRepository postRepository;
     private final AuthorMapper authorMapper;
+    private final BatchPersister batchPersister;
+    private final CacheRegistry cacheRegistry;
+    private final AuthorDeleter authorDeleter;
 
     /**
      * Constructor for AuthorService.
      *
      * @param authorRepository Repository for Author entities.
+     * @param postRepository   Repository used to delete the Posts of an Author.
      * @param authorMapper     Mapper to convert between Author entities and DTOs.
+     * @param batchPersister   Persister used to save Authors in chunked transactions.
+     * @param cacheRegistry    Caches of Author, Post and Tag DTOs.
+     * @param authorDeleter    Deleter of Authors with many Posts in the background.
      */
-    public AuthorService(AuthorRepository authorRepository, AuthorMapper authorMapper) {
+    public AuthorService(AuthorRepository authorRepository, PostRepository postRepository, AuthorMapper authorMapper,
+                         BatchPersister batchPersister, CacheRegistry cacheRegistry, AuthorDeleter authorDeleter) {
         logger.info("AuthorService");
         this.authorRepository = authorRepository;
+        this.postRepository = postRepository;
         this.authorMapper = authorMapper;
+        this.batchPersister = batchPersister;
+        this.cacheRegistry = cacheRegistry;
+        this.authorDeleter = authorDeleter;
     }
 
     /**
-     * Retrieves an Author by their ID.
+     * Retrieves an Author by their ID, from the cache when possible.
      *
      * @param id ID of the Author to be retrieved.
      * @return The AuthorDTO representing the Author.
      * @throws UserNotFoundException if the Author is not found.
      */
     public AuthorDTO getUserById(Long id) {
-        logger.info("SERVICE - getUserById");
+        requestLog.info("SERVICE - getUserById", "id", id);
+        return cacheRegistry.users().get(id, this::loadUser);
+    }
+
+    private AuthorDTO loadUser(Long id) {
         Author author = authorRepository.findById(id).orElseThrow(() ->
                 new UserNotFoundException(String.format("User with id %s not found", id)));
         return authorMapper.toDTO(author);
     }
 
+    /**
+     * Returns the current entity tag of an Author, from the cache when possible and otherwise from a
+     * version-only query, without loading the Author.
+     *
+     * @param id ID of the Author.
+     * @return The entity tag, or empty if the Author does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getUserETag(Long id) {
+        AuthorDTO cached = cacheRegistry.users().getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(ETags.of(cached));
+        }
+        return authorRepository.findVersionStampById(id).map(ETags::quote);
+    }
+
     /**
      * Retrieves all Authors.
+     * <p>
+     * Authors and their Post summaries are read as projections by two queries in a read-only
+     * transaction, so no entity is loaded into the persistence context.
+     * </p>
      *
      * @return List of AuthorDTOs representing all Authors.
      * @throws UserNotFoundException if the list of Authors is empty.
      */
+    @Transactional(readOnly = true)
     public List<AuthorDTO> getAllUsers() {
-        List<AuthorDTO> authorDTOList = authorRepository.findAll().stream()
-                .map(authorMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AuthorDTO> authorDTOList = authorRepository.findAllDtos();
         if (authorDTOList.isEmpty()) {
             throw new UserNotFoundException("List is empty");
         }
-        return authorDTOList;
+        return attachPosts(authorDTOList, authorRepository.findAllPostSummaries());
+    }
+
+    /**
+     * Retrieves a keyset page of Authors ordered by id.
+     *
+     * @param after ID of the last Author of the previous page, or null for the first page.
+     * @param limit Maximum number of Authors to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of AuthorDTOs with the cursor of the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AuthorDTO> getUsersPage(Long after, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<AuthorDTO> authors = authorRepository.findDtosAfter(
+                Pagination.startAfter(after), Pagination.probe(pageSize));
+        CursorPageDTO<AuthorDTO> result = Pagination.cursorPage(
+                authors, pageSize, AuthorDTO::getId, Function.identity());
+        withPosts(result.getItems());
+        return result;
+    }
+
+    /**
+     * Retrieves an offset page of Authors ordered by id, intended for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size, capped at {@link Pagination#MAX_PAGE_SIZE}.
+     * @return Page of AuthorDTOs with the total number of Authors.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<AuthorDTO> getUsersOffsetPage(int page, int size) {
+        PageDTO<AuthorDTO> result = Pagination.page(
+                authorRepository.findDtos(Pagination.offsetPage(page, size)), Function.identity());
+        withPosts(result.getItems());
+        return result;
+    }
+
+    private void withPosts(List<AuthorDTO> authors) {
+        if (!authors.isEmpty()) {
+            attachPosts(authors, authorRepository.findPostSummariesByAuthorIdIn(
+                    authors.stream().map(AuthorDTO::getId).collect(Collectors.toList())));
+        }
+    }
+
+    private static List<AuthorDTO> attachPosts(List<AuthorDTO> authors, List<AuthorRepository.AuthorPost> posts) {
+        Map<Long, AuthorDTO> byId = new HashMap<>();
+        for (AuthorDTO author : authors) {
+            author.setPosts(new ArrayList<>());
+            byId.put(author.getId(), author);
+        }
+        for (AuthorRepository.AuthorPost post : posts) {
+            AuthorDTO author = byId.get(post.getAuthorId());
+            if (author != null) {
+                author.getPosts().add(new PostSummaryDTO(post.getId(), post.getVersion(), post.getTitle()));
+            }
+        }
+        return authors;
     }
 
     /**
-     * Creates a new Author.
+     * Creates a new Author. The ID in the request is ignored.
      *
      * @param authorDTO Data Transfer Object representing the Author to be created.
      * @throws IllegalArgumentException if any required fields in the AuthorDTO are null.
      */
     public void createUser(AuthorDTO authorDTO) {
+        authorRepository.save(toNewAuthor(authorDTO));
+    }
+
+    /**
+     * Creates many Authors at once.
+     * <p>
+     * Every Author is validated like in {@link #createUser(AuthorDTO)}; valid Authors are saved in chunked
+     * transactions and invalid ones are reported without failing the rest. IDs in the request are ignored.
+     * </p>
+     *
+     * @param authorDTOs Data Transfer Objects representing the Authors to be created.
+     * @return The outcome of every Author, in request order.
+     * @throws BatchTooLargeException if the request holds more Authors than allowed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO createUsers(List<AuthorDTO> authorDTOs) {
+        BatchResultDTO result = batchPersister.persist(authorDTOs, this::toNewAuthor, authorRepository, Author::getId);
+        requestLog.info("CREATE_USERS", "created", result.getCreated(), "failed", result.getFailed());
+        return result;
+    }
+
+    private Author toNewAuthor(AuthorDTO authorDTO) {
         Author author = authorMapper.toEntity(authorDTO);
+        validate(author);
+        author.setId(null);
+        return author;
+    }
+
+    private static void validate(Author author) {
         if (author.getEmail() == null || author.getName() == null) {
             throw new IllegalArgumentException("User fields cannot be empty");
         }
-        authorRepository.save(author);
     }
 
     /**
-     * Updates an existing Author.
+     * Updates an existing Author, expecting the version given in the request, if any.
      *
      * @param id        ID of the Author to be updated.
      * @param authorDTO Data Transfer Object containing updated Author data.
-     * @throws UserNotFoundException if the Author with the specified ID is not found.
+     * @throws UserNotFoundException    if the Author with the specified ID is not found.
+     * @throws VersionConflictException if the Author is no longer in the version given in the request.
      */
     public void updateUser(long id, AuthorDTO authorDTO) {
-        Author author = authorRepository.findById(id).orElseThrow(() -> new UserNotFoundException(
-                String.format("User with id '%s' not found", id))
-        );
-        if (authorDTO.getName() != null) {
-            author.setName(authorDTO.getName());
+        updateUser(id, authorDTO, authorDTO.getVersion() == null ? null : List.of(authorDTO.getVersion()));
+    }
+
+    /**
+     * Updates an existing Author.
+     * <p>
+     * When versions are expected, the Author is updated by a single conditional statement without being read.
+     * Otherwise it is read and written back, and a concurrent write is detected by its version on flush.
+     * </p>
+     *
+     * @param id               ID of the Author to be updated.
+     * @param authorDTO        Data Transfer Object containing updated Author data.
+     * @param expectedVersions Versions the Author may be in, or null to update any version.
+     * @throws UserNotFoundException    if the Author with the specified ID is not found.
+     * @throws VersionConflictException if the Author is in none of the expected versions.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the Author is modified concurrently.
+     */
+    public void updateUser(long id, AuthorDTO authorDTO, Collection<Long> expectedVersions) {
+        if (expectedVersions != null) {
+            if (expectedVersions.isEmpty() || authorRepository.updateIfVersionIn(
+                    id, authorDTO.getName(), authorDTO.getEmail(), expectedVersions) == 0) {
+                if (!authorRepository.existsById(id)) {
+                    throw new UserNotFoundException(String.format("User with id '%s' not found", id));
+                }
+                throw new VersionConflictException(String.format("User with id '%s' has been modified", id));
+            }
+        } else {
+            Author author = authorRepository.findById(id).orElseThrow(() -> new UserNotFoundException(
+                    String.format("User with id '%s' not found", id))
+            );
+            if (authorDTO.getName() != null) {
+                author.setName(authorDTO.getName());
+            }
+            if (authorDTO.getEmail() != null) {
+                author.setEmail(authorDTO.getEmail());
+            }
+            authorRepository.save(author);
         }
-        if (authorDTO.getEmail() != null) {
-            author.setEmail(authorDTO.getEmail());
+        cacheRegistry.users().evictAfterCommit(id);
+    }
+
+    /**
+     * Deletes an Author by their ID, together with their Posts and the Posts' links to Tags.
+     * <p>
+     * The links, the Posts and the Author are deleted in this order by one statement each, in one
+     * transaction, so no Author or Post is loaded however many Posts there are.
+     * </p>
+     *
+     * @param id ID of the Author to be deleted.
+     * @return The number of deleted rows per table and the time it took.
+     * @throws UserNotFoundException if the Author with the specified ID is not found.
+     */
+    public DeletionReportDTO deleteUser(Long id) {
+        long start = System.nanoTime();
+        int tagLinks = postRepository.deleteTagLinksByAuthorId(id);
+        int posts = postRepository.bulkDeleteByAuthorId(id);
+        if (authorRepository.bulkDeleteById(id) == 0) {
+            throw new UserNotFoundException(String.format("User with id '%s' not found", id));
         }
-        authorRepository.save(author);
+        cacheRegistry.users().evictAfterCommit(id);
+        cacheRegistry.posts().clearAfterCommit();
+        DeletionReportDTO report = new DeletionReportDTO(id, tagLinks, posts, 1, 1,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        requestLog.info("DELETE_USER", "id", id, "report", report);
+        return report;
     }
 
     /**
-     * Deletes an Author by their ID.
+     * Schedules the deletion of an Author by their ID, together with their Posts and the Posts' links
+     * to Tags, in chunked transactions.
      *
      * @param id ID of the Author to be deleted.
+     * @return The report of the deletion, completed once the Author is gone.
      * @throws UserNotFoundException if the Author with the specified ID is not found.
+     * @throws org.springframework.core.task.TaskRejectedException if too many deletions are waiting.
+     * @see AuthorDeleter
      */
-    public void deleteUser(Long id) {
-        if (authorRepository.findById(id).isPresent()) {
-            authorRepository.deleteById(id);
-        } else {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<DeletionReportDTO> deleteUserInBackground(Long id) {
+        if (!authorRepository.existsById(id)) {
             throw new UserNotFoundException(String.format("User with id '%s' not found", id));
         }
+        return authorDeleter.deleteInBackground(id);
     }
 }
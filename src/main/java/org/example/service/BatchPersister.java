@@ -0,0 +1,123 @@
+package org.example.service;
+
+import org.example.dto.BatchItemResultDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.exceptions.BatchTooLargeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Persists large lists of new entities in chunked transactions.
+ * <p>
+ * Each chunk is mapped, saved and flushed in its own transaction, so Hibernate sends the inserts as
+ * JDBC batches, the persistence context never holds more than one chunk and references created by
+ * the mapping function belong to the session that saves them. Items rejected by the
+ * mapping function are reported as invalid and skipped. If a chunk fails to commit, its items are
+ * retried one by one, so a single bad row only costs its own insert.
+ * </p>
+ */
+@Component
+public class BatchPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPersister.class);
+
+    static final int DEFAULT_CHUNK_SIZE = 500;
+    static final int DEFAULT_MAX_ITEMS = 10_000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    /**
+     * Constructor for BatchPersister.
+     *
+     * @param transactionManager Transaction manager used to run one transaction per chunk.
+     * @param env                Environment providing {@code batch.chunk-size} and {@code batch.max-items}.
+     */
+    public BatchPersister(PlatformTransactionManager transactionManager, Environment env) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = env.getProperty("batch.chunk-size", Integer.class, DEFAULT_CHUNK_SIZE);
+        this.maxItems = env.getProperty("batch.max-items", Integer.class, DEFAULT_MAX_ITEMS);
+    }
+
+    /**
+     * Converts and persists the given items.
+     *
+     * @param items      Items to persist, in request order.
+     * @param toEntity   Maps an item to a new entity; throws IllegalArgumentException if the item is invalid.
+     * @param repository Repository used to save the entities.
+     * @param idOf       Reads the generated ID of a saved entity.
+     * @return The result of every item, in request order.
+     * @throws BatchTooLargeException if there are more items than {@code batch.max-items}.
+     */
+    public <D, E> BatchResultDTO persist(List<D> items, Function<D, E> toEntity,
+                                         JpaRepository<E, Long> repository, Function<E, Long> idOf) {
+        if (items.size() > maxItems) {
+            throw new BatchTooLargeException(
+                    String.format("Batch of %s items exceeds the limit of %s", items.size(), maxItems));
+        }
+        BatchItemResultDTO[] results = new BatchItemResultDTO[items.size()];
+        int next = 0;
+        while (next < items.size()) {
+            next = persistChunk(items, next, toEntity, repository, idOf, results);
+        }
+        return new BatchResultDTO(Arrays.asList(results));
+    }
+
+    private <D, E> int persistChunk(List<D> items, int from, Function<D, E> toEntity,
+                                    JpaRepository<E, Long> repository, Function<E, Long> idOf,
+                                    BatchItemResultDTO[] results) {
+        List<Integer> indexes = new ArrayList<>(chunkSize);
+        List<E> entities = new ArrayList<>(chunkSize);
+        int[] next = {from};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                while (next[0] < items.size() && entities.size() < chunkSize) {
+                    int index = next[0]++;
+                    try {
+                        entities.add(toEntity.apply(items.get(index)));
+                        indexes.add(index);
+                    } catch (IllegalArgumentException e) {
+                        results[index] = BatchItemResultDTO.invalid(index, e.getMessage());
+                    }
+                }
+                if (!entities.isEmpty()) {
+                    repository.saveAll(entities);
+                    repository.flush();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("BATCH chunk of {} items failed, retrying one by one", entities.size(), e);
+            for (int index : indexes) {
+                results[index] = persistOne(index, items.get(index), toEntity, repository, idOf);
+            }
+            return next[0];
+        }
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = BatchItemResultDTO.created(index, idOf.apply(entities.get(i)));
+        }
+        return next[0];
+    }
+
+    private <D, E> BatchItemResultDTO persistOne(int index, D item, Function<D, E> toEntity,
+                                                 JpaRepository<E, Long> repository, Function<E, Long> idOf) {
+        try {
+            Long id = transactionTemplate.execute(status -> idOf.apply(repository.saveAndFlush(toEntity.apply(item))));
+            return BatchItemResultDTO.created(index, id);
+        } catch (RuntimeException e) {
+            logger.error("BATCH item {} failed", index, e);
+            return BatchItemResultDTO.failed(index, "Item could not be saved");
+        }
+    }
+}
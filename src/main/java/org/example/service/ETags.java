@@ -0,0 +1,170 @@
+package org.example.service;
+
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.PostSummaryDTO;
+import org.example.dto.TagDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Strong entity tags of the Author, Post and Tag representations.
+ * <p>
+ * A tag is a version stamp in quotes. Stamps are built from the {@code @Version} columns of the entity
+ * and from the versions and IDs of the entities embedded in its representation, so they can be
+ * computed both from a DTO and by the version-only queries of the repositories, which must produce
+ * the same string.
+ * </p>
+ * <p>
+ * The CBOR converter appends {@code -cbor} to the tag of a CBOR response, and the compression filter
+ * appends the content coding to the tag of a compressed response, as in {@code "3.1-cbor-gzip"}. Tags
+ * received from clients are compared without these suffixes, as they name the same version of the entity
+ * whatever the representation it was sent in. Stamps never contain a dash, so the suffixes start at the
+ * first one.
+ * </p>
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the entity tag of a Post: its version, the number of its Tags, the sum of their versions,
+     * the sum of their IDs and the highest ID, so that swapping one Tag for another changes it.
+     *
+     * @param postDTO the Post.
+     * @return the quoted entity tag.
+     */
+    public static String of(PostDTO postDTO) {
+        List<TagDTO> tags = postDTO.getTags() == null ? List.of() : postDTO.getTags();
+        return quote(version(postDTO.getVersion()) + "." + tags.size() + "." + sum(tags, TagDTO::getVersion)
+                + "." + identity(tags, TagDTO::getId));
+    }
+
+    /**
+     * Returns the entity tag of an Author: its version, the number of its Posts, the sum of their versions,
+     * the sum of their IDs and the highest ID, so that deleting a Post and creating another changes it.
+     *
+     * @param authorDTO the Author.
+     * @return the quoted entity tag.
+     */
+    public static String of(AuthorDTO authorDTO) {
+        List<PostSummaryDTO> posts = authorDTO.getPosts() == null ? List.of() : authorDTO.getPosts();
+        return quote(version(authorDTO.getVersion()) + "." + posts.size() + "." + sum(posts, PostSummaryDTO::getVersion)
+                + "." + identity(posts, PostSummaryDTO::getId));
+    }
+
+    /**
+     * Returns the entity tag of a Tag: its version.
+     *
+     * @param tagDTO the Tag.
+     * @return the quoted entity tag.
+     */
+    public static String of(TagDTO tagDTO) {
+        return quote(String.valueOf(version(tagDTO.getVersion())));
+    }
+
+    /**
+     * Returns the entity tag of a list of all Tags: their number, the sum of their versions, the sum of
+     * their IDs and the highest ID, so that deleting a Tag and creating another changes it.
+     *
+     * @param tags all Tags.
+     * @return the quoted entity tag.
+     */
+    public static String ofTags(List<TagDTO> tags) {
+        return quote(tags.size() + "." + sum(tags, TagDTO::getVersion) + "." + identity(tags, TagDTO::getId));
+    }
+
+    /**
+     * Wraps a version stamp read from the database into an entity tag.
+     *
+     * @param stamp the version stamp.
+     * @return the quoted entity tag.
+     */
+    public static String quote(String stamp) {
+        return "\"" + stamp + "\"";
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header matches the current entity tag, using the weak
+     * comparison that RFC 9110 prescribes for this header.
+     *
+     * @param ifNoneMatch the header value, a list of entity tags or {@code *}; may be null.
+     * @param etag        the current entity tag.
+     * @return true if the client's representation is current.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripSuffixes(stripWeak(tag)).equals(stripSuffixes(stripWeak(etag)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the entity versions named by an {@code If-Match} header. The version is the leading
+     * component of the stamp of a Post, an Author or a Tag. Weak tags are skipped, as RFC 9110
+     * requires the strong comparison for this header, and so are tags that are not version stamps.
+     *
+     * @param ifMatch the header value, a list of entity tags or {@code *}.
+     * @return the versions the client expects, possibly none, or null for {@code *}.
+     */
+    public static List<Long> versions(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            tag = stripSuffixes(tag);
+            String stamp = tag.substring(1, tag.length() - 1);
+            int dot = stamp.indexOf('.');
+            try {
+                versions.add(Long.parseLong(dot < 0 ? stamp : stamp.substring(0, dot)));
+            } catch (NumberFormatException e) {
+                // not one of our tags; it can never match
+            }
+        }
+        return versions;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String stripSuffixes(String tag) {
+        int dash = tag.indexOf('-');
+        return dash < 0 || !tag.endsWith("\"") ? tag : tag.substring(0, dash) + "\"";
+    }
+
+    private static long version(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    private static <T> long sum(List<T> items, Function<T, Long> versionOf) {
+        return items.stream().mapToLong(item -> version(versionOf.apply(item))).sum();
+    }
+
+    private static <T> String identity(List<T> items, Function<T, Long> idOf) {
+        long sum = 0L;
+        long max = 0L;
+        for (T item : items) {
+            Long id = idOf.apply(item);
+            if (id != null) {
+                sum += id;
+                max = Math.max(max, id);
+            }
+        }
+        return sum + "." + max;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.service;
+
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Limits and helpers shared by the paginated listing operations of the services.
+ * <p>
+ * Keyset pages are read with one extra row so that the presence of a following page
+ * is known without a count query; the cursor is the id of the last returned row.
+ * </p>
+ */
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private Pagination() {
+    }
+
+    /**
+     * Returns the id keyset pages start after; a missing cursor means the first page.
+     *
+     * @param after the id of the last row of the previous page, may be null.
+     * @return the exclusive lower bound for the next page.
+     */
+    public static long startAfter(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Clamps a requested keyset page size to {@code [1, MAX_LIMIT]}.
+     *
+     * @param limit the requested number of rows.
+     * @return the number of rows that will be returned at most.
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Returns the {@link Limit} to query for a keyset page: one row more than requested.
+     *
+     * @param limit the clamped page size.
+     * @return the limit to pass to the repository.
+     */
+    public static Limit probe(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    /**
+     * Builds the {@link Pageable} for an offset page ordered by id, with the page size capped at
+     * {@code MAX_PAGE_SIZE}.
+     *
+     * @param page the zero-based page number.
+     * @param size the requested page size.
+     * @return the page request.
+     */
+    public static Pageable offsetPage(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("id"));
+    }
+
+    /**
+     * Converts the rows read for a keyset page into a {@link CursorPageDTO}.
+     *
+     * @param rows   the rows read with {@link #probe(int)}.
+     * @param limit  the clamped page size.
+     * @param idOf   extracts the keyset id from a row.
+     * @param mapper maps a row to its DTO.
+     * @param <E>    the row type.
+     * @param <D>    the DTO type.
+     * @return the page with a next cursor if more rows follow.
+     */
+    public static <E, D> CursorPageDTO<D> cursorPage(List<E> rows, int limit, Function<E, Long> idOf,
+                                                     Function<E, D> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        List<D> items = pageRows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? String.valueOf(idOf.apply(pageRows.get(limit - 1))) : null;
+        return new CursorPageDTO<>(items, nextCursor, limit);
+    }
+
+    /**
+     * Converts a Spring Data {@link Page} into a {@link PageDTO}.
+     *
+     * @param page   the page read from the repository.
+     * @param mapper maps a row to its DTO.
+     * @param <E>    the row type.
+     * @param <D>    the DTO type.
+     * @return the page DTO.
+     */
+    public static <E, D> PageDTO<D> page(Page<E> page, Function<E, D> mapper) {
+        List<D> items = page.getContent().stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new PageDTO<>(items, page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+}
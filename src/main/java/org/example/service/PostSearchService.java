@@ -0,0 +1,112 @@
+package org.example.service;
+
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PostDTO;
+import org.example.entity.Post;
+import org.example.logging.RequestLog;
+import org.example.mapper.PostMapper;
+import org.example.repository.PostRepository;
+import org.example.repository.PostRepository.SearchHit;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for searching Posts by title and content.
+ * <p>
+ * On PostgreSQL the search runs on the GIN-indexed {@code post.search_vector} column; elsewhere it
+ * falls back to a case-insensitive substring match. The mode is set by {@code search.full-text},
+ * which defaults to true when {@code jdbc.driver} is the PostgreSQL driver.
+ * </p>
+ * <p>
+ * Results are ranked and keyset-paginated: the cursor {@code <rank>:<id>} identifies the last hit
+ * of the previous page.
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class PostSearchService {
+
+    private static final RequestLog requestLog = RequestLog.getLog(PostSearchService.class);
+
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final boolean fullText;
+
+    /**
+     * Constructor for PostSearchService.
+     *
+     * @param postRepository Repository for Post entities.
+     * @param postMapper     Mapper to convert between Post entities and DTOs.
+     * @param env            Environment selecting the search mode.
+     */
+    public PostSearchService(PostRepository postRepository, PostMapper postMapper, Environment env) {
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        boolean postgres = env.getProperty("jdbc.driver", "org.postgresql.Driver").contains("postgresql");
+        this.fullText = env.getProperty("search.full-text", Boolean.class, postgres);
+    }
+
+    /**
+     * Searches Posts whose title or content match the query, best matches first.
+     *
+     * @param query  The search terms.
+     * @param cursor The cursor of the previous page, or null for the first page.
+     * @param limit  Maximum number of Posts to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of matching PostDTOs with the cursor of the next page, if any.
+     * @throws IllegalArgumentException if the query is blank or the cursor is malformed.
+     */
+    public CursorPageDTO<PostDTO> searchPosts(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int pageSize = Pagination.clampLimit(limit);
+        double afterRank = Double.MAX_VALUE;
+        long afterId = 0L;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf(':');
+            try {
+                afterRank = Double.parseDouble(cursor.substring(0, separator));
+                afterId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed search cursor: " + cursor);
+            }
+        }
+        requestLog.info("SERVICE - searchPosts", "fullText", fullText);
+        List<SearchHit> hits = fullText
+                ? postRepository.searchFullText(query.trim(), afterRank, afterId, pageSize + 1)
+                : postRepository.searchByPattern(likePattern(query), afterRank, afterId, Pagination.probe(pageSize));
+
+        boolean hasMore = hits.size() > pageSize;
+        List<SearchHit> pageHits = hasMore ? hits.subList(0, pageSize) : hits;
+        Map<Long, Post> posts = postRepository.findByIdIn(pageHits.stream().map(SearchHit::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDTO> items = pageHits.stream()
+                .map(hit -> posts.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(postMapper::toDTO)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            SearchHit last = pageHits.get(pageSize - 1);
+            nextCursor = last.getRank() + ":" + last.getId();
+        }
+        return new CursorPageDTO<>(items, nextCursor, pageSize);
+    }
+
+    private static String likePattern(String query) {
+        String escaped = query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
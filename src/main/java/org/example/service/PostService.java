@@ -1,17 +1,38 @@
 package org.example.service;
 
+import jakarta.persistence.EntityManager;
+import org.example.cache.CacheRegistry;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
 import org.example.dto.PostDTO;
+import org.example.dto.TagDTO;
+import org.example.entity.Author;
 import org.example.entity.Post;
+import org.example.entity.Tag;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.PostNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.logging.RequestLog;
 import org.example.mapper.PostMapper;
 import org.example.repository.PostRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for handling operations related to Posts.
@@ -22,98 +43,349 @@ import java.util.stream.Collectors;
 @Transactional
 public class PostService {
 
-    private static final Logger logger = LoggerFactory.getLogger(PostService.class);
+    private static final RequestLog requestLog = RequestLog.getLog(PostService.class);
+
+    static final int EXPORT_CHUNK_SIZE = 1000;
 
     private final PostRepository postRepository;
     private final PostMapper postMapper;
+    private final EntityManager entityManager;
+    private final BatchPersister batchPersister;
+    private final CacheRegistry cacheRegistry;
 
     /**
      * Constructor for PostService.
      *
      * @param postRepository Repository for Post entities.
      * @param postMapper     Mapper to convert between Post entities and DTOs.
+     * @param entityManager  Shared EntityManager providing references to Authors and Tags.
+     * @param batchPersister Persister used to save Posts in chunked transactions.
+     * @param cacheRegistry  Caches of Author, Post and Tag DTOs.
      */
-    public PostService(PostRepository postRepository, PostMapper postMapper) {
+    public PostService(PostRepository postRepository, PostMapper postMapper, EntityManager entityManager,
+                       BatchPersister batchPersister, CacheRegistry cacheRegistry) {
         this.postRepository = postRepository;
         this.postMapper = postMapper;
+        this.entityManager = entityManager;
+        this.batchPersister = batchPersister;
+        this.cacheRegistry = cacheRegistry;
     }
 
     /**
-     * Retrieves a Post by its ID.
+     * Retrieves a Post by its ID, from the cache when possible.
      *
      * @param id ID of the Post to be retrieved.
      * @return The PostDTO representing the Post.
      * @throws PostNotFoundException if the Post is not found.
      */
     public PostDTO getPostById(Long id) {
-        logger.info(" SERVICE - getPostById");
-        Post post = postRepository.findById(id).orElseThrow(() ->
+        requestLog.info("SERVICE - getPostById", "id", id);
+        return cacheRegistry.posts().get(id, this::loadPost);
+    }
+
+    private PostDTO loadPost(Long id) {
+        Post post = postRepository.findWithAuthorById(id).orElseThrow(() ->
                 new PostNotFoundException(String.format("Post with id %s not found", id)));
         return postMapper.toDTO(post);
     }
 
+    /**
+     * Returns the current entity tag of a Post, from the cache when possible and otherwise from a
+     * version-only query, without loading the Post.
+     *
+     * @param id ID of the Post.
+     * @return The entity tag, or empty if the Post does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getPostETag(Long id) {
+        PostDTO cached = cacheRegistry.posts().getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(ETags.of(cached));
+        }
+        return postRepository.findVersionStampById(id).map(ETags::quote);
+    }
+
     /**
      * Retrieves all Posts.
+     * <p>
+     * Posts and their Tags are read as projections by two queries in a read-only transaction, so no
+     * entity is loaded into the persistence context.
+     * </p>
      *
      * @return List of PostDTOs representing all Posts.
      * @throws PostNotFoundException if the list of Posts is empty.
      */
+    @Transactional(readOnly = true)
     public List<PostDTO> getAllPosts() {
-        List<PostDTO> postDTOList = postRepository.findAll().stream()
-                .map(postMapper::toDTO)
-                .collect(Collectors.toList());
+        List<PostDTO> postDTOList = postRepository.findAllDtos();
         if (postDTOList.isEmpty()) {
             throw new PostNotFoundException("List is empty");
         }
-        return postDTOList;
+        return attachTags(postDTOList, postRepository.findAllTagLinks());
+    }
+
+    /**
+     * Retrieves a keyset page of Posts ordered by id.
+     *
+     * @param after ID of the last Post of the previous page, or null for the first page.
+     * @param limit Maximum number of Posts to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of PostDTOs with the cursor of the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostDTO> getPostsPage(Long after, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<PostDTO> posts = postRepository.findDtosAfter(Pagination.startAfter(after), Pagination.probe(pageSize));
+        return withTags(Pagination.cursorPage(posts, pageSize, PostDTO::getId, Function.identity()));
+    }
+
+    /**
+     * Retrieves a keyset page of the Posts of a Tag, ordered by id.
+     *
+     * @param tagId ID of the Tag.
+     * @param after ID of the last Post of the previous page, or null for the first page.
+     * @param limit Maximum number of Posts to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of PostDTOs with the cursor of the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostDTO> getPostsByTag(Long tagId, Long after, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<PostDTO> posts = postRepository.findDtosByTagIdAfter(tagId, Pagination.startAfter(after),
+                Pagination.probe(pageSize));
+        return withTags(Pagination.cursorPage(posts, pageSize, PostDTO::getId, Function.identity()));
+    }
+
+    /**
+     * Retrieves a keyset page of the Posts tagged with any or all of the given Tag names, ordered by id.
+     *
+     * @param tagNames Names of the Tags; blank and duplicate names are ignored.
+     * @param matchAll Whether a Post must have every Tag rather than at least one.
+     * @param after    ID of the last Post of the previous page, or null for the first page.
+     * @param limit    Maximum number of Posts to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of PostDTOs with the cursor of the next page, if any.
+     * @throws IllegalArgumentException if no Tag name is given.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostDTO> getPostsByTags(List<String> tagNames, boolean matchAll, Long after, int limit) {
+        Set<String> names = tagNames.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag name is required");
+        }
+        int pageSize = Pagination.clampLimit(limit);
+        long startAfter = Pagination.startAfter(after);
+        List<PostDTO> posts = matchAll
+                ? postRepository.findDtosByAllTagNamesAfter(names, names.size(), startAfter, Pagination.probe(pageSize))
+                : postRepository.findDtosByAnyTagNameAfter(names, startAfter, Pagination.probe(pageSize));
+        return withTags(Pagination.cursorPage(posts, pageSize, PostDTO::getId, Function.identity()));
+    }
+
+    /**
+     * Retrieves an offset page of Posts ordered by id, intended for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size, capped at {@link Pagination#MAX_PAGE_SIZE}.
+     * @return Page of PostDTOs with the total number of Posts.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<PostDTO> getPostsOffsetPage(int page, int size) {
+        PageDTO<PostDTO> result = Pagination.page(
+                postRepository.findDtos(Pagination.offsetPage(page, size)), Function.identity());
+        withTags(result.getItems());
+        return result;
+    }
+
+    private CursorPageDTO<PostDTO> withTags(CursorPageDTO<PostDTO> page) {
+        withTags(page.getItems());
+        return page;
+    }
+
+    private void withTags(List<PostDTO> posts) {
+        if (!posts.isEmpty()) {
+            attachTags(posts, postRepository.findTagLinksByPostIdIn(
+                    posts.stream().map(PostDTO::getId).collect(Collectors.toList())));
+        }
+    }
+
+    private static List<PostDTO> attachTags(List<PostDTO> posts, List<PostRepository.TagLink> links) {
+        Map<Long, PostDTO> byId = new HashMap<>();
+        for (PostDTO post : posts) {
+            post.setTags(new ArrayList<>());
+            byId.put(post.getId(), post);
+        }
+        for (PostRepository.TagLink link : links) {
+            PostDTO post = byId.get(link.getPostId());
+            if (post != null) {
+                post.getTags().add(new TagDTO(link.getId(), link.getVersion(), link.getName()));
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Streams all Posts, ordered by ID, to the given consumer without materialising them in memory.
+     * <p>
+     * Posts are read as projections and handed over in chunks of {@value #EXPORT_CHUNK_SIZE}, the Tags
+     * of each chunk being read by one more query, so memory use and the number of queries per Post do
+     * not depend on the number of Posts.
+     * </p>
+     *
+     * @param consumer Receives each Post as a PostDTO, in ID order.
+     * @return The number of exported Posts.
+     */
+    @Transactional(readOnly = true)
+    public long exportPosts(Consumer<PostDTO> consumer) {
+        long count = 0;
+        List<PostDTO> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<PostDTO> posts = postRepository.streamAllDtos()) {
+            Iterator<PostDTO> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    count += export(chunk, consumer);
+                }
+            }
+        }
+        count += export(chunk, consumer);
+        requestLog.info("SERVICE - exportPosts", "exported", count);
+        return count;
+    }
+
+    private int export(List<PostDTO> chunk, Consumer<PostDTO> consumer) {
+        int size = chunk.size();
+        withTags(chunk);
+        chunk.forEach(consumer);
+        chunk.clear();
+        return size;
     }
 
     /**
-     * Creates a new Post.
+     * Creates a new Post. The ID in the request is ignored.
      *
      * @param postDTO Data Transfer Object representing the Post to be created.
      * @throws IllegalArgumentException if any required fields in the PostDTO are null.
      */
     public void createPost(PostDTO postDTO) {
+        Post post = toNewPost(postDTO);
+        requestLog.info("CREATE_POST", "post", postDTO);
+        postRepository.save(post);
+        evictAuthorAfterCommit(post);
+    }
+
+    /**
+     * Creates many Posts at once.
+     * <p>
+     * Every Post is validated like in {@link #createPost(PostDTO)}; valid Posts are saved in chunked
+     * transactions and invalid ones are reported without failing the rest. IDs in the request are ignored.
+     * </p>
+     *
+     * @param postDTOs Data Transfer Objects representing the Posts to be created.
+     * @return The outcome of every Post, in request order.
+     * @throws BatchTooLargeException if the request holds more Posts than allowed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO createPosts(List<PostDTO> postDTOs) {
+        BatchResultDTO result = batchPersister.persist(postDTOs, this::toNewPost, postRepository, Post::getId);
+        if (result.getCreated() > 0) {
+            cacheRegistry.users().clearAfterCommit();
+        }
+        requestLog.info("CREATE_POSTS", "created", result.getCreated(), "failed", result.getFailed());
+        return result;
+    }
+
+    private Post toNewPost(PostDTO postDTO) {
         Post post = postMapper.toEntity(postDTO);
-        logger.info("CREATE_POST {}", post);
+        validate(post);
+        post.setId(null);
+        if (post.getAuthor() != null && post.getAuthor().getId() != null) {
+            post.setAuthor(entityManager.getReference(Author.class, post.getAuthor().getId()));
+        }
+        if (post.getTags() != null) {
+            post.setTags(post.getTags().stream()
+                    .map(tag -> entityManager.getReference(Tag.class, tag.getId()))
+                    .collect(Collectors.toList()));
+        }
+        return post;
+    }
+
+    private static void validate(Post post) {
         if (post.getContent() == null || post.getTitle() == null) {
             throw new IllegalArgumentException("Post fields cannot be empty");
         }
-        postRepository.save(post);
     }
 
     /**
-     * Updates an existing Post.
+     * Updates an existing Post, expecting the version given in the request, if any.
      *
      * @param id      ID of the Post to be updated.
      * @param postDTO Data Transfer Object containing updated Post data.
-     * @throws PostNotFoundException if the Post with the specified ID is not found.
+     * @throws PostNotFoundException    if the Post with the specified ID is not found.
+     * @throws VersionConflictException if the Post is no longer in the version given in the request.
      */
     public void updatePost(long id, PostDTO postDTO) {
-        Post post = postRepository.findById(id).orElseThrow(() -> new PostNotFoundException(
-                String.format("Post with id '%s' not found", id))
-        );
-        if (postDTO.getContent() != null) {
-            post.setContent(postDTO.getContent());
-        }
-        if (postDTO.getTitle() != null) {
-            post.setTitle(postDTO.getTitle());
+        updatePost(id, postDTO, postDTO.getVersion() == null ? null : List.of(postDTO.getVersion()));
+    }
+
+    /**
+     * Updates an existing Post.
+     * <p>
+     * When versions are expected, the Post is updated by a single conditional statement without being read.
+     * Otherwise it is read and written back, and a concurrent write is detected by its version on flush.
+     * </p>
+     *
+     * @param id               ID of the Post to be updated.
+     * @param postDTO          Data Transfer Object containing updated Post data.
+     * @param expectedVersions Versions the Post may be in, or null to update any version.
+     * @throws PostNotFoundException    if the Post with the specified ID is not found.
+     * @throws VersionConflictException if the Post is in none of the expected versions.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the Post is modified concurrently.
+     */
+    public void updatePost(long id, PostDTO postDTO, Collection<Long> expectedVersions) {
+        if (expectedVersions != null) {
+            if (expectedVersions.isEmpty() || postRepository.updateIfVersionIn(
+                    id, postDTO.getTitle(), postDTO.getContent(), expectedVersions) == 0) {
+                if (!postRepository.existsById(id)) {
+                    throw new PostNotFoundException(String.format("Post with id '%s' not found", id));
+                }
+                throw new VersionConflictException(String.format("Post with id '%s' has been modified", id));
+            }
+            postRepository.findAuthorIdById(id).ifPresent(authorId -> cacheRegistry.users().evictAfterCommit(authorId));
+        } else {
+            Post post = postRepository.findById(id).orElseThrow(() -> new PostNotFoundException(
+                    String.format("Post with id '%s' not found", id))
+            );
+            if (postDTO.getContent() != null) {
+                post.setContent(postDTO.getContent());
+            }
+            if (postDTO.getTitle() != null) {
+                post.setTitle(postDTO.getTitle());
+            }
+            postRepository.save(post);
+            evictAuthorAfterCommit(post);
         }
-        postRepository.save(post);
+        cacheRegistry.posts().evictAfterCommit(id);
     }
 
     /**
-     * Deletes a Post by its ID.
+     * Deletes a Post by its ID, together with its links to Tags, without loading it.
      *
      * @param id ID of the Post to be deleted.
      * @throws PostNotFoundException if the Post with the specified ID is not found.
      */
     public void deletePost(Long id) {
-        if (postRepository.findById(id).isPresent()) {
-            postRepository.deleteById(id);
-        } else {
+        Optional<Long> authorId = postRepository.findAuthorIdById(id);
+        if (postRepository.bulkDeleteById(id) == 0) {
             throw new PostNotFoundException(String.format("Post with id '%s' not found", id));
         }
+        cacheRegistry.posts().evictAfterCommit(id);
+        authorId.ifPresent(cacheRegistry.users()::evictAfterCommit);
+    }
+
+    private void evictAuthorAfterCommit(Post post) {
+        Author author = post.getAuthor();
+        if (author != null) {
+            cacheRegistry.users().evictAfterCommit(author.getId());
+        }
     }
 }
@@ -1,15 +1,23 @@
 package org.example.service;
 
+import org.example.cache.CacheRegistry;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
 import org.example.dto.TagDTO;
 import org.example.entity.Tag;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.TagNotFoundException;
+import org.example.exceptions.VersionConflictException;
 import org.example.mapper.TagMapper;
 import org.example.repository.TagRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Service class responsible for handling operations related to Tags.
@@ -21,74 +29,187 @@ import java.util.stream.Collectors;
 public class TagService {
     private final TagMapper tagMapper;
     private final TagRepository tagRepository;
+    private final BatchPersister batchPersister;
+    private final CacheRegistry cacheRegistry;
 
     /**
      * Constructor for TagService.
      *
      * @param tagMapper     Mapper to convert between Tag entities and DTOs.
-     * @param tagRepository Repository for Tag entities.
+     * @param tagRepository  Repository for Tag entities.
+     * @param batchPersister Persister used to save Tags in chunked transactions.
+     * @param cacheRegistry  Caches of Author, Post and Tag DTOs.
      */
-    public TagService(TagMapper tagMapper, TagRepository tagRepository) {
+    public TagService(TagMapper tagMapper, TagRepository tagRepository, BatchPersister batchPersister,
+                      CacheRegistry cacheRegistry) {
         this.tagMapper = tagMapper;
         this.tagRepository = tagRepository;
+        this.batchPersister = batchPersister;
+        this.cacheRegistry = cacheRegistry;
     }
 
     /**
-     * Retrieves a TagDTO by its ID.
+     * Retrieves a TagDTO by its ID, from the cache when possible.
      *
      * @param id ID of the Tag to be retrieved.
      * @return The TagDTO object.
-     * @throws RuntimeException if the Tag is not found.
+     * @throws TagNotFoundException if the Tag is not found.
      */
     public TagDTO getTag(long id) {
-        Tag tag = tagRepository.findById(id).orElseThrow(() -> new RuntimeException("Tag not found"));
+        return cacheRegistry.tags().get(id, this::loadTag);
+    }
+
+    private TagDTO loadTag(Long id) {
+        Tag tag = tagRepository.findById(id).orElseThrow(() -> new TagNotFoundException("Tag not found"));
         return tagMapper.toDTO(tag);
     }
 
     /**
-     * Retrieves all Tags.
+     * Retrieves all Tags, read as projections through the query cache in a read-only transaction.
      *
      * @return List of TagDTOs representing all Tags.
      */
+    @Transactional(readOnly = true)
     public List<TagDTO> getAllTags() {
-        return tagRepository.findAll().stream()
-                .map(tagMapper::toDTO)
-                .collect(Collectors.toList());
+        return tagRepository.findAllDtos();
+    }
+
+    /**
+     * Returns the current entity tag of the list of all Tags, read through the query cache without
+     * loading any Tag.
+     *
+     * @return The entity tag.
+     */
+    @Transactional(readOnly = true)
+    public String getAllTagsETag() {
+        return ETags.quote(tagRepository.findVersionStamp());
+    }
+
+    /**
+     * Retrieves a keyset page of Tags ordered by id.
+     *
+     * @param after ID of the last Tag of the previous page, or null for the first page.
+     * @param limit Maximum number of Tags to return, capped at {@link Pagination#MAX_LIMIT}.
+     * @return Page of TagDTOs with the cursor of the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TagDTO> getTagsPage(Long after, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<TagDTO> tags = tagRepository.findDtosAfter(Pagination.startAfter(after), Pagination.probe(pageSize));
+        return Pagination.cursorPage(tags, pageSize, TagDTO::getId, Function.identity());
+    }
+
+    /**
+     * Retrieves an offset page of Tags ordered by id, intended for administrative use.
+     *
+     * @param page Zero-based page number.
+     * @param size Requested page size, capped at {@link Pagination#MAX_PAGE_SIZE}.
+     * @return Page of TagDTOs with the total number of Tags.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<TagDTO> getTagsOffsetPage(int page, int size) {
+        return Pagination.page(tagRepository.findDtos(Pagination.offsetPage(page, size)), Function.identity());
     }
 
     /**
-     * Adds a new Tag.
+     * Adds a new Tag. The ID in the request is ignored.
      *
      * @param tagDTO Data Transfer Object representing the Tag to be added.
      */
     public void addTag(TagDTO tagDTO) {
         Tag tag = tagMapper.toEntity(tagDTO);
+        tag.setId(null);
         tagRepository.save(tag);
     }
 
     /**
-     * Updates an existing Tag.
+     * Adds many Tags at once.
+     * <p>
+     * Tags without a name are reported as invalid; the others are saved in chunked transactions.
+     * IDs in the request are ignored.
+     * </p>
+     *
+     * @param tagDTOs Data Transfer Objects representing the Tags to be added.
+     * @return The outcome of every Tag, in request order.
+     * @throws BatchTooLargeException if the request holds more Tags than allowed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO addTags(List<TagDTO> tagDTOs) {
+        return batchPersister.persist(tagDTOs, this::toNewTag, tagRepository, Tag::getId);
+    }
+
+    private Tag toNewTag(TagDTO tagDTO) {
+        Tag tag = tagMapper.toEntity(tagDTO);
+        if (tag.getName() == null) {
+            throw new IllegalArgumentException("Tag name cannot be empty");
+        }
+        tag.setId(null);
+        return tag;
+    }
+
+    /**
+     * Updates an existing Tag, expecting the version given in the request, if any.
      *
      * @param id     ID of the Tag to be updated.
      * @param tagDTO Data Transfer Object containing updated Tag data.
-     * @throws TagNotFoundException if the Tag with the specified ID is not found.
+     * @throws TagNotFoundException     if the Tag with the specified ID is not found.
+     * @throws VersionConflictException if the Tag is no longer in the version given in the request.
      */
     public void updateTag(long id, TagDTO tagDTO) {
-        Tag tag = tagRepository.findById(id).orElseThrow(
-                () -> new TagNotFoundException("Tag not found")
-        );
-        if (tagDTO.getName() != null) {
-            tag.setName(tagDTO.getName());
+        updateTag(id, tagDTO, tagDTO.getVersion() == null ? null : List.of(tagDTO.getVersion()));
+    }
+
+    /**
+     * Updates an existing Tag.
+     * <p>
+     * When versions are expected, the Tag is updated by a single conditional statement without being read.
+     * Otherwise it is read and written back, and a concurrent write is detected by its version on flush.
+     * </p>
+     *
+     * @param id               ID of the Tag to be updated.
+     * @param tagDTO           Data Transfer Object containing updated Tag data.
+     * @param expectedVersions Versions the Tag may be in, or null to update any version.
+     * @throws TagNotFoundException     if the Tag with the specified ID is not found.
+     * @throws VersionConflictException if the Tag is in none of the expected versions.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the Tag is modified concurrently.
+     */
+    public void updateTag(long id, TagDTO tagDTO, Collection<Long> expectedVersions) {
+        if (expectedVersions != null) {
+            if (expectedVersions.isEmpty()
+                    || tagRepository.updateIfVersionIn(id, tagDTO.getName(), expectedVersions) == 0) {
+                if (!tagRepository.existsById(id)) {
+                    throw new TagNotFoundException("Tag not found");
+                }
+                throw new VersionConflictException(String.format("Tag with id '%s' has been modified", id));
+            }
+        } else {
+            Tag tag = tagRepository.findById(id).orElseThrow(
+                    () -> new TagNotFoundException("Tag not found")
+            );
+            if (tagDTO.getName() != null) {
+                tag.setName(tagDTO.getName());
+            }
+            tagRepository.save(tag);
         }
-        tagRepository.save(tag);
+        evictAfterCommit(id);
     }
 
     /**
-     * Deletes a Tag by its ID.
+     * Deletes a Tag by its ID, together with its links to Posts, without loading it.
      *
      * @param id ID of the Tag to be deleted.
+     * @throws TagNotFoundException if the Tag with the specified ID is not found.
      */
     public void deleteTag(long id) {
-        tagRepository.deleteById(id);
+        tagRepository.deleteTagLinksByTagId(id);
+        if (tagRepository.bulkDeleteById(id) == 0) {
+            throw new TagNotFoundException("Tag not found");
+        }
+        evictAfterCommit(id);
+    }
+
+    private void evictAfterCommit(long id) {
+        cacheRegistry.tags().evictAfterCommit(id);
+        cacheRegistry.posts().clearAfterCommit();
     }
 }
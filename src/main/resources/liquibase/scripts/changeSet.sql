@@ -31,7 +31,7 @@ CREATE TABLE post_tag
     CONSTRAINT fk_tag FOREIGN KEY (tag_id) REFERENCES tag (id),
     PRIMARY KEY (post_id, tag_id)
 );
--- changeset oshinkevich2
+-- changeset oshinkevich:2
 CREATE TABLE author_post (
                              author_id BIGINT NOT NULL,
                              post_id BIGINT NOT NULL,
@@ -39,5 +39,47 @@ CREATE TABLE author_post (
                              CONSTRAINT fk_post FOREIGN KEY (post_id) REFERENCES post (id),
                              PRIMARY KEY (author_id, post_id)
 );
--- changeset oshinkevich3
 
+-- changeset oshinkevich:4 dbms:postgresql
+-- Sequence-based ids let Hibernate batch inserts; the pooled optimizer reserves
+-- INCREMENT BY ids per round trip, and Hibernate adopts the increment defined here.
+-- The ids are SERIAL columns when changeset 1 created the tables, and identity columns when
+-- hbm2ddl did.
+ALTER TABLE author ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE post ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tag ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE author ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE post ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE tag ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS author_id_seq;
+DROP SEQUENCE IF EXISTS post_id_seq;
+DROP SEQUENCE IF EXISTS tag_id_seq;
+ALTER TABLE author ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE post ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE tag ALTER COLUMN id TYPE BIGINT;
+
+CREATE SEQUENCE author_seq INCREMENT BY 50;
+CREATE SEQUENCE post_seq INCREMENT BY 50;
+CREATE SEQUENCE tag_seq INCREMENT BY 50;
+SELECT setval('author_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM author), false);
+SELECT setval('post_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM post), false);
+SELECT setval('tag_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tag), false);
+
+-- changeset oshinkevich:5 dbms:postgresql
+-- Full-text search over posts: a stored tsvector kept up to date by PostgreSQL, title weighted
+-- above content, and a GIN index so matching stays index-driven however many posts there are.
+ALTER TABLE post ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED;
+CREATE INDEX idx_post_search_vector ON post USING GIN (search_vector);
+
+-- changeset oshinkevich:6
+-- The primary key (post_id, tag_id) only serves post-first lookups; listing the posts of a tag
+-- needs the reverse order.
+CREATE INDEX idx_post_tag_tag_post ON post_tag (tag_id, post_id);
+
+-- changeset oshinkevich:7
+-- Optimistic-locking versions; they also make up the ETags of the entity endpoints.
+ALTER TABLE author ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE post ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tag ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,61 @@
+#!/bin/sh
+# Builds a dynamic class-data-sharing (CDS) archive for the Tomcat serving my-rest-service.
+#
+# Tomcat is started once with -XX:ArchiveClassesAtExit, the warm-up URLs are requested so the
+# request path is loaded too, and Tomcat is stopped; the JVM writes every class it loaded, already
+# parsed and verified, to the archive on exit. Later starts with -XX:SharedArchiveFile map those
+# classes instead of loading them from the jars again.
+#
+# Usage: build-cds-archive.sh <CATALINA_HOME> [archive]
+#
+# The application must already be deployed in CATALINA_HOME and able to reach its database, with
+# migrations applied. An archive only matches the JDK and the jars it was built with, so build it
+# as a step of the image build, after the WAR is deployed, and start Tomcat with
+#
+#   CATALINA_OPTS="-XX:SharedArchiveFile=<archive>"
+#
+# A JVM given a mismatching archive warns and starts without it.
+#
+# Environment:
+#   CDS_WARMUP_URLS      URLs requested once the application is up, separated by spaces; the
+#                        first is polled until it answers (default http://localhost:8080/metrics).
+#   CDS_STARTUP_TIMEOUT  Seconds to wait for the application to come up (default 300).
+
+set -eu
+
+CATALINA_HOME=${1:?"usage: $0 <CATALINA_HOME> [archive]"}
+ARCHIVE=${2:-$CATALINA_HOME/my-rest-service.jsa}
+CDS_WARMUP_URLS=${CDS_WARMUP_URLS:-http://localhost:8080/metrics}
+CDS_STARTUP_TIMEOUT=${CDS_STARTUP_TIMEOUT:-300}
+
+CATALINA_PID=$(mktemp)
+export CATALINA_PID
+trap 'rm -f "$CATALINA_PID"' EXIT
+
+rm -f "$ARCHIVE"
+CATALINA_OPTS="${CATALINA_OPTS:-} -XX:ArchiveClassesAtExit=$ARCHIVE" "$CATALINA_HOME/bin/catalina.sh" start
+
+first_url=${CDS_WARMUP_URLS%% *}
+waited=0
+until curl -fs -o /dev/null "$first_url"; do
+    if [ "$waited" -ge "$CDS_STARTUP_TIMEOUT" ]; then
+        echo "Application did not answer $first_url within $CDS_STARTUP_TIMEOUT s" >&2
+        "$CATALINA_HOME/bin/catalina.sh" stop 60 -force
+        exit 1
+    fi
+    sleep 1
+    waited=$((waited + 1))
+done
+
+for url in $CDS_WARMUP_URLS; do
+    curl -fs -o /dev/null -H 'Accept-Encoding: zstd, gzip' "$url" || echo "Warm-up request to $url failed" >&2
+done
+
+# Waits for the JVM to exit, which is when the archive is written.
+"$CATALINA_HOME/bin/catalina.sh" stop 120
+
+if [ ! -s "$ARCHIVE" ]; then
+    echo "No archive was written to $ARCHIVE, see $CATALINA_HOME/logs/catalina.out" >&2
+    exit 1
+fi
+echo "Wrote $ARCHIVE; start Tomcat with CATALINA_OPTS=\"-XX:SharedArchiveFile=$ARCHIVE\""
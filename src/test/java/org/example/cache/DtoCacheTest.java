@@ -0,0 +1,141 @@
+package org.example.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DtoCacheTest {
+
+    private DtoCache<String> cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new DtoCache<>("test", 100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private String load(Long id) {
+        loads.incrementAndGet();
+        return "value" + id;
+    }
+
+    @Test
+    void testGetLoadsOnce() {
+        assertEquals("value1", cache.get(1L, this::load));
+        assertEquals("value1", cache.get(1L, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHitCount());
+        assertEquals(1, cache.stats().getMissCount());
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("not found");
+        }));
+
+        assertEquals("value1", cache.get(1L, this::load));
+    }
+
+    @Test
+    void testEvictWithoutTransaction() {
+        cache.get(1L, this::load);
+
+        cache.evictAfterCommit(1L);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getInvalidationCount());
+    }
+
+    @Test
+    void testEvictDeferredUntilCommit() {
+        cache.get(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(1L);
+        cache.get(1L, this::load);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictSkippedOnRollback() {
+        cache.get(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testClearAfterCommit() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        cache.clearAfterCommit();
+
+        assertEquals(0, cache.stats().getSize());
+        assertEquals(2, cache.stats().getInvalidationCount());
+    }
+
+    @Test
+    void testEvictWaitsForInFlightLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return "stale";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Thread writer = new Thread(() -> cache.evictAfterCommit(1L));
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getState() != Thread.State.BLOCKED && writer.isAlive() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(writer.isAlive(), "eviction must wait for the in-flight load");
+        release.countDown();
+        assertEquals("stale", reader.get(5, TimeUnit.SECONDS));
+        writer.join(5000);
+
+        assertEquals("value1", cache.get(1L, this::load));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.metrics.RequestMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AsyncRejectionResolverTest {
+
+    private final AsyncRejectionResolver resolver = new AsyncRejectionResolver();
+
+    @Test
+    void rejectedTaskShouldBeAnsweredWithServiceUnavailable() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        ModelAndView modelAndView = resolver.resolveException(mock(HttpServletRequest.class), response, null,
+                new TaskRejectedException("queue full"));
+
+        assertNotNull(modelAndView);
+        verify(response).setStatus(503);
+    }
+
+    @Test
+    void otherExceptionsShouldBeLeftToTheOtherResolvers() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertNull(resolver.resolveException(mock(HttpServletRequest.class), response, null,
+                new IllegalStateException()));
+        verify(response, never()).setStatus(503);
+    }
+
+    @Test
+    void saturatedExecutorShouldRejectWithoutBlockingTheSubmitter() throws Exception {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("async.pool-size", "1", "async.queue-capacity", "1")));
+        ThreadPoolTaskExecutor executor = new WebMvcConfig(env, mock(RequestMetrics.class), new ObjectMapper())
+                .asyncRequestExecutor();
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThrows(TaskRejectedException.class, () -> executor.execute(() -> await(release))));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
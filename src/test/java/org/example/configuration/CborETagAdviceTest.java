@@ -0,0 +1,56 @@
+package org.example.configuration;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CborETagAdviceTest {
+
+    private final CborETagAdvice advice = new CborETagAdvice();
+
+    private final HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+
+    private String write(String etag) {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+        response.getHeaders().setETag(etag);
+        Object body = new Object();
+        assertSame(body, advice.beforeBodyWrite(body, null, MediaType.APPLICATION_CBOR,
+                CborHttpMessageConverter.class, mock(ServerHttpRequest.class), response));
+        return response.getHeaders().getETag();
+    }
+
+    @Test
+    void strongETagShouldNameTheCborRepresentation() {
+        assertEquals("\"3.1.2.5.5-cbor\"", write("\"3.1.2.5.5\""));
+        verify(servletResponse, never()).setHeader(eq(HttpHeaders.ETAG), anyString());
+    }
+
+    @Test
+    void etagAlreadyOnTheServletResponseShouldBeReplaced() {
+        when(servletResponse.containsHeader(HttpHeaders.ETAG)).thenReturn(true);
+
+        write("\"3\"");
+
+        verify(servletResponse).setHeader(HttpHeaders.ETAG, "\"3-cbor\"");
+    }
+
+    @Test
+    void weakMissingAndSuffixedETagsShouldBeLeftAlone() {
+        assertEquals("W/\"3.1\"", write("W/\"3.1\""));
+        assertEquals("\"3.1-cbor\"", write("\"3.1-cbor\""));
+        assertNull(write(null));
+    }
+
+    @Test
+    void shouldOnlyApplyToCbor() {
+        assertTrue(advice.supports(null, CborHttpMessageConverter.class));
+        assertFalse(advice.supports(null, MappingJackson2HttpMessageConverter.class));
+    }
+}
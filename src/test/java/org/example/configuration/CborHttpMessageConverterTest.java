@@ -0,0 +1,152 @@
+package org.example.configuration;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.PostDTO;
+import org.example.dto.TagDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CborHttpMessageConverterTest {
+
+    private static final Type POST_LIST = new TypeReference<List<PostDTO>>() {
+    }.getType();
+
+    private final ObjectMapper objectMapper = JacksonConfig.objectMapper(4);
+
+    private final CborHttpMessageConverter converter = new CborHttpMessageConverter(JacksonConfig.cborMapper(4));
+
+    private byte[] write(Object value, Type type) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpOutputMessage outputMessage = mock(HttpOutputMessage.class);
+        when(outputMessage.getBody()).thenReturn(body);
+        when(outputMessage.getHeaders()).thenReturn(new HttpHeaders());
+        converter.write(value, type, MediaType.APPLICATION_CBOR, outputMessage);
+        assertEquals(MediaType.APPLICATION_CBOR, outputMessage.getHeaders().getContentType());
+        return body.toByteArray();
+    }
+
+    private Object read(byte[] cbor, Type type) throws IOException {
+        HttpInputMessage inputMessage = mock(HttpInputMessage.class);
+        when(inputMessage.getBody()).thenReturn(new ByteArrayInputStream(cbor));
+        when(inputMessage.getHeaders()).thenReturn(new HttpHeaders());
+        return converter.read(type, null, inputMessage);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static List<PostDTO> posts(int count) {
+        List<PostDTO> posts = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            PostDTO post = new PostDTO(i, 0L, "Post title " + i, "Content of post " + i + " \u00e9\u4e2d", i % 50);
+            post.setTags(List.of(new TagDTO(i % 7, 1L, "tag-" + i % 7), new TagDTO(100 + i, 1L, "topic")));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    @Test
+    void postListShouldRoundTripAndBeSmallerThanJson() throws IOException {
+        List<PostDTO> posts = posts(1_000);
+
+        byte[] cbor = write(posts, POST_LIST);
+        @SuppressWarnings("unchecked")
+        List<PostDTO> decoded = (List<PostDTO>) read(cbor, POST_LIST);
+
+        assertEquals(objectMapper.writeValueAsString(posts), objectMapper.writeValueAsString(decoded));
+        assertTrue(cbor.length < objectMapper.writeValueAsBytes(posts).length * 0.9,
+                "CBOR " + cbor.length + " bytes, JSON " + objectMapper.writeValueAsBytes(posts).length + " bytes");
+    }
+
+    @Test
+    void shouldReadIndefiniteLengthsHalfFloatsAndBignums() throws IOException {
+        JsonNode indefinite = (JsonNode) read(bytes(0xBF, 0x61, 0x61, 0x01, 0x61, 0x62, 0x9F, 0x02, 0x03, 0xFF, 0xFF),
+                JsonNode.class);
+        JsonNode chunked = (JsonNode) read(bytes(0x7F, 0x65, 0x73, 0x74, 0x72, 0x65, 0x61, 0x64, 0x6D, 0x69, 0x6E,
+                0x67, 0xFF), JsonNode.class);
+        JsonNode values = (JsonNode) read(bytes(0x85, 0xF9, 0x3C, 0x00, 0xF9, 0xC4, 0x00, 0xF5, 0xF6,
+                0xC2, 0x49, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00), JsonNode.class);
+
+        assertEquals("{\"a\":1,\"b\":[2,3]}", indefinite.toString());
+        assertEquals("streaming", chunked.asText());
+        assertEquals(1.0, values.get(0).asDouble());
+        assertEquals(-4.0, values.get(1).asDouble());
+        assertTrue(values.get(2).asBoolean());
+        assertTrue(values.get(3).isNull());
+        assertEquals("18446744073709551616", values.get(4).bigIntegerValue().toString());
+    }
+
+    @Test
+    void malformedBodyShouldBeRejected() {
+        assertThrows(HttpMessageNotReadableException.class, () -> read(bytes(0x82, 0x01), JsonNode.class));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(bytes(0x7A, 0x7F, 0xFF, 0xFF, 0xFF), JsonNode.class));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(bytes(0xA1, 0x80, 0x01), JsonNode.class));
+        byte[] deep = new byte[StreamReadConstraints.DEFAULT_MAX_DEPTH + 2];
+        Arrays.fill(deep, (byte) 0x81);
+        assertThrows(HttpMessageNotReadableException.class, () -> read(deep, JsonNode.class));
+    }
+
+    @Test
+    void tagShouldWrapItsItem() throws IOException {
+        assertEquals(objectMapper.readTree("[\"2024-01-01\"]"),
+                read(bytes(0x81, 0xC0, 0x6A, '2', '0', '2', '4', '-', '0', '1', '-', '0', '1'), JsonNode.class));
+    }
+
+    @Test
+    void oversizedBodyShouldBeRejectedWith413() throws IOException {
+        CborHttpMessageConverter limited = new CborHttpMessageConverter(JacksonConfig.cborMapper(4), 16);
+        byte[] small = write(List.of("a", "b"), List.class);
+        byte[] large = write(List.of("x".repeat(100)), List.class);
+
+        HttpInputMessage smallMessage = mock(HttpInputMessage.class);
+        when(smallMessage.getBody()).thenReturn(new ByteArrayInputStream(small));
+        when(smallMessage.getHeaders()).thenReturn(new HttpHeaders());
+        assertEquals(List.of("a", "b"), limited.read(List.class, null, smallMessage));
+
+        HttpInputMessage streamed = mock(HttpInputMessage.class);
+        when(streamed.getBody()).thenReturn(new ByteArrayInputStream(large));
+        when(streamed.getHeaders()).thenReturn(new HttpHeaders());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> limited.read(List.class, null, streamed));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+
+        HttpHeaders declared = new HttpHeaders();
+        declared.setContentLength(large.length);
+        HttpInputMessage announced = mock(HttpInputMessage.class);
+        when(announced.getHeaders()).thenReturn(declared);
+        assertThrows(ResponseStatusException.class, () -> limited.read(List.class, null, announced));
+    }
+
+    @Test
+    void shouldOnlyHandleCbor() {
+        assertTrue(converter.canWrite(POST_LIST, List.class, MediaType.APPLICATION_CBOR));
+        assertFalse(converter.canWrite(POST_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canRead(PostDTO.class, null, MediaType.APPLICATION_CBOR));
+    }
+}
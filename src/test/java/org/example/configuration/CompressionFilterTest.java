@@ -0,0 +1,301 @@
+package org.example.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.example.controller.PostController;
+import org.example.dto.PostDTO;
+import org.example.service.PostSearchService;
+import org.example.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompressionFilterTest {
+
+    private static final int THRESHOLD = 1024;
+
+    private final CompressionFilter filter = new CompressionFilter(List.of("zstd", "gzip"), THRESHOLD,
+            MediaType.parseMediaTypes("text/*,application/json,application/x-ndjson"), 6, 3, 4);
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final Map<String, String> headers = new HashMap<>();
+
+    private static HttpServletRequest request(String acceptEncoding) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Accept-Encoding")).thenReturn(acceptEncoding);
+        return request;
+    }
+
+    private HttpServletResponse response(String contentType) throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getContentType()).thenReturn(contentType);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        when(response.getHeader(anyString())).thenAnswer(invocation -> headers.get(invocation.getArgument(0)));
+        when(response.containsHeader(anyString())).thenAnswer(invocation -> headers.containsKey(invocation.getArgument(0)));
+        doAnswer(invocation -> headers.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(response).setHeader(anyString(), anyString());
+        doAnswer(invocation -> headers.merge(invocation.getArgument(0), invocation.getArgument(1),
+                (previous, value) -> previous + ", " + value))
+                .when(response).addHeader(anyString(), anyString());
+        return response;
+    }
+
+    private static String json(int length) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < length - 1; i++) {
+            json.append("{\"id\":").append(i).append(",\"title\":\"Post title\"},");
+        }
+        json.setLength(length - 1);
+        return json.append(']').toString();
+    }
+
+    private static FilterChain writing(String content) {
+        return (request, response) -> {
+            OutputStream out = response.getOutputStream();
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        };
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void largeResponseShouldBeGzipped() throws Exception {
+        String json = json(20_000);
+        HttpServletResponse response = response("application/json");
+
+        filter.doFilter(request("gzip, deflate"), response, writing(json));
+
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        assertEquals("Accept-Encoding", headers.get("Vary"));
+        assertTrue(body.size() < json.length() / 5, "compressed to " + body.size() + " bytes");
+        assertEquals(json, read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))));
+        verify(response, never()).setContentLengthLong(anyLong());
+    }
+
+    @Test
+    void largeResponseShouldBeZstdCompressedWhenPreferred() throws Exception {
+        assumeTrue(ZstdUtils.isZstdCompressionAvailable());
+        String json = json(20_000);
+
+        filter.doFilter(request("gzip, deflate, br, zstd"), response("application/json"), writing(json));
+
+        assertEquals("zstd", headers.get("Content-Encoding"));
+        assertEquals(json, read(new ZstdInputStream(new ByteArrayInputStream(body.toByteArray()))));
+    }
+
+    @Test
+    void responseBelowThresholdShouldBeSentAsItIs() throws Exception {
+        String json = json(THRESHOLD - 1);
+        HttpServletResponse response = response("application/json");
+
+        filter.doFilter(request("gzip"), response, writing(json));
+
+        assertNull(headers.get("Content-Encoding"));
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+        verify(response).setContentLengthLong(THRESHOLD - 1);
+    }
+
+    @Test
+    void incompressibleTypeShouldPassThroughWithDeclaredLength() throws Exception {
+        String content = json(20_000);
+        HttpServletResponse response = response("image/png");
+
+        filter.doFilter(request("gzip"), response, (request, wrapped) -> {
+            wrapped.setContentLength(content.length());
+            wrapped.getOutputStream().write(content.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertNull(headers.get("Content-Encoding"));
+        assertEquals(content, body.toString(StandardCharsets.UTF_8));
+        verify(response).setContentLengthLong(content.length());
+    }
+
+    @Test
+    void clientWithoutAcceptedEncodingShouldGetResponseAsItIs() throws Exception {
+        String json = json(20_000);
+
+        filter.doFilter(request("br, gzip;q=0"), response("application/json"), writing(json));
+
+        assertNull(headers.get("Content-Encoding"));
+        assertEquals("Accept-Encoding", headers.get("Vary"));
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void negotiationShouldFollowQualityThenConfiguredOrder() {
+        assumeTrue(ZstdUtils.isZstdCompressionAvailable());
+
+        assertEquals("zstd", filter.negotiate("gzip, zstd"));
+        assertEquals("gzip", filter.negotiate("gzip, zstd;q=0.5"));
+        assertEquals("gzip", filter.negotiate("GZIP;Q=1.0, zstd;q=0"));
+        assertEquals("zstd", filter.negotiate("*"));
+        assertEquals("gzip", filter.negotiate("zstd;q=0, *;q=0.1"));
+        assertNull(filter.negotiate("identity"));
+        assertNull(filter.negotiate("gzip;q=0, zstd;q=bad"));
+        assertNull(filter.negotiate(null));
+    }
+
+    @Test
+    void flushShouldSendEverythingWrittenSoFar() throws Exception {
+        String first = json(THRESHOLD * 4);
+        String[] flushed = new String[1];
+
+        filter.doFilter(request("gzip"), response("application/x-ndjson"), (request, response) -> {
+            OutputStream out = response.getOutputStream();
+            out.write(first.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            flushed[0] = inflatePartial(body.toByteArray());
+            out.write("\nrest".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals(first, flushed[0]);
+        assertEquals(first + "\nrest", read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))));
+    }
+
+    private static String inflatePartial(byte[] gzip) throws IOException {
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(gzip, 10, gzip.length - 10);
+        byte[] out = new byte[1 << 20];
+        try {
+            return new String(out, 0, inflater.inflate(out), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    void strongEntityTagShouldCarryEncodingWhenCompressed() throws Exception {
+        HttpServletResponse response = response("application/json");
+
+        filter.doFilter(request("gzip"), response, (request, wrapped) -> {
+            ((HttpServletResponse) wrapped).setHeader("ETag", "\"3.1\"");
+            wrapped.getOutputStream().write(json(20_000).getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals("\"3.1-gzip\"", headers.get("ETag"));
+    }
+
+    @Test
+    void weakEntityTagShouldBeKeptWhenCompressed() throws Exception {
+        HttpServletResponse response = response("application/json");
+
+        filter.doFilter(request("gzip"), response, (request, wrapped) -> {
+            ((HttpServletResponse) wrapped).setHeader("ETag", "W/\"3.1\"");
+            wrapped.getOutputStream().write(json(20_000).getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals("W/\"3.1\"", headers.get("ETag"));
+    }
+
+    @Test
+    void entityTagOfCompressedResponseShouldSatisfyIfMatch() throws Exception {
+        PostService postService = mock(PostService.class);
+        ObjectMapper objectMapper = JacksonConfig.objectMapper(1);
+        PostController postController = new PostController(postService, mock(PostSearchService.class), objectMapper);
+        PostDTO postDTO = new PostDTO(1L, "Post Title", json(4_000), 1L);
+        postDTO.setVersion(3L);
+        when(postService.getPostById(1L)).thenReturn(postDTO);
+        HttpServletResponse response = response("application/json");
+
+        filter.doFilter(request("gzip"), response, (request, wrapped) -> {
+            ResponseEntity<?> entity = postController.getPostById(1L, null);
+            ((HttpServletResponse) wrapped).setHeader("ETag", entity.getHeaders().getETag());
+            objectMapper.writeValue(wrapped.getOutputStream(), entity.getBody());
+        });
+
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        assertEquals("\"3.0.0.0.0-gzip\"", headers.get("ETag"));
+        ResponseEntity<?> updated = postController.updatePost(1L, headers.get("ETag"), postDTO);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        verify(postService).updatePost(1L, postDTO, List.of(3L));
+    }
+
+    @Test
+    void writerShouldBeCompressedToo() throws Exception {
+        String text = json(20_000);
+        HttpServletResponse response = response("text/plain");
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+
+        filter.doFilter(request("gzip"), response, (request, wrapped) -> wrapped.getWriter().write(text));
+
+        assertEquals(text, read(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))));
+    }
+
+    @Test
+    void workspacesShouldBeReturnedToPoolAndReused() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            body.reset();
+            headers.clear();
+            filter.doFilter(request("gzip"), response("application/json"), writing(json(i % 2 == 0 ? 20_000 : 100)));
+        }
+        assertEquals(1, filter.idleWorkspaces());
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("gzip"), response("application/json"),
+                (request, response) -> {
+                    response.getOutputStream().write(new byte[100]);
+                    throw new IllegalStateException("handler failed");
+                }));
+        assertEquals(1, filter.idleWorkspaces());
+    }
+
+    @Test
+    void invalidConfigurationShouldBeRejected() {
+        List<MediaType> types = List.of(MediaType.APPLICATION_JSON);
+        assertThrows(IllegalArgumentException.class, () -> new CompressionFilter(List.of("br"), 0, types, 6, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CompressionFilter(List.of("gzip"), -1, types, 6, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CompressionFilter(List.of("gzip"), 0, types, 10, 3, 1));
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.configuration;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.metrics.RoutingMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(5_000);
+
+    private final RoutingMetrics metrics = new RoutingMetrics();
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    private long pinnedReadsOfOneReadOnlyTransaction() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                target, Map.of("replica-1", target), ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, metrics);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+        long before = metrics.snapshot().getPinnedReads();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                dataSource.getConnection().createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return metrics.snapshot().getPinnedReads() - before;
+    }
+
+    private static HttpServletRequest request(String method, Cookie... cookies) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getCookies()).thenReturn(cookies.length == 0 ? null : cookies);
+        return request;
+    }
+
+    @Test
+    void testWriteSetsCookieAndPinsRequest() throws Exception {
+        HttpServletRequest request = request("PUT");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertTrue(interceptor.preHandle(request, response, null));
+
+        ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+        verify(response).addCookie(cookie.capture());
+        assertEquals(ReadYourWritesInterceptor.COOKIE, cookie.getValue().getName());
+        assertTrue(Long.parseLong(cookie.getValue().getValue()) > System.currentTimeMillis());
+        assertEquals(5, cookie.getValue().getMaxAge());
+        assertEquals(1, pinnedReadsOfOneReadOnlyTransaction());
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+    }
+
+    @Test
+    void testReadWithinWindowIsPinned() throws Exception {
+        HttpServletRequest request = request("GET", new Cookie(ReadYourWritesInterceptor.COOKIE,
+                Long.toString(System.currentTimeMillis() + 5_000)));
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        interceptor.preHandle(request, response, null);
+
+        verify(response, never()).addCookie(any());
+        assertEquals(1, pinnedReadsOfOneReadOnlyTransaction());
+
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+    }
+
+    @Test
+    void testCallableHandlerOfPinnedRequestIsPinnedOnExecutorThread() throws Exception {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        HttpServletRequest request = request("GET", new Cookie(ReadYourWritesInterceptor.COOKIE,
+                Long.toString(System.currentTimeMillis() + 5_000)));
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        when(request.isAsyncSupported()).thenReturn(true);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.startAsync(any(), any())).thenReturn(asyncContext);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        CompletableFuture<Object> dispatched = new CompletableFuture<>();
+
+        interceptor.preHandle(request, response, null);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor("async-test-"));
+        asyncManager.registerCallableInterceptor("readYourWrites", interceptor);
+        doAnswer(invocation -> dispatched.complete(asyncManager.getConcurrentResult())).when(asyncContext).dispatch();
+        asyncManager.startCallableProcessing(() -> Thread.currentThread().getName() + " "
+                + pinnedReadsOfOneReadOnlyTransaction());
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        String result = (String) dispatched.get(10, TimeUnit.SECONDS);
+        assertTrue(result.startsWith("async-test-"), result);
+        assertTrue(result.endsWith(" 1"), result);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+    }
+
+    @Test
+    void testReadAfterWindowOrWithBadCookieIsNotPinned() throws Exception {
+        interceptor.preHandle(request("GET", new Cookie(ReadYourWritesInterceptor.COOKIE,
+                Long.toString(System.currentTimeMillis() - 1))), mock(HttpServletResponse.class), null);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+
+        interceptor.preHandle(request("GET", new Cookie(ReadYourWritesInterceptor.COOKIE, "soon")),
+                mock(HttpServletResponse.class), null);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+
+        interceptor.preHandle(request("GET"), mock(HttpServletResponse.class), null);
+        assertEquals(0, pinnedReadsOfOneReadOnlyTransaction());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.Tag;
+import org.example.repository.DBConfigurationClass;
+import org.example.repository.TagRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitConfig(DBConfigurationClass.class)
+class ReplicaAwareJpaDialectTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+    private Long tagId;
+
+    @BeforeEach
+    void setUp() {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.setJpaDialect(new ReplicaAwareJpaDialect());
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        tagRepository.deleteAll();
+        tagId = tagRepository.save(new Tag("replicated")).getId();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+        tagRepository.deleteAll();
+    }
+
+    private void readTags() {
+        readOnly.executeWithoutResult(status -> {
+            assertEquals("replicated", tagRepository.findById(tagId).orElseThrow().getName());
+            assertEquals(1, tagRepository.findAll().size());
+        });
+    }
+
+    @Test
+    void replicaReadsShouldNotPopulateCaches() {
+        readTags();
+        readTags();
+
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void replicaReadsShouldUseEntitiesCachedByPinnedReads() {
+        ReplicaRoutingDataSource.pinToPrimary();
+        readTags();
+        assertEquals(1, statistics.getSecondLevelCachePutCount());
+        assertEquals(1, statistics.getQueryCachePutCount());
+
+        ReplicaRoutingDataSource.unpin();
+        statistics.clear();
+        readTags();
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertEquals(0, statistics.getQueryCachePutCount());
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.configuration;
+
+import org.example.dto.RoutingStatsDTO;
+import org.example.metrics.RoutingMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final RoutingMetrics metrics = new RoutingMetrics();
+
+    private Map<String, DataSource> replicas;
+    private DataSource primary;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", database("replica-1"));
+        replicas.put("replica-2", database("replica-2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+        new JdbcTemplate(primary).execute("DROP TABLE node");
+        replicas.values().forEach(replica -> new JdbcTemplate(replica).execute("DROP TABLE node"));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static String node(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplicasInTurn() {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primary, replicas, ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, metrics);
+        RoutingStatsDTO before = metrics.snapshot();
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(node(dataSource, true));
+        }
+        nodes.add(node(dataSource, false));
+        nodes.add(new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2", "primary", "primary"), nodes);
+        RoutingStatsDTO stats = metrics.snapshot();
+        assertEquals(2, stats.getPrimaryConnections() - before.getPrimaryConnections());
+        assertEquals(Map.of("replica-1", 2L, "replica-2", 2L), stats.getReplicaReads());
+        assertEquals(0, stats.getPinnedReads());
+    }
+
+    @Test
+    void testPinnedThreadReadsFromPrimary() {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primary, replicas, ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, metrics);
+
+        ReplicaRoutingDataSource.pinToPrimary();
+        assertEquals("primary", node(dataSource, true));
+        ReplicaRoutingDataSource.unpin();
+        assertEquals("replica-1", node(dataSource, true));
+
+        assertEquals(1, metrics.snapshot().getPinnedReads());
+    }
+
+    @Test
+    void testLeastConnectionsAvoidsBusyReplica() {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primary, replicas, ReplicaRoutingDataSource.Strategy.LEAST_CONNECTIONS, metrics);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+
+        List<String> nodes = transactionTemplate.execute(status -> {
+            String held = new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class);
+            assertEquals(1, dataSource.getActiveConnections(held));
+            TransactionTemplate nested = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            nested.setReadOnly(true);
+            nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            List<String> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(nested.execute(inner ->
+                        new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class)));
+            }
+            others.add(0, held);
+            return others;
+        });
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-2", "replica-2"), nodes);
+        assertEquals(0, dataSource.getActiveConnections("replica-1"));
+        assertEquals(0, dataSource.getActiveConnections("replica-2"));
+    }
+
+    @Test
+    void testConnectionIsFetchedOnFirstStatement() throws Exception {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primary, replicas, ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, metrics);
+        long primaryBefore = metrics.snapshot().getPrimaryConnections();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            assertEquals(primaryBefore, metrics.snapshot().getPrimaryConnections());
+        }
+    }
+
+    @Test
+    void testStrategyIsParsedFromProperty() {
+        assertEquals(ReplicaRoutingDataSource.Strategy.LEAST_CONNECTIONS,
+                ReplicaRoutingDataSource.Strategy.of(" least-connections"));
+        assertThrows(IllegalArgumentException.class, () -> ReplicaRoutingDataSource.Strategy.of("random"));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRoutingDataSource(
+                primary, Map.of(), ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, metrics));
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.configuration;
+
+import jakarta.persistence.SequenceGenerator;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.example.entity.Author;
+import org.example.entity.Post;
+import org.example.entity.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+
+    private static final String CHANGELOG = "migration/changelog-master.yml";
+    private static final String APPLICATION_CHANGELOG = "liquibase/changelog-master.yml";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+    private List<String> appliedIds() {
+        return jdbc.queryForList("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED", String.class);
+    }
+
+    private boolean locked() {
+        return jdbc.queryForObject("SELECT LOCKED FROM DATABASECHANGELOGLOCK WHERE ID = 1", Boolean.class);
+    }
+
+    private static List<ChangeSet> changeSets(String changelog) throws Exception {
+        ResourceAccessor resources = new ClassLoaderResourceAccessor(SchemaMigratorTest.class.getClassLoader());
+        DatabaseChangeLog databaseChangeLog = ChangeLogParserFactory.getInstance().getParser(changelog, resources)
+                .parse(changelog, new ChangeLogParameters(), resources);
+        return databaseChangeLog.getChangeSets();
+    }
+
+    @Test
+    void updateShouldApplyPendingChangeSetsOnceInOrder() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, CHANGELOG, 0);
+
+        migrator.update();
+        migrator.update();
+
+        assertEquals(List.of("1", "3", "4"), appliedIds());
+        assertEquals("Semicolons; inside a line", jdbc.queryForObject("SELECT title FROM book", String.class));
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM book", Long.class));
+        assertEquals("migration/books.sql", jdbc.queryForObject(
+                "SELECT FILENAME FROM DATABASECHANGELOG WHERE ID = '1'", String.class));
+        assertFalse(locked());
+    }
+
+    @Test
+    void appliedChangeSetsShouldBeRecordedWithLiquibaseChecksums() {
+        new SchemaMigrator(dataSource, CHANGELOG, 0).update();
+
+        List<String> checksums = jdbc.queryForList("SELECT MD5SUM FROM DATABASECHANGELOG", String.class);
+        assertEquals(3, checksums.size());
+        assertTrue(checksums.stream().allMatch(checksum -> checksum.matches("\\d+:[0-9a-f]{32}")), checksums.toString());
+    }
+
+    @Test
+    void changeSetModifiedAfterItWasAppliedShouldStopTheMigration() {
+        new SchemaMigrator(dataSource, "migration/books.sql", 0).update();
+        jdbc.update("UPDATE DATABASECHANGELOG SET MD5SUM = '9:00000000000000000000000000000000' WHERE ID = '1'");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new SchemaMigrator(dataSource, CHANGELOG, 0).update());
+
+        assertTrue(e.getMessage().contains("migration/books.sql::1::tester"), e.getMessage());
+        assertEquals(List.of("1", "3"), appliedIds());
+        assertFalse(locked());
+    }
+
+    @Test
+    void changelogSyncShouldRecordChangeSetsWithoutRunningThem() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, CHANGELOG, 0);
+
+        migrator.changelogSync();
+        migrator.update();
+
+        assertEquals(List.of("1", "3", "4"), appliedIds());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES"
+                + " WHERE TABLE_NAME = 'BOOK'", Integer.class));
+    }
+
+    @Test
+    void failedChangeSetShouldBeRolledBackAndNotRecorded() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, "migration/failing.sql", 0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, migrator::update);
+
+        assertTrue(e.getMessage().contains("migration/failing.sql::2::tester"), e.getMessage());
+        assertEquals(List.of("1"), appliedIds());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM shelf", Integer.class));
+        assertFalse(locked());
+    }
+
+    @Test
+    void lockHeldByAnotherInstanceShouldTimeOut() {
+        new SchemaMigrator(dataSource, CHANGELOG, 0).releaseLocks();
+        jdbc.update("UPDATE DATABASECHANGELOGLOCK SET LOCKED = TRUE, LOCKGRANTED = CURRENT_TIMESTAMP, LOCKEDBY = 'other-pod' WHERE ID = 1");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new SchemaMigrator(dataSource, CHANGELOG, 0).update());
+
+        assertTrue(e.getMessage().contains("other-pod"), e.getMessage());
+        assertTrue(locked());
+        assertEquals(List.of(), appliedIds());
+    }
+
+    @Test
+    void releaseLocksShouldFreeALockLeftBehind() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, CHANGELOG, 0);
+        migrator.changelogSync();
+        jdbc.update("UPDATE DATABASECHANGELOGLOCK SET LOCKED = TRUE, LOCKGRANTED = CURRENT_TIMESTAMP, LOCKEDBY = 'crashed-pod' WHERE ID = 1");
+
+        migrator.releaseLocks();
+
+        assertFalse(locked());
+        migrator.update();
+        assertEquals(List.of("1", "3", "4"), appliedIds());
+    }
+
+    @Test
+    void schemaCreatedByHbm2ddlShouldBeHandedOverByMarkingTheFirstChangeSetRan() {
+        jdbc.execute("CREATE TABLE book (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL)");
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, CHANGELOG, 0);
+
+        migrator.markNextChangeSetRan();
+        assertEquals(List.of("1"), appliedIds());
+        migrator.update();
+
+        assertEquals(List.of("1", "3", "4"), appliedIds());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM book", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'BOOK' AND COLUMN_NAME = 'VERSION'", Integer.class));
+    }
+
+    @Test
+    void applicationChangelogShouldHaveWellFormedChangeSets() throws Exception {
+        List<ChangeSet> changeSets = changeSets(APPLICATION_CHANGELOG);
+
+        assertEquals(List.of("1", "2", "4", "5", "6", "7"),
+                changeSets.stream().map(ChangeSet::getId).collect(Collectors.toList()));
+        assertTrue(changeSets.stream().allMatch(changeSet -> changeSet.getAuthor().equals("oshinkevich")));
+        assertEquals(Set.of("postgresql"), changeSets.get(2).getDbmsSet());
+        assertEquals(Set.of("postgresql"), changeSets.get(3).getDbmsSet());
+    }
+
+    @Test
+    void sequenceIncrementsShouldMatchEntityAllocationSizes() throws Exception {
+        String changeSetSql;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("liquibase/scripts/changeSet.sql")) {
+            changeSetSql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        for (Class<?> entity : List.of(Author.class, Post.class, Tag.class)) {
+            SequenceGenerator generator = entity.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+            String create = "CREATE SEQUENCE " + generator.sequenceName() + " INCREMENT BY " + generator.allocationSize() + ";";
+            assertTrue(changeSetSql.contains(create), create);
+        }
+    }
+}
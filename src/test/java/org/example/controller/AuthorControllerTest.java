@@ -1,18 +1,29 @@
 package org.example.controller;
 
 import org.example.dto.AuthorDTO;
+import org.example.dto.BatchItemResultDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.DeletionReportDTO;
+import org.example.dto.PageDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.UserNotFoundException;
+import org.example.exceptions.VersionConflictException;
 import org.example.service.AuthorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -37,7 +48,7 @@ class AuthorControllerTest {
 
         when(authorService.getUserById(1L)).thenReturn(authorDTO);
 
-        ResponseEntity<?> responseEntity = authorController.getUserById(1L);
+        ResponseEntity<?> responseEntity = authorController.getUserById(1L, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(authorDTO, responseEntity.getBody());
@@ -47,7 +58,7 @@ class AuthorControllerTest {
     void testGetUserByIdNotFound() throws UserNotFoundException {
         when(authorService.getUserById(1L)).thenThrow(new UserNotFoundException("User not found"));
 
-        ResponseEntity<?> responseEntity = authorController.getUserById(1L);
+        ResponseEntity<?> responseEntity = authorController.getUserById(1L, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
@@ -103,7 +114,7 @@ class AuthorControllerTest {
 
         doNothing().when(authorService).updateUser(1L, authorDTO);
 
-        ResponseEntity<?> responseEntity = authorController.updateUser(1L, authorDTO);
+        ResponseEntity<?> responseEntity = authorController.updateUser(1L, null, authorDTO);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -114,26 +125,132 @@ class AuthorControllerTest {
 
         doThrow(new UserNotFoundException("User not found")).when(authorService).updateUser(1L, authorDTO);
 
-        ResponseEntity<?> responseEntity = authorController.updateUser(1L, authorDTO);
+        ResponseEntity<?> responseEntity = authorController.updateUser(1L, null, authorDTO);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
     @Test
     void testDeleteUser() throws UserNotFoundException {
-        doNothing().when(authorService).deleteUser(1L);
+        DeletionReportDTO report = new DeletionReportDTO(1L, 3, 2, 1, 1, 5);
+        when(authorService.deleteUser(1L)).thenReturn(report);
 
-        ResponseEntity<?> responseEntity = authorController.deleteUser(1L);
+        ResponseEntity<?> responseEntity = authorController.deleteUser(1L, false);
         assertNotNull(responseEntity);
-        assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(report, responseEntity.getBody());
+    }
+
+    @Test
+    void testDeleteUserInBackground() {
+        when(authorService.deleteUserInBackground(1L)).thenReturn(new CompletableFuture<>());
+        doThrow(new TaskRejectedException("full")).when(authorService).deleteUserInBackground(2L);
+
+        assertEquals(HttpStatus.ACCEPTED, authorController.deleteUser(1L, true).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, authorController.deleteUser(2L, true).getStatusCode());
+        verify(authorService, never()).deleteUser(anyLong());
     }
 
     @Test
     void testDeleteUserNotFound() throws UserNotFoundException {
         doThrow(new UserNotFoundException("User not found")).when(authorService).deleteUser(1L);
 
-        ResponseEntity<?> responseEntity = authorController.deleteUser(1L);
+        ResponseEntity<?> responseEntity = authorController.deleteUser(1L, false);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
+
+    @Test
+    void testGetUsersPage() {
+        CursorPageDTO<AuthorDTO> page = new CursorPageDTO<>(List.of(new AuthorDTO(1L, "Author 1", "email1"), new AuthorDTO(2L, "Author 2", "email2")), "2", 2);
+
+        when(authorService.getUsersPage(null, 2)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = authorController.getUsersPage(null, 2);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetUsersOffsetPage() {
+        PageDTO<AuthorDTO> page = new PageDTO<>(List.of(new AuthorDTO(1L, "Author 1", "email1")), 0, 1, 2, 2);
+
+        when(authorService.getUsersOffsetPage(0, 1)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = authorController.getUsersOffsetPage(0, 1);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testCreateUsers() {
+        List<AuthorDTO> dtos = List.of(new AuthorDTO());
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L)));
+        when(authorService.createUsers(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = authorController.createUsers(dtos);
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testCreateUsersPartialFailure() {
+        List<AuthorDTO> dtos = List.of(new AuthorDTO(), new AuthorDTO());
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L),
+                BatchItemResultDTO.invalid(1, "empty")));
+        when(authorService.createUsers(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = authorController.createUsers(dtos);
+        assertEquals(HttpStatus.MULTI_STATUS, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testCreateUsersTooLarge() {
+        List<AuthorDTO> dtos = List.of(new AuthorDTO());
+        when(authorService.createUsers(dtos)).thenThrow(new BatchTooLargeException("too large"));
+
+        ResponseEntity<?> responseEntity = authorController.createUsers(dtos);
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testGetUserByIdNotModified() {
+        when(authorService.getUserETag(1L)).thenReturn(Optional.of("\"0.2.3\""));
+
+        ResponseEntity<?> responseEntity = authorController.getUserById(1L, "\"0.1.0\", \"0.2.3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        verify(authorService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void testGetUserByIdIfNoneMatchNotFound() {
+        when(authorService.getUserETag(1L)).thenReturn(Optional.empty());
+        when(authorService.getUserById(1L)).thenThrow(new UserNotFoundException("User not found"));
+
+        ResponseEntity<?> responseEntity = authorController.getUserById(1L, "*");
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testUserUpdateIfMatchMismatch() {
+        AuthorDTO dto = new AuthorDTO(1L, "name", "mail");
+        doThrow(new VersionConflictException("modified")).when(authorService).updateUser(1L, dto, List.of(2L));
+
+        ResponseEntity<?> responseEntity = authorController.updateUser(1L, "\"2.0.0\"", dto);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testUserUpdateConflict() {
+        AuthorDTO dto = new AuthorDTO(1L, "name", "mail");
+        doThrow(new OptimisticLockingFailureException("modified")).when(authorService).updateUser(1L, dto);
+
+        ResponseEntity<?> responseEntity = authorController.updateUser(1L, null, dto);
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
 }
@@ -0,0 +1,40 @@
+package org.example.controller;
+
+import org.example.metrics.PrometheusExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+
+class MetricsControllerTest {
+
+    @InjectMocks
+    private MetricsController metricsController;
+
+    @Mock
+    private PrometheusExporter prometheusExporter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetMetrics() {
+        String scrape = "# TYPE hibernate_entity_loads_total counter\nhibernate_entity_loads_total 1\n";
+
+        when(prometheusExporter.scrape()).thenReturn(scrape);
+
+        ResponseEntity<String> responseEntity = metricsController.getMetrics();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(scrape, responseEntity.getBody());
+    }
+}
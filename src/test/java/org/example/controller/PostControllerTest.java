@@ -1,21 +1,40 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.configuration.JacksonConfig;
+import org.example.dto.BatchItemResultDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
 import org.example.dto.PostDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.PostNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.service.PostSearchService;
 import org.example.service.PostService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class PostControllerTest {
@@ -26,6 +45,12 @@ class PostControllerTest {
     @Mock
     private PostService postService;
 
+    @Mock
+    private PostSearchService postSearchService;
+
+    @Spy
+    private ObjectMapper objectMapper = JacksonConfig.objectMapper(1);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -37,7 +62,7 @@ class PostControllerTest {
 
         when(postService.getPostById(1L)).thenReturn(postDTO);
 
-        ResponseEntity<?> responseEntity = postController.getPostById(1L);
+        ResponseEntity<?> responseEntity = postController.getPostById(1L, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(postDTO, responseEntity.getBody());
@@ -47,30 +72,30 @@ class PostControllerTest {
     void testGetPostByIdNotFound() throws PostNotFoundException {
         when(postService.getPostById(1L)).thenThrow(new PostNotFoundException("Post not found"));
 
-        ResponseEntity<?> responseEntity = postController.getPostById(1L);
+        ResponseEntity<?> responseEntity = postController.getPostById(1L, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
     @Test
-    void testGetAllPosts() throws PostNotFoundException {
+    void testGetAllPosts() throws Exception {
         List<PostDTO> posts = new ArrayList<>();
         posts.add(new PostDTO(1L, "Post Title 1", "Post Content 1",1L));
         posts.add(new PostDTO(2L, "Post Title 2", "Post Content 2", 2L));
 
         when(postService.getAllPosts()).thenReturn(posts);
 
-        ResponseEntity<?> responseEntity = postController.getAllPosts();
+        ResponseEntity<?> responseEntity = postController.getAllPosts().call();
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(posts, responseEntity.getBody());
     }
 
     @Test
-    void testGetAllPostsNotFound() throws PostNotFoundException {
+    void testGetAllPostsNotFound() throws Exception {
         when(postService.getAllPosts()).thenThrow(new PostNotFoundException("Posts not found"));
 
-        ResponseEntity<?> responseEntity = postController.getAllPosts();
+        ResponseEntity<?> responseEntity = postController.getAllPosts().call();
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
@@ -103,7 +128,7 @@ class PostControllerTest {
 
         doNothing().when(postService).updatePost(1L, postDTO);
 
-        ResponseEntity<?> responseEntity = postController.updatePost(1L, postDTO);
+        ResponseEntity<?> responseEntity = postController.updatePost(1L, null, postDTO);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -114,7 +139,7 @@ class PostControllerTest {
 
         doThrow(new PostNotFoundException("Post not found")).when(postService).updatePost(1L, postDTO);
 
-        ResponseEntity<?> responseEntity = postController.updatePost(1L, postDTO);
+        ResponseEntity<?> responseEntity = postController.updatePost(1L, null, postDTO);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
@@ -136,4 +161,179 @@ class PostControllerTest {
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
+
+    @Test
+    void testGetPostsPage() {
+        CursorPageDTO<PostDTO> page = new CursorPageDTO<>(List.of(new PostDTO(1L, "Post Title 1", "Post Content 1", 1L), new PostDTO(2L, "Post Title 2", "Post Content 2", 2L)), "2", 2);
+
+        when(postService.getPostsPage(null, 2)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = postController.getPostsPage(null, 2);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetPostsOffsetPage() {
+        PageDTO<PostDTO> page = new PageDTO<>(List.of(new PostDTO(1L, "Post Title 1", "Post Content 1", 1L)), 0, 1, 2, 2);
+
+        when(postService.getPostsOffsetPage(0, 1)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = postController.getPostsOffsetPage(0, 1);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testExportPosts() throws IOException {
+        when(postService.exportPosts(any())).thenAnswer(invocation -> {
+            Consumer<PostDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new PostDTO(1L, "Post Title 1", "Post Content 1", 1L));
+            consumer.accept(new PostDTO(2L, "Post Title 2", "Post Content 2", 1L));
+            return 2L;
+        });
+
+        ResponseEntity<StreamingResponseBody> responseEntity = postController.exportPosts();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Objects.requireNonNull(responseEntity.getBody()).writeTo(outputStream);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+    }
+
+    @Test
+    void testExportPostsEmpty() throws IOException {
+        when(postService.exportPosts(any())).thenReturn(0L);
+
+        ResponseEntity<StreamingResponseBody> responseEntity = postController.exportPosts();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Objects.requireNonNull(responseEntity.getBody()).writeTo(outputStream);
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    void testCreatePosts() {
+        List<PostDTO> dtos = List.of(new PostDTO(null, "title", "content", 1L));
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L)));
+        when(postService.createPosts(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = postController.createPosts(dtos);
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testCreatePostsPartialFailure() {
+        List<PostDTO> dtos = List.of(new PostDTO(null, "title", "content", 1L), new PostDTO());
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L),
+                BatchItemResultDTO.invalid(1, "empty")));
+        when(postService.createPosts(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = postController.createPosts(dtos);
+        assertEquals(HttpStatus.MULTI_STATUS, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testCreatePostsTooLarge() {
+        List<PostDTO> dtos = List.of(new PostDTO(null, "title", "content", 1L));
+        when(postService.createPosts(dtos)).thenThrow(new BatchTooLargeException("too large"));
+
+        ResponseEntity<?> responseEntity = postController.createPosts(dtos);
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testSearchPosts() throws Exception {
+        CursorPageDTO<PostDTO> page = new CursorPageDTO<>(List.of(new PostDTO(1L, "Java", "Content", 1L)), "2.0:1", 1);
+        when(postSearchService.searchPosts("java", null, 1)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = postController.searchPosts("java", null, 1).call();
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testSearchPostsBadRequest() throws Exception {
+        when(postSearchService.searchPosts("java", "bad", 20))
+                .thenThrow(new IllegalArgumentException("Malformed search cursor: bad"));
+
+        ResponseEntity<?> responseEntity = postController.searchPosts("java", "bad", 20).call();
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testGetPostsByTags() {
+        CursorPageDTO<PostDTO> page = new CursorPageDTO<>(List.of(new PostDTO(1L, "Java", "Content", 1L)), null, 20);
+        when(postService.getPostsByTags(List.of("java", "sql"), true, null, 20)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = postController.getPostsByTags(List.of("java", "sql"), "ALL", null, 20);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetPostsByTagsBadRequest() {
+        when(postService.getPostsByTags(List.of(""), false, null, 20))
+                .thenThrow(new IllegalArgumentException("At least one tag name is required"));
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                postController.getPostsByTags(List.of("java"), "some", null, 20).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                postController.getPostsByTags(List.of(""), "any", null, 20).getStatusCode());
+        verify(postService, never()).getPostsByTags(eq(List.of("java")), anyBoolean(), any(), anyInt());
+    }
+
+    @Test
+    void testGetPostByIdNotModified() {
+        when(postService.getPostETag(1L)).thenReturn(Optional.of("\"2.1.0\""));
+
+        ResponseEntity<?> responseEntity = postController.getPostById(1L, "W/\"2.1.0\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"2.1.0\"", responseEntity.getHeaders().getETag());
+        verify(postService, never()).getPostById(anyLong());
+    }
+
+    @Test
+    void testGetPostByIdModified() {
+        PostDTO postDTO = new PostDTO(1L, "Post Title", "Post Content", 1L);
+        postDTO.setVersion(3L);
+        when(postService.getPostETag(1L)).thenReturn(Optional.of("\"3.0.0.0.0\""));
+        when(postService.getPostById(1L)).thenReturn(postDTO);
+
+        ResponseEntity<?> responseEntity = postController.getPostById(1L, "\"2.0.0.0.0\"");
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"3.0.0.0.0\"", responseEntity.getHeaders().getETag());
+        assertEquals(postDTO, responseEntity.getBody());
+    }
+
+    @Test
+    void testPostUpdateIfMatchMismatch() {
+        PostDTO dto = new PostDTO(1L, "title", "content", 1L);
+        doThrow(new VersionConflictException("modified")).when(postService).updatePost(1L, dto, List.of(2L));
+
+        ResponseEntity<?> responseEntity = postController.updatePost(1L, "\"2.0.0\"", dto);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testPostUpdateConflict() {
+        PostDTO dto = new PostDTO(1L, "title", "content", 1L);
+        doThrow(new OptimisticLockingFailureException("modified")).when(postService).updatePost(1L, dto);
+
+        ResponseEntity<?> responseEntity = postController.updatePost(1L, null, dto);
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
 }
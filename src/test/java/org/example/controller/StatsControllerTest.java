@@ -0,0 +1,99 @@
+package org.example.controller;
+
+import org.example.cache.CacheRegistry;
+import org.example.dto.CacheStatsDTO;
+import org.example.dto.PoolStatsDTO;
+import org.example.dto.RegionStatsDTO;
+import org.example.dto.RoutingStatsDTO;
+import org.example.metrics.PoolMetrics;
+import org.example.metrics.RoutingMetrics;
+import org.example.metrics.SecondLevelCacheMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+
+class StatsControllerTest {
+
+    @InjectMocks
+    private StatsController statsController;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    @Mock
+    private CacheRegistry cacheRegistry;
+
+    @Mock
+    private SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    @Mock
+    private RoutingMetrics routingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetPoolStats() {
+        PoolStatsDTO stats = new PoolStatsDTO();
+        stats.setActiveConnections(3);
+
+        when(poolMetrics.snapshot()).thenReturn(stats);
+
+        ResponseEntity<PoolStatsDTO> responseEntity = statsController.getPoolStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(stats, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetCacheStats() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setName("users");
+        stats.setHitCount(10);
+
+        when(cacheRegistry.stats()).thenReturn(List.of(stats));
+
+        ResponseEntity<List<CacheStatsDTO>> responseEntity = statsController.getCacheStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(List.of(stats), responseEntity.getBody());
+    }
+
+    @Test
+    void testGetSecondLevelCacheStats() {
+        RegionStatsDTO stats = new RegionStatsDTO();
+        stats.setRegion("tag");
+        stats.setHitCount(10);
+
+        when(secondLevelCacheMetrics.snapshot()).thenReturn(List.of(stats));
+
+        ResponseEntity<List<RegionStatsDTO>> responseEntity = statsController.getSecondLevelCacheStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(List.of(stats), responseEntity.getBody());
+    }
+
+    @Test
+    void testGetRoutingStats() {
+        RoutingStatsDTO stats = new RoutingStatsDTO();
+        stats.setPrimaryConnections(4);
+
+        when(routingMetrics.snapshot()).thenReturn(stats);
+
+        ResponseEntity<RoutingStatsDTO> responseEntity = statsController.getRoutingStats();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(stats, responseEntity.getBody());
+    }
+}
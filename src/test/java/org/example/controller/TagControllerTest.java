@@ -1,13 +1,22 @@
 package org.example.controller;
 
+import org.example.dto.BatchItemResultDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.example.dto.PostDTO;
 import org.example.dto.TagDTO;
+import org.example.exceptions.BatchTooLargeException;
 import org.example.exceptions.TagNotFoundException;
+import org.example.exceptions.VersionConflictException;
+import org.example.service.PostService;
 import org.example.service.TagService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -26,6 +35,9 @@ class TagControllerTest {
     @Mock
     private TagService tagService;
 
+    @Mock
+    private PostService postService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -39,7 +51,7 @@ class TagControllerTest {
 
         when(tagService.getAllTags()).thenReturn(tags);
 
-        ResponseEntity<?> responseEntity = tagController.getAllTags();
+        ResponseEntity<?> responseEntity = tagController.getAllTags(null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(tags, responseEntity.getBody());
@@ -95,7 +107,7 @@ class TagControllerTest {
 
         doNothing().when(tagService).updateTag(1L, tag);
 
-        ResponseEntity<?> responseEntity = tagController.updateTag(1L, tag);
+        ResponseEntity<?> responseEntity = tagController.updateTag(1L, null, tag);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
     }
@@ -106,7 +118,7 @@ class TagControllerTest {
 
         doThrow(new TagNotFoundException("Tag not found")).when(tagService).updateTag(1L, tag);
 
-        ResponseEntity<?> responseEntity = tagController.updateTag(1L, tag);
+        ResponseEntity<?> responseEntity = tagController.updateTag(1L, null, tag);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
@@ -128,4 +140,121 @@ class TagControllerTest {
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
+
+    @Test
+    void testGetTagsPage() {
+        CursorPageDTO<TagDTO> page = new CursorPageDTO<>(List.of(new TagDTO(1L, "tag1"), new TagDTO(2L, "tag2")), "2", 2);
+
+        when(tagService.getTagsPage(null, 2)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = tagController.getTagsPage(null, 2);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetTagsOffsetPage() {
+        PageDTO<TagDTO> page = new PageDTO<>(List.of(new TagDTO(1L, "tag1")), 0, 1, 2, 2);
+
+        when(tagService.getTagsOffsetPage(0, 1)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = tagController.getTagsOffsetPage(0, 1);
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testAddTags() {
+        List<TagDTO> dtos = List.of(new TagDTO(null, "tag"));
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L)));
+        when(tagService.addTags(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = tagController.addTags(dtos);
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testAddTagsPartialFailure() {
+        List<TagDTO> dtos = List.of(new TagDTO(null, "tag"), new TagDTO());
+        BatchResultDTO result = new BatchResultDTO(List.of(BatchItemResultDTO.created(0, 1L),
+                BatchItemResultDTO.invalid(1, "empty")));
+        when(tagService.addTags(dtos)).thenReturn(result);
+
+        ResponseEntity<?> responseEntity = tagController.addTags(dtos);
+        assertEquals(HttpStatus.MULTI_STATUS, responseEntity.getStatusCode());
+        assertEquals(result, responseEntity.getBody());
+    }
+
+    @Test
+    void testAddTagsTooLarge() {
+        List<TagDTO> dtos = List.of(new TagDTO(null, "tag"));
+        when(tagService.addTags(dtos)).thenThrow(new BatchTooLargeException("too large"));
+
+        ResponseEntity<?> responseEntity = tagController.addTags(dtos);
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testGetTagPosts() {
+        CursorPageDTO<PostDTO> page = new CursorPageDTO<>(List.of(new PostDTO(3L, "title", "content", 1L)), "3", 1);
+        when(tagService.getTag(1L)).thenReturn(new TagDTO(1L, "java"));
+        when(postService.getPostsByTag(1L, null, 1)).thenReturn(page);
+
+        ResponseEntity<?> responseEntity = tagController.getTagPosts(1L, null, 1);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetTagPostsNotFound() {
+        when(tagService.getTag(1L)).thenThrow(new TagNotFoundException("Tag not found"));
+
+        ResponseEntity<?> responseEntity = tagController.getTagPosts(1L, null, 20);
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void testGetAllTagsNotModified() {
+        when(tagService.getAllTagsETag()).thenReturn("\"2.0.12.7\"");
+
+        ResponseEntity<?> responseEntity = tagController.getAllTags("\"2.0.12.7\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        verify(tagService, never()).getAllTags();
+    }
+
+    @Test
+    void testGetAllTagsETagMatchesBody() {
+        when(tagService.getAllTagsETag()).thenReturn("\"1.0.7.7\"");
+        when(tagService.getAllTags()).thenReturn(List.of(new TagDTO(7L, "java"), new TagDTO(9L, "sql")));
+
+        ResponseEntity<?> responseEntity = tagController.getAllTags("\"0.0.0.0\"");
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"2.0.16.9\"", responseEntity.getHeaders().getETag());
+    }
+
+    @Test
+    void testTagUpdateIfMatchMismatch() {
+        TagDTO dto = new TagDTO(1L, "updatedTag");
+        doThrow(new VersionConflictException("modified")).when(tagService).updateTag(1L, dto, List.of(2L));
+
+        ResponseEntity<?> responseEntity = tagController.updateTag(1L, "\"2.0.0\"", dto);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testTagUpdateConflict() {
+        TagDTO dto = new TagDTO(1L, "updatedTag");
+        doThrow(new OptimisticLockingFailureException("modified")).when(tagService).updateTag(1L, dto);
+
+        ResponseEntity<?> responseEntity = tagController.updateTag(1L, null, dto);
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
 }
@@ -0,0 +1,82 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.configuration.JacksonConfig;
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.PostSummaryDTO;
+import org.example.dto.TagDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DtoModuleTest {
+
+    private final ObjectMapper beanMapper = new ObjectMapper();
+
+    private final ObjectMapper tunedMapper = JacksonConfig.objectMapper(4);
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(beanMapper.writeValueAsString(value), tunedMapper.writeValueAsString(value));
+    }
+
+    @Test
+    void postShouldBeWrittenLikeBeanSerialization() throws Exception {
+        PostDTO post = new PostDTO(1L, 3L, "Title with \"quotes\"", "Content \u00e9\u4e2d\n\t\\", 7L);
+        post.setTags(Arrays.asList(new TagDTO(1L, 0L, "java"), null, new TagDTO(2L, null)));
+
+        assertSameJson(post);
+        assertSameJson(new PostDTO());
+        assertSameJson(List.of(post, new PostDTO(2L, "Second", "", 7L)));
+        assertSameJson(Map.of("items", List.of(post)));
+    }
+
+    @Test
+    void authorShouldBeWrittenLikeBeanSerialization() throws Exception {
+        AuthorDTO author = new AuthorDTO(5L, 1L, "Author \u00e9", "author@example.org");
+        author.setPosts(List.of(new PostSummaryDTO(1L, 0L, "First"), new PostSummaryDTO(2L, null)));
+        AuthorDTO withoutPosts = new AuthorDTO(6L, "Author", null);
+        withoutPosts.setPosts(new ArrayList<>());
+
+        assertSameJson(author);
+        assertSameJson(withoutPosts);
+        assertSameJson(new AuthorDTO());
+    }
+
+    @Test
+    void tagAndSummaryShouldBeWrittenLikeBeanSerialization() throws Exception {
+        assertSameJson(new TagDTO(1L, 2L, "tag"));
+        assertSameJson(new TagDTO());
+        assertSameJson(new PostSummaryDTO(1L, 2L, "summary"));
+        assertSameJson(new PostSummaryDTO());
+    }
+
+    @Test
+    void handWrittenSerializersShouldBeUsed() throws Exception {
+        assertSame(PostDTOSerializer.INSTANCE, tunedMapper.getSerializerProviderInstance()
+                .findValueSerializer(PostDTO.class));
+        assertSame(AuthorDTOSerializer.INSTANCE, tunedMapper.getSerializerProviderInstance()
+                .findValueSerializer(AuthorDTO.class));
+    }
+
+    @Test
+    void writtenJsonShouldReadBackAndIgnoreUnknownProperties() throws Exception {
+        PostDTO post = new PostDTO(1L, 3L, "Title", "Content", 7L);
+        post.setTags(List.of(new TagDTO(1L, 0L, "java")));
+        String json = tunedMapper.writeValueAsString(List.of(post));
+
+        List<PostDTO> read = tunedMapper.readValue(json, new TypeReference<List<PostDTO>>() {
+        });
+        PostDTO withUnknown = tunedMapper.readValue("{\"id\":1,\"unknown\":true}", PostDTO.class);
+
+        assertEquals(json, tunedMapper.writeValueAsString(read));
+        assertEquals(1L, withUnknown.getId());
+    }
+}
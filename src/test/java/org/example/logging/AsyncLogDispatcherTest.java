@@ -0,0 +1,91 @@
+package org.example.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AsyncLogDispatcherTest {
+
+    @Test
+    void shouldWriteMessagesOnWriterThread() throws Exception {
+        Logger target = mock(Logger.class);
+        try (AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, Map.of())) {
+            dispatcher.offer(target, "http-1", "first", new Object[0]);
+            dispatcher.offer(target, "http-2", "second", new Object[]{"id", 7L, "tags", List.of("java")});
+
+            verify(target, timeout(5_000)).info("[http-1] first");
+            verify(target, timeout(5_000)).info("[http-2] second id=7 tags=[java]");
+        }
+    }
+
+    @Test
+    void fullQueueShouldDropInsteadOfBlocking() throws Exception {
+        Logger target = mock(Logger.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(target).info(anyString());
+
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(2, Map.of());
+        dispatcher.offer(target, "main", "stuck", new Object[0]);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            dispatcher.offer(target, "main", "message", new Object[]{"i", i});
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(9_998, dispatcher.getDropped());
+        assertTrue(elapsedMillis < 2_000, "offering took " + elapsedMillis + " ms");
+
+        release.countDown();
+        dispatcher.close();
+        assertEquals(3, dispatcher.getWritten());
+    }
+
+    @Test
+    void closedDispatcherShouldDropMessages() throws Exception {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, Map.of());
+        dispatcher.close();
+
+        dispatcher.offer(mock(Logger.class), "main", "late", new Object[0]);
+
+        assertEquals(1, dispatcher.getDropped());
+    }
+
+    @Test
+    void sampleRateShouldUseLongestMatchingPrefix() throws Exception {
+        try (AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, AsyncLogDispatcher.parseSampleRates(
+                "org.example.controller=0.1, org.example.controller.PostController=0.5,org.example.service=0"))) {
+            assertEquals(0.5, dispatcher.sampleRate("org.example.controller.PostController"));
+            assertEquals(0.1, dispatcher.sampleRate("org.example.controller.AuthorController"));
+            assertEquals(0.0, dispatcher.sampleRate("org.example.service.PostService"));
+            assertEquals(1.0, dispatcher.sampleRate("org.example.serviceExtra.Other"));
+            assertEquals(1.0, dispatcher.sampleRate("org.example.repository.PostRepository"));
+        }
+    }
+
+    @Test
+    void invalidConfigurationShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> AsyncLogDispatcher.parseSampleRates("org.example"));
+        assertThrows(IllegalArgumentException.class, () -> AsyncLogDispatcher.parseSampleRates("org.example=often"));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogDispatcher(16, Map.of("org.example", 1.5)));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogDispatcher(0, Map.of()));
+        assertTrue(AsyncLogDispatcher.parseSampleRates(" ").isEmpty());
+    }
+}
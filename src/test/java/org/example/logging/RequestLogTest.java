@@ -0,0 +1,216 @@
+package org.example.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RequestLogTest {
+
+    private static final RequestLog requestLog = RequestLog.getLog(RequestLogTest.class);
+
+    private AsyncLogDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestLog.install(null);
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    private void install(double rate) {
+        dispatcher = new AsyncLogDispatcher(AsyncLogDispatcher.DEFAULT_CAPACITY,
+                Map.of(RequestLogTest.class.getName(), rate));
+        RequestLog.install(dispatcher);
+    }
+
+    @Test
+    void sampledOutMessageShouldNotRenderFields() {
+        install(0);
+        Object exploding = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("rendered");
+            }
+        };
+
+        requestLog.info("EVENT", "value", exploding);
+        requestLog.info("EVENT", "a", 1, "b", exploding);
+        requestLog.info("EVENT", "a", 1, "b", 2, "c", exploding);
+
+        assertEquals(3, dispatcher.getSampledOut());
+        assertEquals(0, dispatcher.getDropped());
+    }
+
+    @Test
+    void keptMessagesShouldBeWritten() throws Exception {
+        install(1);
+
+        requestLog.info("EVENT");
+        requestLog.info("EVENT", "id", 1L);
+        requestLog.info("EVENT", "tags", List.of("java", "spring"), "after", null);
+        dispatcher.close();
+
+        assertEquals(3, dispatcher.getWritten());
+        assertEquals(0, dispatcher.getSampledOut());
+    }
+
+    @Test
+    void fieldsShouldBeRenderedOnDispatcherThread() throws Exception {
+        install(1);
+        CountDownLatch writerHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object blocker = new Object() {
+            @Override
+            public String toString() {
+                writerHeld.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "blocker";
+            }
+        };
+        AtomicReference<String> renderedOn = new AtomicReference<>();
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                renderedOn.set(Thread.currentThread().getName());
+                return "value";
+            }
+        };
+
+        requestLog.info("EVENT", "value", blocker);
+        assertTrue(writerHeld.await(10, TimeUnit.SECONDS));
+        requestLog.info("EVENT", "value", value);
+        assertNull(renderedOn.get());
+        release.countDown();
+        dispatcher.close();
+
+        assertEquals("request-log-writer", renderedOn.get());
+    }
+
+    @Test
+    void closedDispatcherShouldBeUninstalled() throws Exception {
+        install(1);
+        AsyncLogDispatcher closed = dispatcher;
+        closed.close();
+
+        requestLog.info("EVENT");
+
+        assertEquals(0, closed.getDropped());
+    }
+
+    @Test
+    void closingAnotherDispatcherShouldKeepTheInstalledOne() throws Exception {
+        new AsyncLogDispatcher(AsyncLogDispatcher.DEFAULT_CAPACITY, Map.of()).close();
+        install(0);
+
+        requestLog.info("EVENT");
+
+        assertEquals(1, dispatcher.getSampledOut());
+    }
+
+    @Test
+    void warningsAndErrorsShouldBeWrittenAtOnceWithBoundedFields() {
+        install(0);
+        Logger target = mock(Logger.class);
+        when(target.isWarnEnabled()).thenReturn(true);
+        when(target.isErrorEnabled()).thenReturn(true);
+        RequestLog log = new RequestLog(target);
+        IllegalStateException cause = new IllegalStateException();
+
+        log.warn("EVENT conflict", "id", 1L);
+        log.error("EVENT failed", "content", "x".repeat(1_000), cause);
+
+        verify(target).warn("EVENT conflict id=1");
+        verify(target).error("EVENT failed content=" + "x".repeat(200) + "...(1000 chars)", cause);
+        verify(target, never()).info(anyString());
+        assertEquals(0, dispatcher.getSampledOut());
+    }
+
+    @Test
+    void partialRateShouldKeepRoughlyThatFraction() {
+        install(0.25);
+
+        for (int i = 0; i < 10_000; i++) {
+            requestLog.info("EVENT", "i", i);
+        }
+
+        long sampledOut = dispatcher.getSampledOut();
+        assertTrue(sampledOut > 7_000 && sampledOut < 8_000, "sampled out " + sampledOut);
+    }
+
+    @Test
+    void sampledOutCallsShouldNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        // Coverage probes change what the JIT can prove about allocations.
+        assumeFalse(ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-javaagent") && argument.contains("jacoco")));
+        install(0);
+        Long id = 42L;
+        List<Long> ids = Collections.nCopies(100, id);
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100_000; i++) {
+                requestLog.info("Post_CONTROLLER getPostsPage", "after", id, "limit", ids);
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertTrue(allocated < 100_000, "allocated " + allocated + " bytes for 100000 sampled-out calls");
+    }
+
+    @Test
+    void fieldsShouldBeRenderedWithBoundedSize() {
+        List<Object> cyclic = new ArrayList<>();
+        cyclic.add("head");
+        cyclic.add(cyclic);
+        List<Integer> many = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            many.add(i);
+        }
+        StringBuilder out = new StringBuilder();
+
+        LogFields.append(out, "cyclic", cyclic);
+        LogFields.append(out, "many", many);
+        LogFields.append(out, "nested", List.of(List.of(List.of(1, 2, 3))));
+        LogFields.append(out, "long", "x".repeat(1_000));
+        LogFields.append(out, "map", Map.of("k", "v"));
+        LogFields.append(out, "broken", new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException();
+            }
+        });
+
+        String rendered = out.toString();
+        assertTrue(rendered.contains(" cyclic=[head, [head, [2 elements]]]"), rendered);
+        assertTrue(rendered.contains(" many=[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, ... 15 more]"), rendered);
+        assertTrue(rendered.contains(" nested=[[[3 elements]]]"), rendered);
+        assertTrue(rendered.contains(" long=" + "x".repeat(200) + "...(1000 chars)"), rendered);
+        assertTrue(rendered.contains(" map=[k=v]"), rendered);
+        assertTrue(rendered.contains(" broken=<IllegalStateException in toString>"), rendered);
+    }
+}
@@ -1,12 +1,16 @@
 package org.example.mapper;
 
 import org.example.dto.AuthorDTO;
+import org.example.dto.PostSummaryDTO;
 import org.example.entity.Author;
+import org.example.entity.Post;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
+import java.util.List;
+
 
 public class AuthorMapperTest {
 
@@ -40,4 +44,27 @@ public class AuthorMapperTest {
         Assertions.assertEquals(author.getName(), authorDTO.getName());
         Assertions.assertEquals(author.getEmail(), authorDTO.getEmail());
     }
+
+    @Test
+    void toAuthorDTOMapsPostSummaries() {
+        Author author = new Author("Test name", "test@test.com");
+        Post post = new Post(1L, "Test title", "test content", author);
+        author.setPosts(List.of(post));
+
+        AuthorDTO authorDTO = mapper.toDTO(author);
+
+        Assertions.assertEquals(1, authorDTO.getPosts().size());
+        Assertions.assertEquals(1L, authorDTO.getPosts().get(0).getId());
+        Assertions.assertEquals("Test title", authorDTO.getPosts().get(0).getTitle());
+    }
+
+    @Test
+    void toAuthorEntityIgnoresPosts() {
+        AuthorDTO authorDTO = new AuthorDTO(1L, "Test name", "test@test.com");
+        authorDTO.setPosts(List.of(new PostSummaryDTO(1L, "Test title")));
+
+        Author author = mapper.toEntity(authorDTO);
+
+        Assertions.assertNull(author.getPosts());
+    }
 }
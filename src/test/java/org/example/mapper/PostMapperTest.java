@@ -1,14 +1,18 @@
 package org.example.mapper;
 
 import org.example.dto.PostDTO;
+import org.example.dto.TagDTO;
 
 import org.example.entity.Post;
+import org.example.entity.Tag;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
+import java.util.List;
+
 public class PostMapperTest {
 
     private PostMapper mapper;
@@ -41,4 +45,31 @@ public class PostMapperTest {
         Assertions.assertEquals(post.getTitle(), postDTO.getTitle());
         Assertions.assertEquals(post.getContent(), postDTO.getContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toPostDTOMapsTags() {
+        Tag tag = new Tag("tag");
+        tag.setId(2L);
+        tag.setPosts(List.of(new Post()));
+        Post post = new Post(1L, "Test title", "test content");
+        post.setTags(List.of(tag));
+
+        PostDTO postDTO = mapper.toDTO(post);
+
+        Assertions.assertEquals(1, postDTO.getTags().size());
+        Assertions.assertEquals(2L, postDTO.getTags().get(0).getId());
+        Assertions.assertEquals("tag", postDTO.getTags().get(0).getName());
+    }
+
+    @Test
+    void toPostEntityReferencesTagsById() {
+        PostDTO postDTO = new PostDTO(null, "Test title", "test content", 1L);
+        postDTO.setTags(List.of(new TagDTO(2L, "tag")));
+
+        Post post = mapper.toEntity(postDTO);
+
+        Assertions.assertEquals(1, post.getTags().size());
+        Assertions.assertEquals(2L, post.getTags().get(0).getId());
+        Assertions.assertNull(post.getTags().get(0).getName());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.example.dto.PoolStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoolMetricsTest {
+
+    private PoolMetrics poolMetrics;
+
+    @BeforeEach
+    void setUp() {
+        poolMetrics = new PoolMetrics();
+    }
+
+    @Test
+    void snapshotShouldReportPoolGauges() {
+        poolMetrics.create("test", new PoolStats(0) {
+            @Override
+            protected void update() {
+                totalConnections = 10;
+                activeConnections = 4;
+                idleConnections = 6;
+                pendingThreads = 2;
+                maxConnections = 10;
+                minConnections = 2;
+            }
+        });
+
+        PoolStatsDTO stats = poolMetrics.snapshot();
+
+        assertEquals(10, stats.getTotalConnections());
+        assertEquals(4, stats.getActiveConnections());
+        assertEquals(6, stats.getIdleConnections());
+        assertEquals(2, stats.getPendingThreads());
+        assertEquals(10, stats.getMaxConnections());
+        assertEquals(2, stats.getMinConnections());
+    }
+
+    @Test
+    void snapshotShouldReportAcquirePercentiles() {
+        IMetricsTracker tracker = poolMetrics.create("test", new PoolStats(0) {
+            @Override
+            protected void update() {
+            }
+        });
+        for (int i = 1; i <= 100; i++) {
+            tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(i * 10L));
+        }
+        tracker.recordConnectionTimeout();
+
+        PoolStatsDTO stats = poolMetrics.snapshot();
+
+        assertEquals(100, stats.getAcquireCount());
+        assertTrue(stats.getAcquireP50Micros() >= 495 && stats.getAcquireP50Micros() <= 505);
+        assertTrue(stats.getAcquireP99Micros() >= 985 && stats.getAcquireP99Micros() <= 995);
+        assertEquals(1, stats.getTimeouts());
+    }
+
+    @Test
+    void snapshotShouldBeEmptyBeforePoolStarts() {
+        PoolStatsDTO stats = poolMetrics.snapshot();
+
+        assertEquals(0, stats.getTotalConnections());
+        assertEquals(0, stats.getAcquireCount());
+    }
+
+    @Test
+    void recordingShouldClampOutOfRangeValues() {
+        poolMetrics.recordAcquire(TimeUnit.HOURS.toNanos(2));
+        poolMetrics.recordUsage(-5);
+
+        PoolStatsDTO stats = poolMetrics.snapshot();
+
+        assertEquals(1, stats.getAcquireCount());
+        assertTrue(stats.getAcquireMaxMicros() > 0);
+    }
+}
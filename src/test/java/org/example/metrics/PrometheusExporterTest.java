@@ -0,0 +1,106 @@
+package org.example.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.cache.CacheRegistry;
+import org.example.dto.CacheStatsDTO;
+import org.example.dto.PoolStatsDTO;
+import org.example.dto.RegionStatsDTO;
+import org.example.dto.RoutingStatsDTO;
+import org.example.logging.AsyncLogDispatcher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrometheusExporterTest {
+
+    @InjectMocks
+    private PrometheusExporter prometheusExporter;
+
+    @Mock
+    private RequestMetrics requestMetrics;
+
+    @Mock
+    private RepositoryMetrics repositoryMetrics;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    @Mock
+    private CacheRegistry cacheRegistry;
+
+    @Mock
+    private RoutingMetrics routingMetrics;
+
+    @Mock
+    private AsyncLogDispatcher asyncLogDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void scrapeShouldExportHibernatePoolCacheAndRoutingMetrics() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Statistics statistics = mock(Statistics.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getEntityLoadCount()).thenReturn(42L);
+        when(statistics.getQueryExecutionCount()).thenReturn(7L);
+        when(statistics.getQueryExecutionMaxTime()).thenReturn(250L);
+
+        RegionStatsDTO region = new RegionStatsDTO();
+        region.setRegion("org.example.entity.Tag");
+        region.setHitCount(9);
+        when(secondLevelCacheMetrics.snapshot()).thenReturn(List.of(region));
+
+        PoolStatsDTO pool = new PoolStatsDTO();
+        pool.setActiveConnections(3);
+        when(poolMetrics.snapshot()).thenReturn(pool);
+
+        CacheStatsDTO cache = new CacheStatsDTO();
+        cache.setName("users");
+        cache.setHitCount(5);
+        when(cacheRegistry.stats()).thenReturn(List.of(cache));
+
+        RoutingStatsDTO routing = new RoutingStatsDTO();
+        routing.setReplicaReads(Map.of("replica-1", 4L));
+        when(routingMetrics.snapshot()).thenReturn(routing);
+
+        when(asyncLogDispatcher.getDropped()).thenReturn(2L);
+
+        String scrape = prometheusExporter.scrape();
+
+        assertTrue(scrape.contains("# TYPE hibernate_entity_loads_total counter\nhibernate_entity_loads_total 42\n"));
+        assertTrue(scrape.contains("\nhibernate_query_executions_total 7\n"));
+        assertTrue(scrape.contains("\nhibernate_query_execution_max_seconds 0.25\n"));
+        assertTrue(scrape.contains("\nhibernate_second_level_cache_hits_total{region=\"org.example.entity.Tag\"} 9\n"));
+        assertTrue(scrape.contains("\njdbc_pool_connections_active 3\n"));
+        assertTrue(scrape.contains("\ndto_cache_hits_total{cache=\"users\"} 5\n"));
+        assertTrue(scrape.contains("\ndatasource_replica_reads_total{replica=\"replica-1\"} 4\n"));
+        assertTrue(scrape.contains("\nrequest_log_dropped_total 2\n"));
+    }
+
+    @Test
+    void labelValuesShouldBeEscaped() {
+        assertEquals("a\\\"b\\\\c\\nd", PrometheusWriter.escape("a\"b\\c\nd"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.metrics;
+
+import org.example.entity.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoryMetricsTest {
+
+    interface SampleRepository extends Repository<Tag, Long> {
+        long countByName(String name);
+    }
+
+    private final RepositoryMetrics repositoryMetrics = new RepositoryMetrics();
+
+    private String scrape() {
+        PrometheusWriter out = new PrometheusWriter();
+        repositoryMetrics.writeTo(out);
+        return out.toString();
+    }
+
+    @Test
+    void shouldTimeRepositoryMethods() {
+        SampleRepository target = name -> {
+            if (name == null) {
+                throw new IllegalArgumentException();
+            }
+            return name.length();
+        };
+        SampleRepository repository = (SampleRepository) repositoryMetrics
+                .postProcessAfterInitialization(target, "sampleRepository");
+
+        assertEquals(4, repository.countByName("java"));
+        assertEquals(2, repository.countByName("go"));
+        assertThrows(IllegalArgumentException.class, () -> repository.countByName(null));
+
+        String scrape = scrape();
+        assertTrue(scrape.contains("repository_invocation_duration_seconds_count"
+                + "{repository=\"SampleRepository\",method=\"countByName\"} 3\n"));
+        assertTrue(scrape.contains("repository_invocation_errors_total"
+                + "{repository=\"SampleRepository\",method=\"countByName\"} 1\n"));
+    }
+
+    @Test
+    void shouldLeaveOtherBeansAlone() {
+        Object bean = new Object();
+
+        assertSame(bean, repositoryMetrics.postProcessAfterInitialization(bean, "bean"));
+    }
+}
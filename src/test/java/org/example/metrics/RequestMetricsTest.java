@@ -0,0 +1,103 @@
+package org.example.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestMetricsTest {
+
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    private String scrape() {
+        PrometheusWriter out = new PrometheusWriter();
+        requestMetrics.writeTo(out);
+        return out.toString();
+    }
+
+    private static HttpServletRequest request(String method, String pattern) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (pattern != null) {
+            attributes.put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        }
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(request).setAttribute(anyString(), any());
+        return request;
+    }
+
+    private static HttpServletResponse response(int status) {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
+    }
+
+    @Test
+    void shouldCountRequestsByPatternAndStatus() {
+        for (int status : new int[]{200, 200, 404}) {
+            HttpServletRequest request = request("GET", "/posts/{id}");
+            HttpServletResponse response = response(status);
+            requestMetrics.preHandle(request, response, null);
+            requestMetrics.afterCompletion(request, response, null, null);
+        }
+
+        String scrape = scrape();
+
+        assertTrue(scrape.contains("http_server_requests_total{method=\"GET\",uri=\"/posts/{id}\",status=\"200\"} 2\n"));
+        assertTrue(scrape.contains("http_server_requests_total{method=\"GET\",uri=\"/posts/{id}\",status=\"404\"} 1\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_count{method=\"GET\",uri=\"/posts/{id}\"} 3\n"));
+    }
+
+    @Test
+    void shouldCountUnhandledExceptionAsServerError() {
+        HttpServletRequest request = request("POST", null);
+        HttpServletResponse response = response(200);
+        requestMetrics.preHandle(request, response, null);
+        requestMetrics.afterCompletion(request, response, null, new IllegalStateException());
+
+        assertTrue(scrape().contains("http_server_requests_total{method=\"POST\",uri=\""
+                + RequestMetrics.UNMAPPED + "\",status=\"500\"} 1\n"));
+    }
+
+    @Test
+    void asyncRedispatchShouldKeepFirstStartTime() throws Exception {
+        HttpServletRequest request = request("GET", "/posts/all");
+        HttpServletResponse response = response(200);
+        requestMetrics.preHandle(request, response, null);
+        requestMetrics.afterConcurrentHandlingStarted(request, response, null);
+        Thread.sleep(20);
+        requestMetrics.preHandle(request, response, null);
+        requestMetrics.afterCompletion(request, response, null, null);
+
+        assertTrue(scrape().contains("http_server_request_duration_seconds_count{method=\"GET\",uri=\"/posts/all\"} 1\n"));
+        assertFalse(scrape().contains("http_server_request_duration_seconds{method=\"GET\",uri=\"/posts/all\",quantile=\"0.5\"} 0\n"));
+    }
+
+    @Test
+    void shouldReportPercentilesInSeconds() {
+        for (int i = 1; i <= 1000; i++) {
+            requestMetrics.record("GET", "/tags/all", 200, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        String scrape = scrape();
+
+        assertTrue(scrape.contains("# TYPE http_server_request_duration_seconds summary\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds{method=\"GET\",uri=\"/tags/all\",quantile=\"0.5\"} 0.50"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds{method=\"GET\",uri=\"/tags/all\",quantile=\"0.99\"} 0.99"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_sum{method=\"GET\",uri=\"/tags/all\"} 500.5\n"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StartupReportTest {
+
+    private long now;
+
+    private final StartupReport report = new StartupReport(2, () -> now, () -> 4_000);
+
+    private void elapse(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private StartupStep bean(String name) {
+        return report.start("spring.beans.instantiate").tag("beanName", name);
+    }
+
+    @Test
+    void reportShouldListPhasesAndBeansByOwnTime() {
+        StartupStep refresh = report.start("spring.context.refresh");
+        StartupStep postProcess = report.start("spring.context.beans.post-process");
+        elapse(100);
+        postProcess.end();
+        StartupStep service = bean("service");
+        elapse(50);
+        StartupStep repository = bean("repository");
+        elapse(30);
+        StartupStep repositoryInit = report.start("spring.data.repository.init");
+        elapse(300);
+        repositoryInit.end();
+        repository.end();
+        elapse(20);
+        service.end();
+        StartupStep small = bean("small");
+        elapse(1);
+        small.end();
+
+        assertNull(report.getSummary());
+        refresh.end();
+
+        assertEquals("Application context started in 501 ms, 4000 ms after JVM start;"
+                + " spring.context.beans.post-process 100 ms; slowest beans: repository 330 ms, service 70 ms",
+                report.getSummary());
+    }
+
+    @Test
+    void stepsAfterRefreshShouldNotBeRecorded() {
+        StartupStep refresh = report.start("spring.context.refresh");
+        bean("first").end();
+        refresh.end();
+        String summary = report.getSummary();
+
+        StartupStep late = bean("late");
+        elapse(1_000);
+        late.end();
+        report.start("spring.context.refresh").end();
+
+        assertEquals(summary, report.getSummary());
+    }
+
+    @Test
+    void stepsShouldKnowTheirParentAndTags() {
+        StartupStep refresh = report.start("spring.context.refresh");
+        StartupStep step = bean("service");
+
+        assertEquals(refresh.getId(), step.getParentId());
+        assertNotEquals(refresh.getId(), step.getId());
+        assertNull(refresh.getParentId());
+        assertEquals("beanName=service", step.getTags().iterator().next().getKey() + "="
+                + step.getTags().iterator().next().getValue());
+    }
+}
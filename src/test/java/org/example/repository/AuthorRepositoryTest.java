@@ -1,17 +1,36 @@
 package org.example.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.example.cache.CacheRegistry;
+import org.example.dto.AuthorDTO;
+import org.example.dto.DeletionReportDTO;
 import org.example.entity.Author;
+import org.example.entity.Post;
+import org.example.entity.Tag;
+import org.example.service.AuthorDeleter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.context.annotation.*;
 
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +43,18 @@ import static org.junit.jupiter.api.Assertions.*;
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     public void setUp() {
         authorRepository.deleteAll();
@@ -48,18 +79,16 @@ import static org.junit.jupiter.api.Assertions.*;
     @Test
     void getByIdTest() {
         Author author1 = new Author();
-        author1.setId(1L);
         author1.setName("John Connor");
-        authorRepository.save(author1);
+        Long id1 = authorRepository.save(author1).getId();
 
         Author author2 = new Author();
-        author2.setId(2L);
         author2.setName("Sarah Connor");
-        authorRepository.save(author2);
+        Long id2 = authorRepository.save(author2).getId();
 
-        Author foundAuthor1 = authorRepository.findById(1L).orElse(null);
-        Author foundAuthor2 = authorRepository.findById(2L).orElse(null);
-        Author foundAuthor3 = authorRepository.findById(3L).orElse(null);
+        Author foundAuthor1 = authorRepository.findById(id1).orElse(null);
+        Author foundAuthor2 = authorRepository.findById(id2).orElse(null);
+        Author foundAuthor3 = authorRepository.findById(id2 + 1).orElse(null);
         assertThat(foundAuthor1).isNotNull();
         assertThat(foundAuthor2).isNotNull();
         assertThat(foundAuthor3).isNull();
@@ -75,12 +104,10 @@ import static org.junit.jupiter.api.Assertions.*;
     void getAllTest() {
 
         Author author1 = new Author();
-        author1.setId(1L);
         author1.setName("John Connor");
         authorRepository.save(author1);
 
         Author author2 = new Author();
-        author2.setId(2L);
         author2.setName("Sarah Connor");
         authorRepository.save(author2);
 
@@ -135,4 +162,142 @@ import static org.junit.jupiter.api.Assertions.*;
         assert authorRepository.findById(id).isPresent();
         assertEquals("Sam Connor", authorRepository.findById(id).get().getName());
     }
+
+    @Test
+    void saveAllShouldBatchInserts() {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            authors.add(new Author("Author " + i, "author" + i + "@example.com"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        authorRepository.saveAll(authors);
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(120, authorRepository.count());
+    }
+
+    @Test
+    void versionStampShouldCoverAuthorAndPosts() {
+        Author author = authorRepository.save(new Author("author", "author@example.com"));
+        assertEquals(Optional.of("0.0.0.0.0"), authorRepository.findVersionStampById(author.getId()));
+
+        Author loaded = authorRepository.findById(author.getId()).orElseThrow();
+        loaded.setName("renamed");
+        authorRepository.save(loaded);
+        assertEquals(Optional.of("1.0.0.0.0"), authorRepository.findVersionStampById(author.getId()));
+        assertEquals(Optional.empty(), authorRepository.findVersionStampById(author.getId() + 1000));
+    }
+
+    @Test
+    void versionStampShouldChangeWhenPostIsDeletedAndAnotherCreated() {
+        Author author = authorRepository.save(new Author("author", "author@example.com"));
+        Post first = postRepository.save(new Post(null, "first", "content", author));
+        String before = authorRepository.findVersionStampById(author.getId()).orElseThrow();
+        assertEquals("0.1.0." + first.getId() + "." + first.getId(), before);
+
+        postRepository.deleteById(first.getId());
+        Post second = postRepository.save(new Post(null, "second", "content", author));
+
+        String after = authorRepository.findVersionStampById(author.getId()).orElseThrow();
+        assertEquals("0.1.0." + second.getId() + "." + second.getId(), after);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void dtoProjectionsShouldReadAuthorsAndPostSummariesWithoutLoadingEntities() {
+        List<Author> authors = authorRepository.saveAll(List.of(
+                new Author("author1", "author1@example.com"), new Author("author2", "author2@example.com")));
+        postRepository.saveAll(List.of(
+                new Post(null, "title1", "content1", authors.get(0)),
+                new Post(null, "title2", "content2", authors.get(0)),
+                new Post(null, "orphan", "content", null)));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AuthorDTO> all = authorRepository.findAllDtos();
+                assertEquals(2, all.size());
+                assertEquals("author1@example.com", all.get(0).getEmail());
+                assertEquals(0L, all.get(0).getVersion());
+
+                List<AuthorRepository.AuthorPost> posts = authorRepository.findAllPostSummaries();
+                assertEquals(2, posts.size());
+                assertEquals(authors.get(0).getId(), posts.get(0).getAuthorId());
+                assertEquals("title1", posts.get(0).getTitle());
+                assertEquals(2, authorRepository.findPostSummariesByAuthorIdIn(
+                        List.of(authors.get(0).getId(), authors.get(1).getId())).size());
+
+                assertEquals("author2", authorRepository.findDtosAfter(authors.get(0).getId(), Limit.of(5))
+                        .get(0).getName());
+                Page<AuthorDTO> page = authorRepository.findDtos(PageRequest.of(0, 1, Sort.by("id")));
+                assertEquals(2, page.getTotalElements());
+                assertEquals("author1", page.getContent().get(0).getName());
+            });
+            assertEquals(0, statistics.getEntityLoadCount());
+        } finally {
+            postRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void bulkDeleteShouldRemoveAuthorPostsAndLinksWithoutLoadingThem() {
+        Author author = authorRepository.save(new Author("author", "author@example.com"));
+        Tag tag = tagRepository.save(new Tag("bulk"));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Post post = new Post(null, "title" + i, "content", author);
+            post.setTags(List.of(tag));
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            int count = postRepository.bulkDeleteByAuthorId(author.getId());
+            assertEquals(1, authorRepository.bulkDeleteById(author.getId()));
+            return count;
+        });
+
+        assertEquals(200, deleted);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertFalse(authorRepository.existsById(author.getId()));
+        assertEquals(0, postRepository.findDtosByTagIdAfter(tag.getId(), 0L, Limit.of(10)).size());
+        tagRepository.deleteById(tag.getId());
+    }
+
+    @Test
+    void authorDeleterShouldDeleteInChunks() throws Exception {
+        Author author = authorRepository.save(new Author("author", "author@example.com"));
+        Tag tag = tagRepository.save(new Tag("chunked"));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Post post = new Post(null, "title" + i, "content", author);
+            post.setTags(List.of(tag));
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+        MockEnvironment environment = new MockEnvironment().withProperty("delete.chunk-size", "50");
+
+        DeletionReportDTO report;
+        try (AuthorDeleter deleter = new AuthorDeleter(authorRepository, postRepository,
+                new CacheRegistry(environment), transactionManager, environment)) {
+            report = deleter.deleteInBackground(author.getId()).get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(120, report.getTagLinks());
+        assertEquals(120, report.getPosts());
+        assertEquals(1, report.getAuthors());
+        assertEquals(4, report.getChunks());
+        assertFalse(authorRepository.existsById(author.getId()));
+        tagRepository.deleteById(tag.getId());
+    }
 }
@@ -1,15 +1,32 @@
 package org.example.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.PostDTO;
+import org.example.entity.Author;
 import org.example.entity.Post;
+import org.example.entity.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -20,6 +37,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void cleanUp() {
         postRepository.deleteAll();
@@ -141,4 +170,252 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
         assert postRepository.findById(id).isPresent();
         assertEquals("new test title", postRepository.findById(id).get().getTitle());
     }
+
+    @Test
+    @Transactional
+    void streamAllDtosTest() {
+        Post post1 = new Post();
+        post1.setTitle("test title1");
+        post1.setContent("test content1");
+        postRepository.save(post1);
+
+        Post post2 = new Post();
+        post2.setTitle("test title2");
+        post2.setContent("test content2");
+        postRepository.save(post2);
+
+        try (Stream<PostDTO> posts = postRepository.streamAllDtos()) {
+            List<String> titles = posts.map(PostDTO::getTitle).collect(Collectors.toList());
+            assertEquals(List.of("test title1", "test title2"), titles);
+        }
+    }
+
+    @Test
+    void streamedPostsAndTheirTagsShouldBeReadInTwoQueries() {
+        List<Tag> tags = tagRepository.saveAll(List.of(new Tag("tag1"), new Tag("tag2")));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Post post = new Post(null, "title" + i, "content" + i, null);
+            post.setTags(List.of(tags.get(i % 2)));
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PostDTO> stream = postRepository.streamAllDtos()) {
+                    List<Long> ids = stream.map(PostDTO::getId).collect(Collectors.toList());
+                    assertEquals(12, ids.size());
+                    assertEquals(12, postRepository.findTagLinksByPostIdIn(ids).size());
+                }
+            });
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+        } finally {
+            postRepository.deleteAll();
+            tagRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void postsShouldLoadWithAuthorsAndCachedTagsInConstantQueries() {
+        List<Author> authors = authorRepository.saveAll(List.of(
+                new Author("author1", "author1@example.com"),
+                new Author("author2", "author2@example.com"),
+                new Author("author3", "author3@example.com")));
+        List<Tag> tags = tagRepository.saveAll(List.of(new Tag("tag1"), new Tag("tag2"), new Tag("tag3")));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Post post = new Post(null, "title" + i, "content" + i, authors.get(i % 3));
+            post.setTags(List.of(tags.get(i % 3), tags.get((i + 1) % 3)));
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+        Long id = posts.get(0).getId();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Post> all = postRepository.findAll();
+                assertEquals(12, all.size());
+                all.forEach(PostRepositoryTest::touchAssociations);
+            });
+            assertEquals(2, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status ->
+                    postRepository.findAll().forEach(PostRepositoryTest::touchAssociations));
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status ->
+                    touchAssociations(postRepository.findWithAuthorById(id).orElseThrow()));
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> postRepository
+                    .findByIdIn(posts.subList(0, 10).stream().map(Post::getId).collect(Collectors.toList()))
+                    .forEach(PostRepositoryTest::touchAssociations));
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+            assertEquals(10, statistics.getCollectionStatistics(Post.class.getName() + ".tags").getCacheHitCount());
+        } finally {
+            postRepository.deleteAll();
+            tagRepository.deleteAll();
+            authorRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void postsByTagsShouldBeKeysetPaginated() {
+        List<Tag> tags = tagRepository.saveAll(List.of(new Tag("java"), new Tag("sql"), new Tag("go")));
+        Tag java = tags.get(0);
+        Tag sql = tags.get(1);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Post post = new Post(null, "title" + i, "content" + i, null);
+            post.setTags(i % 2 == 0 ? List.of(java, sql) : List.of(java));
+            posts.add(post);
+        }
+        Post untagged = new Post(null, "untagged", "content", null);
+        untagged.setTags(List.of(tags.get(2)));
+        posts.add(untagged);
+        postRepository.saveAll(posts);
+        try {
+            List<PostDTO> firstPage = postRepository.findDtosByTagIdAfter(java.getId(), 0L, Limit.of(3));
+            assertEquals(List.of("title0", "title1", "title2"),
+                    firstPage.stream().map(PostDTO::getTitle).collect(Collectors.toList()));
+            List<PostDTO> secondPage = postRepository.findDtosByTagIdAfter(java.getId(), firstPage.get(2).getId(), Limit.of(3));
+            assertEquals(List.of("title3", "title4"),
+                    secondPage.stream().map(PostDTO::getTitle).collect(Collectors.toList()));
+
+            assertEquals(List.of("title0", "title2", "title4"), postRepository
+                    .findDtosByAllTagNamesAfter(List.of("java", "sql"), 2, 0L, Limit.of(10)).stream()
+                    .map(PostDTO::getTitle).collect(Collectors.toList()));
+            assertEquals(List.of("title4"), postRepository
+                    .findDtosByAllTagNamesAfter(List.of("java", "sql"), 2, posts.get(2).getId(), Limit.of(10)).stream()
+                    .map(PostDTO::getTitle).collect(Collectors.toList()));
+            assertEquals(List.of("title0", "title2", "title4", "untagged"), postRepository
+                    .findDtosByAnyTagNameAfter(List.of("sql", "go"), 0L, Limit.of(10)).stream()
+                    .map(PostDTO::getTitle).collect(Collectors.toList()));
+        } finally {
+            postRepository.deleteAll();
+            tagRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void dtoProjectionsShouldReadPostsAndTagsWithoutLoadingEntities() {
+        Author author = authorRepository.save(new Author("author", "author@example.com"));
+        List<Tag> tags = tagRepository.saveAll(List.of(new Tag("java"), new Tag("sql")));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Post post = new Post(null, "title" + i, "content" + i, i < 3 ? author : null);
+            post.setTags(i % 2 == 0 ? List.of(tags.get(0), tags.get(1)) : List.of(tags.get(0)));
+            posts.add(post);
+        }
+        postRepository.saveAll(posts);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                List<PostDTO> all = postRepository.findAllDtos();
+                assertEquals(List.of("title0", "title1", "title2", "title3"),
+                        all.stream().map(PostDTO::getTitle).collect(Collectors.toList()));
+                assertEquals(author.getId(), all.get(0).getAuthorId());
+                assertEquals(null, all.get(3).getAuthorId());
+                assertEquals(0L, all.get(0).getVersion());
+                assertEquals(6, postRepository.findAllTagLinks().size());
+
+                List<PostDTO> firstPage = postRepository.findDtosAfter(0L, Limit.of(2));
+                assertEquals(List.of("title0", "title1"),
+                        firstPage.stream().map(PostDTO::getTitle).collect(Collectors.toList()));
+                List<PostRepository.TagLink> links = postRepository.findTagLinksByPostIdIn(
+                        firstPage.stream().map(PostDTO::getId).collect(Collectors.toList()));
+                assertEquals(3, links.size());
+                assertEquals("java", links.get(0).getName());
+
+                Page<PostDTO> page = postRepository.findDtos(PageRequest.of(1, 3, Sort.by("id")));
+                assertEquals(4, page.getTotalElements());
+                assertEquals("title3", page.getContent().get(0).getTitle());
+
+                assertEquals(List.of("title0", "title2"), postRepository
+                        .findDtosByTagIdAfter(tags.get(1).getId(), 0L, Limit.of(10)).stream()
+                        .map(PostDTO::getTitle).collect(Collectors.toList()));
+                assertEquals(2, postRepository
+                        .findDtosByAllTagNamesAfter(List.of("java", "sql"), 2, 0L, Limit.of(10)).size());
+                assertEquals(4, postRepository.findDtosByAnyTagNameAfter(List.of("java"), 0L, Limit.of(10)).size());
+            });
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+        } finally {
+            postRepository.deleteAll();
+            tagRepository.deleteAll();
+            authorRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void versionStampShouldCoverPostAndTags() {
+        Tag tag = tagRepository.save(new Tag("java"));
+        Post post = new Post(null, "title", "content", null);
+        post.setTags(new ArrayList<>(List.of(tag)));
+        post = postRepository.save(post);
+        try {
+            assertEquals(Optional.of("0.1.0." + tag.getId() + "." + tag.getId()), postRepository.findVersionStampById(post.getId()));
+
+            tag.setName("jvm");
+            tagRepository.save(tag);
+            assertEquals(Optional.of("0.1.1." + tag.getId() + "." + tag.getId()), postRepository.findVersionStampById(post.getId()));
+
+            Post loaded = postRepository.findById(post.getId()).orElseThrow();
+            loaded.setTitle("new title");
+            postRepository.save(loaded);
+            assertEquals(Optional.of("1.1.1." + tag.getId() + "." + tag.getId()), postRepository.findVersionStampById(post.getId()));
+
+            assertEquals(Optional.empty(), postRepository.findVersionStampById(post.getId() + 1000));
+        } finally {
+            postRepository.deleteAll();
+            tagRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void searchByPatternShouldRankTitleMatchesFirstAndResumeFromKeyset() {
+        Post contentMatch = postRepository.save(new Post(null, "other", "all about Caching", null));
+        Post titleMatch1 = postRepository.save(new Post(null, "Caching basics", "intro", null));
+        Post titleMatch2 = postRepository.save(new Post(null, "more caching", "details", null));
+        postRepository.save(new Post(null, "unrelated", "nothing here", null));
+        postRepository.save(new Post(null, "100% done", "cach_ing", null));
+
+        List<PostRepository.SearchHit> firstPage =
+                postRepository.searchByPattern("%caching%", Double.MAX_VALUE, 0L, Limit.of(2));
+        assertEquals(List.of(titleMatch1.getId(), titleMatch2.getId()),
+                firstPage.stream().map(PostRepository.SearchHit::getId).collect(Collectors.toList()));
+        assertEquals(2.0, firstPage.get(1).getRank());
+
+        PostRepository.SearchHit last = firstPage.get(1);
+        List<PostRepository.SearchHit> secondPage =
+                postRepository.searchByPattern("%caching%", last.getRank(), last.getId(), Limit.of(2));
+        assertEquals(1, secondPage.size());
+        assertEquals(contentMatch.getId(), secondPage.get(0).getId());
+        assertEquals(1.0, secondPage.get(0).getRank());
+
+        assertEquals(1, postRepository.searchByPattern("%cach\\_ing%", Double.MAX_VALUE, 0L, Limit.of(2)).size());
+        assertEquals(1, postRepository.searchByPattern("%100\\%%", Double.MAX_VALUE, 0L, Limit.of(2)).size());
+    }
+
+    private static void touchAssociations(Post post) {
+        assertEquals(2, post.getTags().size());
+        assertThat(post.getAuthor().getName()).startsWith("author");
+    }
 }
@@ -1,17 +1,37 @@
 package org.example.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.RegionStatsDTO;
+import org.example.dto.TagDTO;
+import org.example.entity.Post;
 import org.example.entity.Tag;
+import org.example.metrics.SecondLevelCacheMetrics;
+import org.example.service.BatchPersister;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringJUnitConfig(DBConfigurationClass.class)
 @ComponentScan(basePackages = "org.example.repository")
@@ -19,6 +39,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Environment environment;
+
     @BeforeEach
     public void cleanUp() {
         tagRepository.deleteAll();
@@ -128,4 +160,146 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
         assertEquals(id, foundedTag.getId());
     }
+
+    @Test
+    void batchPersisterShouldBatchInserts() {
+        BatchPersister batchPersister = new BatchPersister(transactionManager, environment);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            names.add("tag " + i);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchResultDTO result = batchPersister.persist(names, Tag::new, tagRepository, Tag::getId);
+
+        assertEquals(600, result.getCreated());
+        assertEquals(600, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getSuccessfulTransactionCount());
+        assertTrue(statistics.getPrepareStatementCount() < 60,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(600, tagRepository.count());
+    }
+
+    @Test
+    void findAllShouldUseQueryCache() {
+        tagRepository.saveAll(List.of(new Tag("tag1"), new Tag("tag2")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        tagRepository.findAll();
+
+        statistics.clear();
+        assertEquals(2, tagRepository.findAll().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        List<RegionStatsDTO> regions = new SecondLevelCacheMetrics(entityManagerFactory).snapshot();
+        assertTrue(regions.stream().anyMatch(region -> region.getRegion().equals("default-query-results-region")
+                && region.getHitCount() == 1));
+
+        tagRepository.save(new Tag("tag3"));
+        statistics.clear();
+        assertEquals(3, tagRepository.findAll().size());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    void dtoProjectionsShouldUseQueryCacheWithoutLoadingEntities() {
+        tagRepository.saveAll(List.of(new Tag("tag1"), new Tag("tag2"), new Tag("tag3")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        tagRepository.findAllDtos();
+
+        statistics.clear();
+        List<TagDTO> all = tagRepository.findAllDtos();
+        assertEquals(3, all.size());
+        assertEquals("tag1", all.get(0).getName());
+        assertEquals(0L, all.get(0).getVersion());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        List<TagDTO> secondPage = tagRepository.findDtosAfter(all.get(1).getId(), Limit.of(2));
+        assertEquals(1, secondPage.size());
+        assertEquals("tag3", secondPage.get(0).getName());
+        Page<TagDTO> page = tagRepository.findDtos(PageRequest.of(0, 2, Sort.by("id")));
+        assertEquals(3, page.getTotalElements());
+        assertEquals("tag2", page.getContent().get(1).getName());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void versionStampShouldChangeOnEveryWrite() {
+        assertEquals("0.0.0.0", tagRepository.findVersionStamp());
+
+        List<Tag> tags = tagRepository.saveAll(List.of(new Tag("tag1"), new Tag("tag2")));
+        Long minId = tags.get(0).getId();
+        Long maxId = tags.get(1).getId();
+        String created = tagRepository.findVersionStamp();
+        assertEquals("2.0." + (minId + maxId) + "." + maxId, created);
+
+        Tag tag = tags.get(0);
+        tag.setName("renamed");
+        tagRepository.save(tag);
+        assertEquals("2.1." + (minId + maxId) + "." + maxId, tagRepository.findVersionStamp());
+
+        tagRepository.deleteById(tag.getId());
+        assertEquals("1.0." + maxId + "." + maxId, tagRepository.findVersionStamp());
+    }
+
+    @Test
+    void versionStampShouldChangeWhenTagIsDeletedAndOneWithLowerIdCreated() {
+        insertTag(1_000_001L);
+        insertTag(1_000_003L);
+        insertTag(1_000_005L);
+        String before = tagRepository.findVersionStamp();
+
+        tagRepository.deleteById(1_000_003L);
+        insertTag(1_000_002L);
+
+        String after = tagRepository.findVersionStamp();
+        assertNotEquals(before, after);
+        assertEquals("3.0.3000008.1000005", after);
+    }
+
+    private void insertTag(long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                        .createNativeQuery("INSERT INTO tag (id, name, version) VALUES (?1, ?2, 0)")
+                        .setParameter(1, id)
+                        .setParameter(2, "tag" + id)
+                        .executeUpdate());
+    }
+
+    @Test
+    void conditionalUpdateShouldApplyOnlyToExpectedVersion() {
+        Tag tag = tagRepository.save(new Tag("tag1"));
+        Long id = tag.getId();
+        tagRepository.findById(id);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int updated = transaction.execute(status -> tagRepository.updateIfVersionIn(id, "renamed", List.of(0L)));
+        int stale = transaction.execute(status -> tagRepository.updateIfVersionIn(id, "stale", List.of(0L)));
+
+        assertEquals(1, updated);
+        assertEquals(0, stale);
+        Tag found = tagRepository.findById(id).orElseThrow();
+        assertEquals("renamed", found.getName());
+        assertEquals(1L, found.getVersion());
+    }
+
+    @Test
+    void bulkDeleteShouldUnlinkPosts() {
+        Tag tag = tagRepository.save(new Tag("linked"));
+        Post post = new Post(null, "title", "content");
+        post.setTags(List.of(tag));
+        postRepository.save(post);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int links = transaction.execute(status -> tagRepository.deleteTagLinksByTagId(tag.getId()));
+        int deleted = transaction.execute(status -> tagRepository.bulkDeleteById(tag.getId()));
+        int missing = transaction.execute(status -> tagRepository.bulkDeleteById(tag.getId()));
+
+        assertEquals(1, links);
+        assertEquals(1, deleted);
+        assertEquals(0, missing);
+        assertEquals(0, postRepository.findDtosByTagIdAfter(tag.getId(), 0L, Limit.of(10)).size());
+        postRepository.deleteById(post.getId());
+    }
 }
@@ -1,19 +1,37 @@
 package org.example.service;
 
+import org.example.cache.CacheRegistry;
 import org.example.dto.AuthorDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.DeletionReportDTO;
+import org.example.dto.PageDTO;
+import org.example.dto.PostDTO;
 import org.example.entity.Author;
 import org.example.exceptions.UserNotFoundException;
+import org.example.exceptions.VersionConflictException;
 import org.example.mapper.AuthorMapper;
 import org.example.repository.AuthorRepository;
+import org.example.repository.PostRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,9 +41,21 @@ class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
     @Mock
     private AuthorMapper authorMapper;
 
+    @Mock
+    private BatchPersister batchPersister;
+
+    @Mock
+    private AuthorDeleter authorDeleter;
+
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new StandardEnvironment());
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -64,35 +94,52 @@ class AuthorServiceTest {
 
     @Test
     void getAllUsers_ShouldReturnListOfUsers_WhenUsersExist() {
-        Author author1 = new Author();
-        author1.setId(1L);
-        author1.setName("Author One");
-        Author author2 = new Author();
-        author2.setId(2L);
-        author2.setName("Author Two");
-
-        AuthorDTO authorDTO1 = new AuthorDTO();
-        authorDTO1.setId(1L);
-        authorDTO1.setName("Author One");
-        AuthorDTO authorDTO2 = new AuthorDTO();
-        authorDTO2.setId(2L);
-        authorDTO2.setName("Author Two");
-
-        when(authorRepository.findAll()).thenReturn(Arrays.asList(author1, author2));
-        when(authorMapper.toDTO(author1)).thenReturn(authorDTO1);
-        when(authorMapper.toDTO(author2)).thenReturn(authorDTO2);
+        AuthorDTO authorDTO1 = new AuthorDTO(1L, 0L, "Author One", "one@example.com");
+        AuthorDTO authorDTO2 = new AuthorDTO(2L, 0L, "Author Two", "two@example.com");
+
+        when(authorRepository.findAllDtos()).thenReturn(Arrays.asList(authorDTO1, authorDTO2));
+        when(authorRepository.findAllPostSummaries()).thenReturn(List.of(authorPost(1L, 10L, "First")));
 
         List<AuthorDTO> result = authorService.getAllUsers();
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
+        assertEquals(List.of(authorDTO1, authorDTO2), result);
+        assertEquals(1, authorDTO1.getPosts().size());
+        assertEquals("First", authorDTO1.getPosts().get(0).getTitle());
+        assertTrue(authorDTO2.getPosts().isEmpty());
+        verify(authorRepository, never()).findAll();
+        verifyNoInteractions(authorMapper);
     }
 
     @Test
     void getAllUsers_ShouldThrowException_WhenNoUsersExist() {
-        when(authorRepository.findAll()).thenReturn(List.of());
+        when(authorRepository.findAllDtos()).thenReturn(List.of());
 
         assertThrows(UserNotFoundException.class, () -> authorService.getAllUsers());
+        verify(authorRepository, never()).findAllPostSummaries();
+    }
+
+    private static AuthorRepository.AuthorPost authorPost(Long authorId, Long id, String title) {
+        return new AuthorRepository.AuthorPost() {
+            @Override
+            public Long getAuthorId() {
+                return authorId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
     }
 
     @Test
@@ -255,22 +302,64 @@ class AuthorServiceTest {
     }
 
     @Test
-    void deleteUser_ShouldDeleteUser_WhenUserExists() {
-        Long userId = 1L;
-        Author author = new Author();
-        author.setId(userId);
+    void updateUser_ShouldThrowConflict_WhenVersionIsStale() {
+        long userId = 1L;
+        AuthorDTO authorDTO = new AuthorDTO(userId, "Updated Name", null);
+        authorDTO.setVersion(2L);
+        when(authorRepository.updateIfVersionIn(userId, "Updated Name", null, List.of(2L))).thenReturn(0);
+        when(authorRepository.existsById(userId)).thenReturn(true);
 
-        when(authorRepository.findById(userId)).thenReturn(Optional.of(author));
+        assertThrows(VersionConflictException.class, () -> authorService.updateUser(userId, authorDTO));
+        verify(authorRepository, never()).findById(anyLong());
+        verify(authorRepository, never()).save(any(Author.class));
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteUserAndPostsInBulk_WhenUserExists() {
+        Long userId = 1L;
+        when(postRepository.bulkDeleteByAuthorId(userId)).thenReturn(10_000);
+        when(authorRepository.bulkDeleteById(userId)).thenReturn(1);
 
         authorService.deleteUser(userId);
 
-        verify(authorRepository, times(1)).deleteById(userId);
+        verify(postRepository).bulkDeleteByAuthorId(userId);
+        verify(authorRepository, never()).findById(anyLong());
+        verify(postRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void deleteUser_ShouldReportDeletedRows() {
+        Long userId = 1L;
+        when(postRepository.deleteTagLinksByAuthorId(userId)).thenReturn(7);
+        when(postRepository.bulkDeleteByAuthorId(userId)).thenReturn(3);
+        when(authorRepository.bulkDeleteById(userId)).thenReturn(1);
+
+        DeletionReportDTO report = authorService.deleteUser(userId);
+
+        assertEquals(7, report.getTagLinks());
+        assertEquals(3, report.getPosts());
+        assertEquals(1, report.getAuthors());
+        InOrder inOrder = inOrder(postRepository, authorRepository);
+        inOrder.verify(postRepository).deleteTagLinksByAuthorId(userId);
+        inOrder.verify(postRepository).bulkDeleteByAuthorId(userId);
+        inOrder.verify(authorRepository).bulkDeleteById(userId);
+    }
+
+    @Test
+    void deleteUserInBackground_ShouldCheckExistenceFirst() {
+        CompletableFuture<DeletionReportDTO> future = new CompletableFuture<>();
+        when(authorRepository.existsById(1L)).thenReturn(true);
+        when(authorDeleter.deleteInBackground(1L)).thenReturn(future);
+
+        assertSame(future, authorService.deleteUserInBackground(1L));
+        assertThrows(UserNotFoundException.class, () -> authorService.deleteUserInBackground(2L));
+        verify(authorDeleter, never()).deleteInBackground(2L);
     }
 
     @Test
     void deleteUser_ShouldThrowException_WhenUserDoesNotExist() {
         Long userId = 1L;
-        when(authorRepository.findById(userId)).thenReturn(Optional.empty());
+        when(authorRepository.bulkDeleteById(userId)).thenReturn(0);
 
         assertThrows(UserNotFoundException.class, () -> authorService.deleteUser(userId));
     }
@@ -334,4 +423,124 @@ class AuthorServiceTest {
         verify(authorMapper).toEntity(authorDTO);
         verify(authorRepository, never()).save(any(Author.class));
     }
+
+    @Test
+    void getUsersPage_ShouldReturnNextCursor_WhenMoreUsersExist() {
+        AuthorDTO authorDTO1 = new AuthorDTO(1L, 0L, "One", "one@example.com");
+        AuthorDTO authorDTO2 = new AuthorDTO(2L, 0L, "Two", "two@example.com");
+        AuthorDTO authorDTO3 = new AuthorDTO(3L, 0L, "Three", "three@example.com");
+
+        when(authorRepository.findDtosAfter(0L, Limit.of(3))).thenReturn(List.of(authorDTO1, authorDTO2, authorDTO3));
+        when(authorRepository.findPostSummariesByAuthorIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(authorPost(2L, 10L, "First"), authorPost(2L, 11L, "Second")));
+
+        CursorPageDTO<AuthorDTO> page = authorService.getUsersPage(null, 2);
+
+        assertEquals(List.of(authorDTO1, authorDTO2), page.getItems());
+        assertEquals("2", page.getNextCursor());
+        assertEquals(2, page.getLimit());
+        assertTrue(authorDTO1.getPosts().isEmpty());
+        assertEquals(2, authorDTO2.getPosts().size());
+        assertNull(authorDTO3.getPosts());
+    }
+
+    @Test
+    void getUsersPage_ShouldNotReturnCursor_OnLastPage() {
+        when(authorRepository.findDtosAfter(5L, Limit.of(11)))
+                .thenReturn(List.of(new AuthorDTO(6L, 0L, "Six", "six@example.com")));
+
+        CursorPageDTO<AuthorDTO> page = authorService.getUsersPage(5L, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUsersPage_ShouldCapLimit() {
+        when(authorRepository.findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1))).thenReturn(List.of());
+
+        CursorPageDTO<AuthorDTO> page = authorService.getUsersPage(null, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(Pagination.MAX_LIMIT, page.getLimit());
+        verify(authorRepository).findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1));
+        verify(authorRepository, never()).findPostSummariesByAuthorIdIn(any());
+    }
+
+    @Test
+    void getUsersOffsetPage_ShouldCapPageSize() {
+        AuthorDTO authorDTO = new AuthorDTO(1L, 0L, "One", "one@example.com");
+        PageRequest expectedRequest = PageRequest.of(0, Pagination.MAX_PAGE_SIZE, Sort.by("id"));
+
+        when(authorRepository.findDtos(expectedRequest)).thenReturn(new PageImpl<>(List.of(authorDTO), expectedRequest, 1));
+
+        PageDTO<AuthorDTO> page = authorService.getUsersOffsetPage(-1, 10_000);
+
+        assertEquals(List.of(authorDTO), page.getItems());
+        assertEquals(0, page.getPage());
+        assertEquals(Pagination.MAX_PAGE_SIZE, page.getSize());
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateUsers() {
+        AuthorDTO valid = new AuthorDTO();
+        valid.setId(7L);
+        AuthorDTO invalid = new AuthorDTO();
+        List<AuthorDTO> authorDTOs = List.of(valid, invalid);
+        BatchResultDTO batchResult = new BatchResultDTO(List.of());
+        when(batchPersister.persist(eq(authorDTOs), any(), eq(authorRepository), any())).thenReturn(batchResult);
+
+        assertSame(batchResult, authorService.createUsers(authorDTOs));
+
+        ArgumentCaptor<Function<AuthorDTO, Author>> toEntity = ArgumentCaptor.forClass(Function.class);
+        verify(batchPersister).persist(eq(authorDTOs), toEntity.capture(), eq(authorRepository), any());
+        Author author = new Author();
+        author.setId(7L);
+        author.setName("John Doe");
+        author.setEmail("john.doe@example.com");
+        when(authorMapper.toEntity(valid)).thenReturn(author);
+        when(authorMapper.toEntity(invalid)).thenReturn(new Author());
+        assertNull(toEntity.getValue().apply(valid).getId());
+        assertThrows(IllegalArgumentException.class, () -> toEntity.getValue().apply(invalid));
+    }
+
+    @Test
+    void getUserById_ShouldUseCache_UntilUserIsUpdated() {
+        Long userId = 1L;
+        Author author = new Author("Author Name", "author@example.com");
+        when(authorRepository.findById(userId)).thenReturn(Optional.of(author));
+        when(authorMapper.toDTO(author)).thenReturn(new AuthorDTO(userId, "Author Name", "author@example.com"));
+
+        authorService.getUserById(userId);
+        authorService.getUserById(userId);
+        verify(authorRepository, times(1)).findById(userId);
+
+        authorService.updateUser(userId, new AuthorDTO(userId, "New Name", null));
+        authorService.getUserById(userId);
+        verify(authorRepository, times(3)).findById(userId);
+    }
+
+    @Test
+    void deleteUser_ShouldEvictUserAndPosts() {
+        Long userId = 1L;
+        when(authorRepository.bulkDeleteById(userId)).thenReturn(1);
+        cacheRegistry.users().get(userId, id -> new AuthorDTO());
+        cacheRegistry.posts().get(5L, id -> new PostDTO());
+
+        authorService.deleteUser(userId);
+
+        assertEquals(0, cacheRegistry.users().stats().getSize());
+        assertEquals(0, cacheRegistry.posts().stats().getSize());
+    }
+
+    @Test
+    void testGetUserETag() {
+        when(authorRepository.findVersionStampById(1L)).thenReturn(Optional.of("0.3.4"));
+        when(authorRepository.findVersionStampById(2L)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of("\"0.3.4\""), authorService.getUserETag(1L));
+        assertEquals(Optional.empty(), authorService.getUserETag(2L));
+    }
 }
@@ -0,0 +1,132 @@
+package org.example.service;
+
+import org.example.dto.BatchItemResultDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.entity.Tag;
+import org.example.exceptions.BatchTooLargeException;
+import org.example.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BatchPersisterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Environment env;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private BatchPersister batchPersister;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Function<String, Tag> toTag = name -> {
+        if (name == null) {
+            throw new IllegalArgumentException("Tag name cannot be empty");
+        }
+        return new Tag(name);
+    };
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(env.getProperty("batch.chunk-size", Integer.class, BatchPersister.DEFAULT_CHUNK_SIZE)).thenReturn(2);
+        when(env.getProperty("batch.max-items", Integer.class, BatchPersister.DEFAULT_MAX_ITEMS)).thenReturn(5);
+        batchPersister = new BatchPersister(transactionManager, env);
+        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Tag> tags = invocation.getArgument(0);
+            tags.forEach(tag -> tag.setId(sequence.incrementAndGet()));
+            return tags;
+        });
+        when(tagRepository.saveAndFlush(any(Tag.class))).thenAnswer(invocation -> {
+            Tag tag = invocation.getArgument(0);
+            tag.setId(sequence.incrementAndGet());
+            return tag;
+        });
+    }
+
+    @Test
+    void testPersistInChunks() {
+        BatchResultDTO result = batchPersister.persist(
+                Arrays.asList("a", "b", null, "c", "d"), toTag, tagRepository, Tag::getId);
+
+        assertEquals(4, result.getCreated());
+        assertEquals(1, result.getFailed());
+        List<BatchItemResultDTO> items = result.getItems();
+        assertEquals(BatchItemResultDTO.Status.INVALID, items.get(2).getStatus());
+        assertEquals("Tag name cannot be empty", items.get(2).getError());
+        assertEquals(1L, items.get(0).getId());
+        assertEquals(4L, items.get(4).getId());
+        verify(tagRepository, times(2)).saveAll(anyList());
+        verify(tagRepository, times(2)).flush();
+        verify(transactionManager, times(2)).commit(any());
+        verify(tagRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testPersistRetriesFailedChunkOneByOne() {
+        doThrow(new DataIntegrityViolationException("duplicate")).when(tagRepository).flush();
+        when(tagRepository.saveAndFlush(argThat(tag -> "bad".equals(tag.getName()))))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        BatchResultDTO result = batchPersister.persist(List.of("good", "bad"), toTag, tagRepository, Tag::getId);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchItemResultDTO.Status.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(BatchItemResultDTO.Status.FAILED, result.getItems().get(1).getStatus());
+        verify(tagRepository, times(2)).saveAndFlush(any(Tag.class));
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMapsItemsInsideChunkTransaction() {
+        Function<String, Tag> mapper = mock(Function.class);
+        when(mapper.apply(anyString())).thenAnswer(invocation -> new Tag(invocation.getArgument(0)));
+
+        batchPersister.persist(List.of("a"), mapper, tagRepository, Tag::getId);
+
+        InOrder inOrder = inOrder(transactionManager, mapper, tagRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(mapper).apply("a");
+        inOrder.verify(tagRepository).saveAll(anyList());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testPersistEmpty() {
+        BatchResultDTO result = batchPersister.persist(List.of(), toTag, tagRepository, Tag::getId);
+
+        assertEquals(0, result.getCreated());
+        assertTrue(result.getItems().isEmpty());
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void testPersistTooLarge() {
+        List<String> names = List.of("a", "b", "c", "d", "e", "f");
+
+        assertThrows(BatchTooLargeException.class,
+                () -> batchPersister.persist(names, toTag, tagRepository, Tag::getId));
+        verifyNoInteractions(tagRepository);
+    }
+}
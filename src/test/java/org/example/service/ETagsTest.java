@@ -0,0 +1,101 @@
+package org.example.service;
+
+import org.example.dto.AuthorDTO;
+import org.example.dto.PostDTO;
+import org.example.dto.PostSummaryDTO;
+import org.example.dto.TagDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    private static TagDTO tag(long id, long version) {
+        TagDTO tag = new TagDTO(id, "tag" + id);
+        tag.setVersion(version);
+        return tag;
+    }
+
+    @Test
+    void testPostETagCoversTags() {
+        PostDTO postDTO = new PostDTO(1L, "title", "content", 1L);
+        postDTO.setVersion(4L);
+        postDTO.setTags(List.of(tag(1L, 2L), tag(2L, 3L)));
+
+        assertEquals("\"4.2.5.3.2\"", ETags.of(postDTO));
+    }
+
+    @Test
+    void testAuthorETagCoversPosts() {
+        AuthorDTO authorDTO = new AuthorDTO(1L, "name", "mail");
+        PostSummaryDTO summary = new PostSummaryDTO(5L, "title");
+        summary.setVersion(1L);
+        authorDTO.setPosts(List.of(summary, new PostSummaryDTO(6L, "other")));
+
+        assertEquals("\"0.2.1.11.6\"", ETags.of(authorDTO));
+    }
+
+    @Test
+    void testAuthorETagChangesWhenPostIsDeletedAndAnotherCreated() {
+        AuthorDTO before = new AuthorDTO(1L, "name", "mail");
+        before.setPosts(List.of(new PostSummaryDTO(5L, "title"), new PostSummaryDTO(6L, "deleted")));
+        AuthorDTO after = new AuthorDTO(1L, "name", "mail");
+        after.setPosts(List.of(new PostSummaryDTO(5L, "title"), new PostSummaryDTO(7L, "created")));
+
+        assertNotEquals(ETags.of(before), ETags.of(after));
+    }
+
+    @Test
+    void testPostETagChangesWhenTagIsSwapped() {
+        PostDTO before = new PostDTO(1L, "title", "content", 1L);
+        before.setTags(List.of(tag(1L, 0L), tag(2L, 0L)));
+        PostDTO after = new PostDTO(1L, "title", "content", 1L);
+        after.setTags(List.of(tag(1L, 0L), tag(3L, 0L)));
+
+        assertNotEquals(ETags.of(before), ETags.of(after));
+    }
+
+    @Test
+    void testTagsETag() {
+        assertEquals("\"2.1.12.9\"", ETags.ofTags(List.of(tag(9L, 1L), tag(3L, 0L))));
+        assertEquals("\"0.0.0.0\"", ETags.ofTags(List.of()));
+        assertNotEquals(ETags.ofTags(List.of(tag(9L, 0L), tag(3L, 0L))), ETags.ofTags(List.of(tag(9L, 0L), tag(2L, 0L))));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(ETags.matches("\"1.0.0\"", "\"1.0.0\""));
+        assertTrue(ETags.matches("W/\"1.0.0\"", "\"1.0.0\""));
+        assertTrue(ETags.matches("\"0.0.0\", \"1.0.0\"", "\"1.0.0\""));
+        assertTrue(ETags.matches("*", "\"1.0.0\""));
+        assertFalse(ETags.matches("\"1.0.1\"", "\"1.0.0\""));
+        assertFalse(ETags.matches(null, "\"1.0.0\""));
+    }
+
+    @Test
+    void testVersions() {
+        assertEquals(List.of(4L), ETags.versions("\"4.2.5\""));
+        assertEquals(List.of(1L, 3L), ETags.versions("\"1\", W/\"2.0.0\", \"3.0.0\", \"x\""));
+        assertEquals(List.of(), ETags.versions("W/\"1.0.0\""));
+        assertNull(ETags.versions("*"));
+        assertEquals("\"7\"", ETags.of(tag(1L, 7L)));
+    }
+
+    @Test
+    void testEncodingSuffixIsIgnored() {
+        assertEquals(List.of(7L, 4L), ETags.versions("\"7-gzip\", \"4.2.5.3.2-zstd\""));
+        assertTrue(ETags.matches("\"1.0.0-gzip\"", "\"1.0.0\""));
+        assertTrue(ETags.matches("W/\"1.0.0-zstd\"", "\"1.0.0\""));
+        assertFalse(ETags.matches("\"1.0.1-gzip\"", "\"1.0.0\""));
+    }
+
+    @Test
+    void testRepresentationSuffixIsIgnored() {
+        assertEquals(List.of(7L, 4L), ETags.versions("\"7-cbor\", \"4.2.5.3.2-cbor-gzip\""));
+        assertTrue(ETags.matches("\"1.0.0-cbor\"", "\"1.0.0\""));
+        assertTrue(ETags.matches("\"1.0.0-cbor-zstd\"", "\"1.0.0\""));
+        assertFalse(ETags.matches("\"1.0.1-cbor-gzip\"", "\"1.0.0\""));
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.service;
+
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PostDTO;
+import org.example.entity.Post;
+import org.example.mapper.PostMapper;
+import org.example.repository.PostRepository;
+import org.example.repository.PostRepository.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PostSearchServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    private PostSearchService postSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        postSearchService = new PostSearchService(postRepository, postMapper, environment("org.h2.Driver"));
+        when(postMapper.toDTO(any(Post.class))).thenAnswer(invocation -> {
+            Post post = invocation.getArgument(0);
+            return new PostDTO(post.getId(), post.getTitle(), post.getContent(), null);
+        });
+    }
+
+    private static StandardEnvironment environment(String driver) {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test", Map.of("jdbc.driver", driver)));
+        return env;
+    }
+
+    private static SearchHit hit(long id, double rank) {
+        return new SearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getRank() {
+                return rank;
+            }
+        };
+    }
+
+    @Test
+    void testSearchPostsFirstPageKeepsRankOrder() {
+        when(postRepository.searchByPattern("%java%", Double.MAX_VALUE, 0L, Limit.of(3)))
+                .thenReturn(List.of(hit(5L, 2.0), hit(2L, 1.0), hit(3L, 1.0)));
+        when(postRepository.findByIdIn(List.of(5L, 2L))).thenReturn(List.of(
+                new Post(2L, "b", "about java", null), new Post(5L, "Java", "a", null)));
+
+        CursorPageDTO<PostDTO> page = postSearchService.searchPosts(" Java ", null, 2);
+
+        assertEquals(List.of(5L, 2L), page.getItems().stream().map(PostDTO::getId).collect(Collectors.toList()));
+        assertEquals("1.0:2", page.getNextCursor());
+        assertEquals(2, page.getLimit());
+    }
+
+    @Test
+    void testSearchPostsResumesFromCursor() {
+        when(postRepository.searchByPattern("%java%", 1.0, 2L, Limit.of(3))).thenReturn(List.of(hit(3L, 1.0)));
+        when(postRepository.findByIdIn(List.of(3L))).thenReturn(List.of(new Post(3L, "c", "java", null)));
+
+        CursorPageDTO<PostDTO> page = postSearchService.searchPosts("java", "1.0:2", 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testSearchPostsEscapesLikeWildcards() {
+        postSearchService.searchPosts("100%_\\", null, 20);
+
+        verify(postRepository).searchByPattern(eq("%100\\%\\_\\\\%"), anyDouble(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testSearchPostsUsesFullTextOnPostgres() {
+        postSearchService = new PostSearchService(postRepository, postMapper, environment("org.postgresql.Driver"));
+        when(postRepository.searchFullText("java streams", Double.MAX_VALUE, 0L, 21))
+                .thenReturn(List.of(hit(7L, 0.6)));
+        when(postRepository.findByIdIn(List.of(7L))).thenReturn(List.of(new Post(7L, "Java streams", "", null)));
+
+        CursorPageDTO<PostDTO> page = postSearchService.searchPosts("java streams", null, 20);
+
+        assertEquals(7L, page.getItems().get(0).getId());
+        verify(postRepository, never()).searchByPattern(anyString(), anyDouble(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testSearchPostsRejectsBlankQuery() {
+        assertThrows(IllegalArgumentException.class, () -> postSearchService.searchPosts(" ", null, 20));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void testSearchPostsRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> postSearchService.searchPosts("java", "abc", 20));
+        assertThrows(IllegalArgumentException.class, () -> postSearchService.searchPosts("java", "1.0:x", 20));
+        verify(postRepository, never()).searchFullText(anyString(), anyDouble(), anyLong(), anyInt());
+    }
+}
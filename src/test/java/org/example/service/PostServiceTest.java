@@ -3,19 +3,37 @@ package org.example.service;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import jakarta.persistence.EntityManager;
+import org.example.cache.CacheRegistry;
+import org.example.dto.AuthorDTO;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
 import org.example.dto.PostDTO;
+import org.example.entity.Author;
 import org.example.entity.Post;
 import org.example.exceptions.PostNotFoundException;
 import org.example.mapper.PostMapper;
 import org.example.repository.PostRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 class PostServiceTest {
 
@@ -25,6 +43,15 @@ class PostServiceTest {
     @Mock
     private PostMapper postMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BatchPersister batchPersister;
+
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new StandardEnvironment());
+
     @InjectMocks
     private PostService postService;
 
@@ -38,44 +65,72 @@ class PostServiceTest {
         Long postId = 1L;
         Post post = new Post();
         PostDTO postDTO = new PostDTO();
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(postRepository.findWithAuthorById(postId)).thenReturn(Optional.of(post));
         when(postMapper.toDTO(post)).thenReturn(postDTO);
 
         PostDTO result = postService.getPostById(postId);
 
         assertNotNull(result);
-        verify(postRepository).findById(postId);
+        verify(postRepository).findWithAuthorById(postId);
         verify(postMapper).toDTO(post);
     }
 
     @Test
     void testGetPostById_NotFound() {
         Long postId = 1L;
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postRepository.findWithAuthorById(postId)).thenReturn(Optional.empty());
 
         assertThrows(PostNotFoundException.class, () -> postService.getPostById(postId));
     }
 
     @Test
     void testGetAllPosts() {
-        Post post = new Post();
-        PostDTO postDTO = new PostDTO();
-        when(postRepository.findAll()).thenReturn(List.of(post));
-        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        PostDTO postDTO1 = new PostDTO(1L, 0L, "title1", "content1", 1L);
+        PostDTO postDTO2 = new PostDTO(2L, 0L, "title2", "content2", 1L);
+        when(postRepository.findAllDtos()).thenReturn(List.of(postDTO1, postDTO2));
+        when(postRepository.findAllTagLinks()).thenReturn(List.of(tagLink(2L, 5L, "java"), tagLink(9L, 6L, "sql")));
 
         List<PostDTO> result = postService.getAllPosts();
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
-        verify(postRepository).findAll();
-        verify(postMapper).toDTO(post);
+        assertEquals(List.of(postDTO1, postDTO2), result);
+        assertTrue(postDTO1.getTags().isEmpty());
+        assertEquals(1, postDTO2.getTags().size());
+        assertEquals(5L, postDTO2.getTags().get(0).getId());
+        assertEquals("java", postDTO2.getTags().get(0).getName());
+        verify(postRepository, never()).findAll();
+        verifyNoInteractions(postMapper);
     }
 
     @Test
     void testGetAllPosts_EmptyList() {
-        when(postRepository.findAll()).thenReturn(List.of());
+        when(postRepository.findAllDtos()).thenReturn(List.of());
 
         assertThrows(PostNotFoundException.class, () -> postService.getAllPosts());
+        verify(postRepository, never()).findAllTagLinks();
+    }
+
+    private static PostRepository.TagLink tagLink(Long postId, Long id, String name) {
+        return new PostRepository.TagLink() {
+            @Override
+            public Long getPostId() {
+                return postId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
     }
 
     @Test
@@ -148,19 +203,245 @@ class PostServiceTest {
     @Test
     void testDeletePost() {
         Long postId = 1L;
-        when(postRepository.findById(postId)).thenReturn(Optional.of(new Post()));
+        when(postRepository.bulkDeleteById(postId)).thenReturn(1);
 
         postService.deletePost(postId);
 
-        verify(postRepository).findById(postId);
-        verify(postRepository).deleteById(postId);
+        verify(postRepository).bulkDeleteById(postId);
+        verify(postRepository, never()).findById(anyLong());
     }
 
     @Test
     void testDeletePost_NotFound() {
         Long postId = 1L;
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postRepository.bulkDeleteById(postId)).thenReturn(0);
 
         assertThrows(PostNotFoundException.class, () -> postService.deletePost(postId));
     }
+
+    @Test
+    void getPostsPage_ShouldReturnNextCursor_WhenMorePostsExist() {
+        PostDTO postDTO1 = new PostDTO(1L, 0L, "title1", "content1", 1L);
+        PostDTO postDTO2 = new PostDTO(2L, 0L, "title2", "content2", 1L);
+        PostDTO postDTO3 = new PostDTO(3L, 0L, "title3", "content3", 1L);
+
+        when(postRepository.findDtosAfter(0L, Limit.of(3))).thenReturn(List.of(postDTO1, postDTO2, postDTO3));
+        when(postRepository.findTagLinksByPostIdIn(List.of(1L, 2L))).thenReturn(List.of(tagLink(1L, 5L, "java")));
+
+        CursorPageDTO<PostDTO> page = postService.getPostsPage(null, 2);
+
+        assertEquals(List.of(postDTO1, postDTO2), page.getItems());
+        assertEquals("2", page.getNextCursor());
+        assertEquals(2, page.getLimit());
+        assertEquals("java", postDTO1.getTags().get(0).getName());
+        assertTrue(postDTO2.getTags().isEmpty());
+        assertNull(postDTO3.getTags());
+    }
+
+    @Test
+    void getPostsPage_ShouldNotReturnCursor_OnLastPage() {
+        when(postRepository.findDtosAfter(5L, Limit.of(11)))
+                .thenReturn(List.of(new PostDTO(6L, 0L, "title", "content", 1L)));
+
+        CursorPageDTO<PostDTO> page = postService.getPostsPage(5L, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPostsPage_ShouldCapLimit() {
+        when(postRepository.findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1))).thenReturn(List.of());
+
+        CursorPageDTO<PostDTO> page = postService.getPostsPage(null, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(Pagination.MAX_LIMIT, page.getLimit());
+        verify(postRepository).findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1));
+        verify(postRepository, never()).findTagLinksByPostIdIn(any());
+    }
+
+    @Test
+    void getPostsOffsetPage_ShouldCapPageSize() {
+        PostDTO postDTO = new PostDTO(1L, 0L, "title", "content", 1L);
+        PageRequest expectedRequest = PageRequest.of(0, Pagination.MAX_PAGE_SIZE, Sort.by("id"));
+
+        when(postRepository.findDtos(expectedRequest)).thenReturn(new PageImpl<>(List.of(postDTO), expectedRequest, 1));
+
+        PageDTO<PostDTO> page = postService.getPostsOffsetPage(-1, 10_000);
+
+        assertEquals(List.of(postDTO), page.getItems());
+        assertEquals(0, page.getPage());
+        assertEquals(Pagination.MAX_PAGE_SIZE, page.getSize());
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    void testExportPosts_ShouldReadTagsOncePerChunk() {
+        int total = PostService.EXPORT_CHUNK_SIZE * 2 + 1;
+        when(postRepository.streamAllDtos()).thenReturn(Stream.iterate(1L, id -> id + 1).limit(total)
+                .map(id -> new PostDTO(id, 0L, "title" + id, "content", 1L)));
+        when(postRepository.findTagLinksByPostIdIn(anyCollection()))
+                .thenReturn(List.of(tagLink(1L, 5L, "java"), tagLink((long) total, 6L, "sql")));
+        List<PostDTO> exported = new ArrayList<>();
+
+        long count = postService.exportPosts(exported::add);
+
+        assertEquals(total, count);
+        assertEquals(total, exported.size());
+        assertEquals(1L, exported.get(0).getId());
+        assertEquals("java", exported.get(0).getTags().get(0).getName());
+        assertTrue(exported.get(1).getTags().isEmpty());
+        assertEquals(6L, exported.get(total - 1).getTags().get(0).getId());
+        verify(postRepository, times(3)).findTagLinksByPostIdIn(anyCollection());
+        verify(postMapper, never()).toDTO(any(Post.class));
+    }
+
+    @Test
+    void testExportPosts_Empty() {
+        when(postRepository.streamAllDtos()).thenReturn(Stream.empty());
+
+        long count = postService.exportPosts(postDTO -> fail("No posts expected"));
+
+        assertEquals(0, count);
+        verify(postRepository, never()).findTagLinksByPostIdIn(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreatePosts() {
+        List<PostDTO> postDTOs = List.of(new PostDTO(7L, "title", "content", 1L));
+        BatchResultDTO batchResult = new BatchResultDTO(List.of());
+        when(batchPersister.persist(eq(postDTOs), any(), eq(postRepository), any())).thenReturn(batchResult);
+
+        assertSame(batchResult, postService.createPosts(postDTOs));
+
+        ArgumentCaptor<Function<PostDTO, Post>> toEntity = ArgumentCaptor.forClass(Function.class);
+        verify(batchPersister).persist(eq(postDTOs), toEntity.capture(), eq(postRepository), any());
+        when(postMapper.toEntity(postDTOs.get(0))).thenReturn(new Post(7L, "title", "content"));
+        assertNull(toEntity.getValue().apply(postDTOs.get(0)).getId());
+        PostDTO invalid = new PostDTO(8L, null, null, 1L);
+        when(postMapper.toEntity(invalid)).thenReturn(new Post(8L, null, null));
+        assertThrows(IllegalArgumentException.class, () -> toEntity.getValue().apply(invalid));
+    }
+
+    @Test
+    void testGetPostByIdCachedUntilUpdate() {
+        Long postId = 1L;
+        Post post = new Post(postId, "title", "content");
+        when(postRepository.findWithAuthorById(postId)).thenReturn(Optional.of(post));
+        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(postMapper.toDTO(post)).thenReturn(new PostDTO(postId, "title", "content", null));
+
+        postService.getPostById(postId);
+        postService.getPostById(postId);
+        verify(postRepository, times(1)).findWithAuthorById(postId);
+
+        postService.updatePost(postId, new PostDTO(postId, "new title", null, null));
+        postService.getPostById(postId);
+        verify(postRepository, times(2)).findWithAuthorById(postId);
+    }
+
+    @Test
+    void testConditionalUpdateEvictsAuthorWithoutReadingPost() {
+        Long postId = 1L;
+        when(postRepository.updateIfVersionIn(postId, "new title", null, List.of(4L))).thenReturn(1);
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(2L));
+        cacheRegistry.users().get(2L, id -> new AuthorDTO());
+        cacheRegistry.posts().get(postId, id -> new PostDTO());
+
+        postService.updatePost(postId, new PostDTO(postId, "new title", null, null), List.of(4L));
+
+        verify(postRepository, never()).findById(anyLong());
+        assertEquals(0, cacheRegistry.users().stats().getSize());
+        assertEquals(0, cacheRegistry.posts().stats().getSize());
+    }
+
+    @Test
+    void testConditionalUpdateOfMissingPost() {
+        Long postId = 1L;
+        when(postRepository.updateIfVersionIn(postId, "new title", null, List.of(4L))).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(false);
+
+        assertThrows(PostNotFoundException.class,
+                () -> postService.updatePost(postId, new PostDTO(postId, "new title", null, null), List.of(4L)));
+    }
+
+    @Test
+    void testDeletePostEvictsAuthor() {
+        Long postId = 1L;
+        when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(2L));
+        when(postRepository.bulkDeleteById(postId)).thenReturn(1);
+        cacheRegistry.users().get(2L, id -> new AuthorDTO());
+        cacheRegistry.posts().get(postId, id -> new PostDTO());
+
+        postService.deletePost(postId);
+
+        assertEquals(0, cacheRegistry.users().stats().getSize());
+        assertEquals(0, cacheRegistry.posts().stats().getSize());
+    }
+
+    @Test
+    void testGetPostsByTag() {
+        PostDTO postDTO = new PostDTO(4L, 0L, "title", "content", null);
+        when(postRepository.findDtosByTagIdAfter(7L, 0L, Limit.of(3))).thenReturn(List.of(postDTO));
+        when(postRepository.findTagLinksByPostIdIn(List.of(4L))).thenReturn(List.of(tagLink(4L, 7L, "java")));
+
+        CursorPageDTO<PostDTO> page = postService.getPostsByTag(7L, null, 2);
+
+        assertEquals(List.of(postDTO), page.getItems());
+        assertNull(page.getNextCursor());
+        assertEquals(7L, postDTO.getTags().get(0).getId());
+    }
+
+    @Test
+    void testGetPostsByTagsMatchAll() {
+        PostDTO postDTO1 = new PostDTO(1L, 0L, "title1", "content1", 1L);
+        PostDTO postDTO2 = new PostDTO(2L, 0L, "title2", "content2", 1L);
+        when(postRepository.findDtosByAllTagNamesAfter(new LinkedHashSet<>(List.of("java", "sql")), 2, 0L,
+                Limit.of(2))).thenReturn(List.of(postDTO1, postDTO2));
+
+        CursorPageDTO<PostDTO> page = postService.getPostsByTags(List.of("java", " sql", "java", ""), true, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("1", page.getNextCursor());
+        verify(postRepository, never()).findDtosByAnyTagNameAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void testGetPostsByTagsMatchAny() {
+        when(postRepository.findDtosByAnyTagNameAfter(new LinkedHashSet<>(List.of("java")), 5L, Limit.of(21)))
+                .thenReturn(List.of());
+
+        CursorPageDTO<PostDTO> page = postService.getPostsByTags(List.of("java"), false, 5L, 20);
+
+        assertTrue(page.getItems().isEmpty());
+    }
+
+    @Test
+    void testGetPostsByTagsRequiresName() {
+        assertThrows(IllegalArgumentException.class, () -> postService.getPostsByTags(List.of(" "), false, null, 20));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void testGetPostETagFromVersionQuery() {
+        when(postRepository.findVersionStampById(1L)).thenReturn(Optional.of("2.1.0"));
+
+        assertEquals(Optional.of("\"2.1.0\""), postService.getPostETag(1L));
+        verify(postRepository, never()).findWithAuthorById(anyLong());
+    }
+
+    @Test
+    void testGetPostETagFromCache() {
+        Post post = new Post();
+        PostDTO postDTO = new PostDTO(1L, "title", "content", null);
+        postDTO.setVersion(5L);
+        when(postRepository.findWithAuthorById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        postService.getPostById(1L);
+
+        assertEquals(Optional.of("\"5.0.0.0.0\""), postService.getPostETag(1L));
+        verify(postRepository, never()).findVersionStampById(anyLong());
+    }
 }
@@ -3,19 +3,33 @@ package org.example.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import org.example.cache.CacheRegistry;
+import org.example.dto.BatchResultDTO;
+import org.example.dto.CursorPageDTO;
+import org.example.dto.PageDTO;
+import org.example.dto.PostDTO;
 import org.example.dto.TagDTO;
 import org.example.entity.Tag;
 import org.example.exceptions.TagNotFoundException;
+import org.example.exceptions.VersionConflictException;
 import org.example.mapper.TagMapper;
 import org.example.repository.TagRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 class TagServiceTest {
 
@@ -25,6 +39,12 @@ class TagServiceTest {
     @Mock
     private TagMapper tagMapper;
 
+    @Mock
+    private BatchPersister batchPersister;
+
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new StandardEnvironment());
+
     @InjectMocks
     private TagService tagService;
 
@@ -54,22 +74,19 @@ class TagServiceTest {
         long tagId = 1L;
         when(tagRepository.findById(tagId)).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> tagService.getTag(tagId));
+        assertThrows(TagNotFoundException.class, () -> tagService.getTag(tagId));
     }
 
     @Test
     void testGetAllTags() {
-        Tag tag = new Tag();
-        TagDTO tagDTO = new TagDTO();
-        when(tagRepository.findAll()).thenReturn(List.of(tag));
-        when(tagMapper.toDTO(tag)).thenReturn(tagDTO);
+        TagDTO tagDTO = new TagDTO(1L, 0L, "java");
+        when(tagRepository.findAllDtos()).thenReturn(List.of(tagDTO));
 
         List<TagDTO> result = tagService.getAllTags();
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
-        verify(tagRepository).findAll();
-        verify(tagMapper).toDTO(tag);
+        assertEquals(List.of(tagDTO), result);
+        verify(tagRepository, never()).findAll();
+        verifyNoInteractions(tagMapper);
     }
 
     @Test
@@ -106,12 +123,144 @@ class TagServiceTest {
         assertThrows(TagNotFoundException.class, () -> tagService.updateTag(tagId, tagDTO));
     }
 
+    @Test
+    void testUpdateTagWithVersionSkipsRead() {
+        long tagId = 1L;
+        TagDTO tagDTO = new TagDTO(tagId, "NewName");
+        tagDTO.setVersion(3L);
+        when(tagRepository.updateIfVersionIn(tagId, "NewName", List.of(3L))).thenReturn(1);
+
+        tagService.updateTag(tagId, tagDTO);
+
+        verify(tagRepository, never()).findById(anyLong());
+        verify(tagRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateTagVersionConflict() {
+        long tagId = 1L;
+        when(tagRepository.updateIfVersionIn(tagId, "NewName", List.of(3L))).thenReturn(0);
+        when(tagRepository.existsById(tagId)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class,
+                () -> tagService.updateTag(tagId, new TagDTO(tagId, "NewName"), List.of(3L)));
+        assertThrows(VersionConflictException.class,
+                () -> tagService.updateTag(tagId, new TagDTO(tagId, "NewName"), List.of()));
+    }
+
     @Test
     void testDeleteTag() {
         long tagId = 1L;
+        when(tagRepository.bulkDeleteById(tagId)).thenReturn(1);
 
         tagService.deleteTag(tagId);
 
-        verify(tagRepository).deleteById(tagId);
+        verify(tagRepository).deleteTagLinksByTagId(tagId);
+        verify(tagRepository).bulkDeleteById(tagId);
+    }
+
+    @Test
+    void testDeleteTag_NotFound() {
+        long tagId = 1L;
+        when(tagRepository.bulkDeleteById(tagId)).thenReturn(0);
+
+        assertThrows(TagNotFoundException.class, () -> tagService.deleteTag(tagId));
+    }
+
+    @Test
+    void getTagsPage_ShouldReturnNextCursor_WhenMoreTagsExist() {
+        TagDTO tagDTO1 = new TagDTO(1L, 0L, "a");
+        TagDTO tagDTO2 = new TagDTO(2L, 0L, "b");
+        TagDTO tagDTO3 = new TagDTO(3L, 0L, "c");
+
+        when(tagRepository.findDtosAfter(0L, Limit.of(3))).thenReturn(List.of(tagDTO1, tagDTO2, tagDTO3));
+
+        CursorPageDTO<TagDTO> page = tagService.getTagsPage(null, 2);
+
+        assertEquals(List.of(tagDTO1, tagDTO2), page.getItems());
+        assertEquals("2", page.getNextCursor());
+        assertEquals(2, page.getLimit());
+    }
+
+    @Test
+    void getTagsPage_ShouldNotReturnCursor_OnLastPage() {
+        when(tagRepository.findDtosAfter(5L, Limit.of(11))).thenReturn(List.of(new TagDTO(6L, 0L, "f")));
+
+        CursorPageDTO<TagDTO> page = tagService.getTagsPage(5L, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTagsPage_ShouldCapLimit() {
+        when(tagRepository.findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1))).thenReturn(List.of());
+
+        CursorPageDTO<TagDTO> page = tagService.getTagsPage(null, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(Pagination.MAX_LIMIT, page.getLimit());
+        verify(tagRepository).findDtosAfter(0L, Limit.of(Pagination.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void getTagsOffsetPage_ShouldCapPageSize() {
+        TagDTO tagDTO = new TagDTO(1L, 0L, "java");
+        PageRequest expectedRequest = PageRequest.of(0, Pagination.MAX_PAGE_SIZE, Sort.by("id"));
+
+        when(tagRepository.findDtos(expectedRequest)).thenReturn(new PageImpl<>(List.of(tagDTO), expectedRequest, 1));
+
+        PageDTO<TagDTO> page = tagService.getTagsOffsetPage(-1, 10_000);
+
+        assertEquals(List.of(tagDTO), page.getItems());
+        assertEquals(0, page.getPage());
+        assertEquals(Pagination.MAX_PAGE_SIZE, page.getSize());
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAddTags() {
+        TagDTO valid = new TagDTO(7L, "tag");
+        TagDTO invalid = new TagDTO(8L, null);
+        List<TagDTO> tagDTOs = List.of(valid, invalid);
+        BatchResultDTO batchResult = new BatchResultDTO(List.of());
+        when(batchPersister.persist(eq(tagDTOs), any(), eq(tagRepository), any())).thenReturn(batchResult);
+
+        assertSame(batchResult, tagService.addTags(tagDTOs));
+
+        ArgumentCaptor<Function<TagDTO, Tag>> toEntity = ArgumentCaptor.forClass(Function.class);
+        verify(batchPersister).persist(eq(tagDTOs), toEntity.capture(), eq(tagRepository), any());
+        Tag tag = new Tag("tag");
+        tag.setId(7L);
+        when(tagMapper.toEntity(valid)).thenReturn(tag);
+        when(tagMapper.toEntity(invalid)).thenReturn(new Tag());
+        assertNull(toEntity.getValue().apply(valid).getId());
+        assertThrows(IllegalArgumentException.class, () -> toEntity.getValue().apply(invalid));
+    }
+
+    @Test
+    void testGetTagCachedUntilUpdate() {
+        long tagId = 1L;
+        Tag tag = new Tag("TestName");
+        when(tagRepository.findById(tagId)).thenReturn(Optional.of(tag));
+        when(tagMapper.toDTO(tag)).thenReturn(new TagDTO(tagId, "TestName"));
+        cacheRegistry.posts().get(5L, id -> new PostDTO());
+
+        tagService.getTag(tagId);
+        tagService.getTag(tagId);
+        verify(tagRepository, times(1)).findById(tagId);
+
+        tagService.updateTag(tagId, new TagDTO(tagId, "NewName"));
+        tagService.getTag(tagId);
+        verify(tagRepository, times(3)).findById(tagId);
+        assertEquals(0, cacheRegistry.posts().stats().getSize());
+    }
+
+    @Test
+    void testGetAllTagsETag() {
+        when(tagRepository.findVersionStamp()).thenReturn("3.2.300.150");
+
+        assertEquals("\"3.2.300.150\"", tagService.getAllTagsETag());
     }
 }
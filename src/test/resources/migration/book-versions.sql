@@ -0,0 +1,4 @@
+-- liquibase formatted sql
+
+-- changeset tester:4
+ALTER TABLE book ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- liquibase formatted sql
+
+-- changeset tester:1
+CREATE TABLE book
+(
+    id    BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL
+);
+INSERT INTO book (id, title) VALUES (1, 'Semicolons; inside a line');
+
+-- changeset tester:2 dbms:postgresql
+CREATE INDEX idx_book_title ON book USING GIN (to_tsvector('english', title));
+
+-- changeset tester:3 dbms:h2
+-- Only for H2, which has no full-text index of this kind.
+CREATE INDEX idx_book_title ON book (title);
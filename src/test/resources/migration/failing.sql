@@ -0,0 +1,8 @@
+-- liquibase formatted sql
+
+-- changeset tester:1
+CREATE TABLE shelf (id BIGINT PRIMARY KEY);
+
+-- changeset tester:2
+INSERT INTO shelf (id) VALUES (1);
+INSERT INTO missing_table (id) VALUES (1);